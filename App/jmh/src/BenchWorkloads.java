@@ -0,0 +1,129 @@
+import group67.jmh.Workload;
+import group67.jmh.Workloads;
+
+import javax.swing.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The hot paths measured by the group67.jmh benchmarks, on seeded data from DataGenerator.
+ * It sits in the default package with the app so it can reach its package-private classes;
+ * the benchmarks find it by name through Workloads.
+ */
+public final class BenchWorkloads implements Workloads {
+    static final int TASKS_PER_PROJECT_FILE = 1_000;
+
+    @Override
+    public File dataRoot() {
+        return AppConfig.configuredDirectory();
+    }
+
+    @Override
+    public Workload create(String name, int size, File dir) throws Exception {
+        DataGenerator gen = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        return switch (name) {
+            case "project.save" -> {
+                Project one = gen.projects(1, size).get(0);
+                File saveDir = new File(dir, "save");
+                Files.createDirectories(saveDir.toPath());
+                ProjectFileHandler saver = new ProjectFileHandler(saveDir);
+                yield () -> { saver.saveProject(one); return null; };
+            }
+            case "project.serialize" -> {
+                Project one = gen.projects(1, size).get(0);
+                yield () -> ProjectFileHandler.toBytes(one).length;
+            }
+            case "project.loadAll" -> {
+                File loadDir = new File(dir, "load");
+                DataGenerator.write(gen.tasks(size, TASKS_PER_PROJECT_FILE), loadDir);
+                ProjectFileHandler loader = new ProjectFileHandler(loadDir);
+                yield () -> loader.loadAllProjects().size();
+            }
+            case "sort.deadline" -> sort(gen, size, 0);
+            case "sort.difficulty" -> sort(gen, size, 1);
+            case "sort.name" -> sort(gen, size, 2);
+            case "gwa.totals" -> {
+                DefaultListModel<Subject> subjects = gen.subjects(size);
+                yield () -> Subject.totals(subjects).gwa();
+            }
+            case "gwa.update" -> {
+                // One edited subject with running totals, as the GWA tab does it
+                DefaultListModel<Subject> subjects = gen.subjects(size);
+                GwaAggregator aggregator = new GwaAggregator(subjects);
+                int[] row = {0};
+                yield () -> {
+                    int i = row[0]++ % subjects.size();
+                    subjects.set(i, subjects.get(i));
+                    return aggregator.totals().gwa();
+                };
+            }
+            case "gwa.whatif" -> whatIf(gen, size);
+            case "grades.edit" -> gradeEdit(size);
+            case "date.format" -> {
+                List<Date> dates = gen.dates(size);
+                SafeDateFormat fmt = new SafeDateFormat("MM/dd/yyyy");
+                yield () -> {
+                    int chars = 0;
+                    for (Date d : dates) chars += fmt.format(d).length();
+                    return chars;
+                };
+            }
+            default -> throw new IllegalArgumentException("No workload " + name);
+        };
+    }
+
+    // Sorting as refreshTasks does it, on a fresh shuffled copy each time
+    private static Workload sort(DataGenerator gen, int size, int mode) {
+        List<Task> shuffled = new ArrayList<>(gen.projects(1, size).get(0).tasks);
+        Collections.shuffle(shuffled, new Random(DataGenerator.DEFAULT_SEED));
+        Comparator<Task> order = Task.order(mode);
+        return () -> {
+            List<Task> copy = new ArrayList<>(shuffled);
+            copy.sort(order);
+            return copy.get(0);
+        };
+    }
+
+    // size samples over eight pending subjects, on every core
+    private static Workload whatIf(DataGenerator gen, int size) {
+        List<Subject> pending = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Subject s = new Subject("Pending " + i, 3, 3.5, "Next term");
+            s.setPending(true);
+            s.setRange(2.0, 5.0);
+            pending.add(s);
+        }
+        Subject.Totals graded = Subject.totals(gen.subjects(size));
+        return () -> {
+            GwaSimulation sim = new GwaSimulation(graded, pending, size, 1);
+            sim.start().join();
+            return sim.snapshot().percentileCents(0.5);
+        };
+    }
+
+    private static Workload gradeEdit(int size) {
+        GradeBook book = new GradeBook();
+        List<GradeComponent> items = new ArrayList<>();
+        for (int g = 0; g < 8; g++) {
+            GradeComponent group = GradeComponent.group("Group " + g, g + 1);
+            book.add(book.root, group);
+            for (int i = g; i < size; i += 8) {
+                GradeComponent item = GradeComponent.item("Item " + i, 1, 100);
+                book.add(group, item);
+                items.add(item);
+            }
+        }
+        int[] edit = {0};
+        return () -> {
+            int i = edit[0]++;
+            book.setScore(items.get(i % items.size()), (double) (i % 101), 100);
+            return book.gradeCents();
+        };
+    }
+}
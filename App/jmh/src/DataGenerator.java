@@ -0,0 +1,104 @@
+import javax.swing.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic synthetic data for benchmarks and for trying the app on large data sets.
+ * The same seed always gives the same projects, so results stay comparable across commits.
+ *
+ * Standalone use writes N projects with M tasks each into a data folder, then run the
+ * app against it with the same folder:
+ *   java -cp App/jmh/target/benchmarks.jar DataGenerator 20 5000 /tmp/big-data
+ *   java -Dgroup67.dataDir=/tmp/big-data -cp App/jmh/target/benchmarks.jar App
+ */
+final class DataGenerator {
+    static final long DEFAULT_SEED = 67;
+
+    private static final String[] VERBS = {"Write", "Review", "Read", "Study", "Draft", "Submit", "Fix", "Plan", "Test", "Present"};
+    private static final String[] NOUNS = {"essay", "lab report", "chapter 4", "slides", "problem set", "thesis outline",
+            "group notes", "quiz reviewer", "project proposal", "reading log"};
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final Random random;
+    private final long now = System.currentTimeMillis();
+
+    DataGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    /** `projects` projects with `tasksPerProject` tasks each. */
+    List<Project> projects(int projects, int tasksPerProject) {
+        List<Project> out = new ArrayList<>(projects);
+        for (int p = 0; p < projects; p++) {
+            Project project = new Project("Project " + (p + 1));
+            for (int t = 0; t < tasksPerProject; t++) project.addTask(task());
+            out.add(project);
+        }
+        return out;
+    }
+
+    /** `total` tasks spread over projects of at most `maxPerProject` tasks. */
+    List<Project> tasks(int total, int maxPerProject) {
+        List<Project> out = new ArrayList<>();
+        for (int left = total; left > 0; left -= maxPerProject) {
+            out.addAll(projects(1, Math.min(left, maxPerProject)));
+        }
+        return out;
+    }
+
+    // Deadlines from two weeks ago to three months out, about a third done
+    Task task() {
+        String name = VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + " #" + random.nextInt(10_000);
+        Date deadline = random.nextInt(20) == 0 ? null : new Date(now + (random.nextInt(105) - 14) * DAY_MS);
+        Task task = new Task(name, random.nextInt(4), deadline);
+        if (random.nextInt(3) == 0) task.setCompleted(true);
+        return task;
+    }
+
+    DefaultListModel<Subject> subjects(int count) {
+        DefaultListModel<Subject> model = new DefaultListModel<>();
+        for (int i = 0; i < count; i++) {
+            double units = 1 + random.nextInt(5);
+            double grade = 1 + random.nextInt(17) * 0.25; // 1.00 .. 5.00 in quarter steps
+            model.addElement(new Subject("Subject " + (i + 1), units, grade));
+        }
+        return model;
+    }
+
+    List<Date> dates(int count) {
+        List<Date> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(new Date(now + (random.nextInt(730) - 365) * DAY_MS));
+        return out;
+    }
+
+    /** Writes the projects into dir as <UUID>.dat files. */
+    static void write(List<Project> projects, File dir) {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IllegalStateException("Cannot create " + dir);
+        ProjectFileHandler handler = new ProjectFileHandler(dir);
+        for (Project p : projects) handler.saveProject(p);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: DataGenerator <projects> <tasksPerProject> [dir] [seed]");
+            System.exit(2);
+        }
+        int projects = Integer.parseInt(args[0]);
+        int tasks = Integer.parseInt(args[1]);
+        // Never default to the real data folder: an explicit dir or -Dgroup67.dataDir is required
+        File dir = args.length > 2 ? new File(args[2]) : AppConfig.configuredDirectory();
+        if (dir == null) {
+            System.err.println("Give a target folder or set -D" + AppConfig.DATA_DIR_PROPERTY);
+            System.exit(2);
+        }
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+
+        write(new DataGenerator(seed).projects(projects, tasks), dir);
+        System.out.println("Wrote " + projects + " x " + tasks + " tasks to " + dir.getAbsolutePath());
+    }
+}
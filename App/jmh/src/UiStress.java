@@ -0,0 +1,271 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Drives the real Projects tab (ProjectListPanel + ProjectTodoPanel) through scripted
+ * interactions on large synthetic projects and reports, per interaction:
+ * latency until the UI is settled, layout time, paint time and bytes allocated.
+ *
+ * No window is opened: the panels are laid out and painted into an offscreen image, so
+ * it runs with -Djava.awt.headless=true as well as under Xvfb or a real display.
+ *
+ *   java -Djava.awt.headless=true -cp App/jmh/target/benchmarks.jar UiStress --projects 4 --tasks 10000 --out ui.csv
+ *   java -Djava.awt.headless=true -cp App/jmh/target/benchmarks.jar UiStress --compare ui.csv
+ *
+ * Options: --projects, --tasks (per project), --rounds, --width, --height, --out,
+ * --compare, --label, --seed. Saves triggered by the panels go to a temporary data folder.
+ */
+final class UiStress {
+    static final String[] INTERACTIONS = {"select project", "toggle task", "change sort", "add task"};
+
+    private int projects = 4;
+    private int tasksPerProject = 10_000;
+    private int rounds = 15;
+    private int width = 1400;
+    private int height = 900;
+    private File outFile;
+    private File compareFile;
+    private String label = "local";
+    private long seed = DataGenerator.DEFAULT_SEED;
+
+    /** Timings for one interaction type, all in nanoseconds. */
+    static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram layout = new LatencyHistogram();
+        final LatencyHistogram paint = new LatencyHistogram();
+        long allocatedBytes;
+        long busyNanos;
+    }
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // EDT-only state
+    private List<Project> data;
+    private ProjectListPanel listPanel;
+    private ProjectTodoPanel todoPanel;
+    private JPanel root;
+    private BufferedImage canvas;
+    private int sortIndex = 0;
+
+    public static void main(String[] args) throws Exception {
+        UiStress stress = new UiStress();
+        stress.parse(args);
+        // Must be set before AppConfig resolves the folder: panel saves stay out of the real data
+        File dataDir = Files.createTempDirectory("group67-uistress").toFile();
+        System.setProperty(AppConfig.DATA_DIR_PROPERTY, dataDir.getAbsolutePath());
+        stress.run();
+        System.exit(0); // Swing and the I/O pool keep the JVM alive otherwise
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--projects" -> { projects = Integer.parseInt(value); i++; }
+                case "--tasks" -> { tasksPerProject = Integer.parseInt(value); i++; }
+                case "--rounds" -> { rounds = Integer.parseInt(value); i++; }
+                case "--width" -> { width = Integer.parseInt(value); i++; }
+                case "--height" -> { height = Integer.parseInt(value); i++; }
+                case "--out" -> { outFile = new File(value); i++; }
+                case "--compare" -> { compareFile = new File(value); i++; }
+                case "--label" -> { label = value; i++; }
+                case "--seed" -> { seed = Long.parseLong(value); i++; }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        for (String name : INTERACTIONS) stats.put(name, new Stats());
+    }
+
+    private void run() throws Exception {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        System.err.printf("Generating %d x %d tasks...%n", projects, tasksPerProject);
+        data = new DataGenerator(seed).projects(projects, tasksPerProject);
+
+        long t0 = System.nanoTime();
+        SwingUtilities.invokeAndWait(this::build);
+        System.err.printf("Built panels and first project in %.1f ms%n", (System.nanoTime() - t0) / 1e6);
+
+        // One untimed round warms up the JIT and the row/icon caches
+        round(0, false);
+        for (int r = 1; r <= rounds; r++) round(r, true);
+
+        String report = report();
+        System.out.print(report);
+        if (outFile != null) {
+            try (PrintStream out = new PrintStream(outFile, "UTF-8")) {
+                out.print(report);
+            }
+        }
+        if (compareFile != null) compare(readReport(compareFile));
+    }
+
+    private void build() {
+        todoPanel = new ProjectTodoPanel();
+        listPanel = new ProjectListPanel(data);
+        new ProjectFileHandler().saveOnChange();
+        root = new JPanel(new BorderLayout());
+        root.add(listPanel, BorderLayout.WEST);
+        root.add(todoPanel, BorderLayout.CENTER);
+        root.setSize(width, height);
+        canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        layoutTree(root);
+    }
+
+    /* ---------- scripted interactions ---------- */
+    private void round(int r, boolean record) throws Exception {
+        if (projects > 1) {
+            Project next = data.get(r % projects);
+            interact("select project", record, () -> listPanel.selectProject(next));
+        }
+        interact("toggle task", record, () -> {
+            JButton finish = find(root, JButton.class, "task.finish");
+            if (finish != null) finish.doClick(0);
+        });
+        interact("change sort", record, () -> {
+            JComboBox<?> sort = find(root, JComboBox.class, "task.sort");
+            sortIndex = (sortIndex + 1) % sort.getItemCount();
+            sort.setSelectedIndex(sortIndex);
+        });
+        interact("add task", record, () -> todoPanel.addTask(null, new Task("Stress task " + r, r % 4, null)));
+    }
+
+    private void interact(String name, boolean record, Runnable action) throws Exception {
+        Stats s = stats.get(name);
+        long allocBefore = allocatedBytes();
+        long[] phase = new long[2]; // layout, paint
+
+        long start = System.nanoTime();
+        // Model events are delivered at the end of the EDT event; count that delivery too
+        SwingUtilities.invokeAndWait(() -> {
+            action.run();
+            ModelBus.flush();
+        });
+        long latency = System.nanoTime() - start;
+
+        SwingUtilities.invokeAndWait(() -> {
+            long t = System.nanoTime();
+            layoutTree(root);
+            phase[0] = System.nanoTime() - t;
+            t = System.nanoTime();
+            Graphics2D g = canvas.createGraphics();
+            try {
+                root.paint(g);
+            } finally {
+                g.dispose();
+            }
+            phase[1] = System.nanoTime() - t;
+        });
+        AsyncIO.drain(); // the save it queued belongs to this interaction
+        long allocated = allocatedBytes() - allocBefore;
+
+        if (!record) return;
+        s.latency.record(latency);
+        s.layout.record(phase[0]);
+        s.paint.record(phase[1]);
+        s.allocatedBytes += allocated;
+        s.busyNanos += latency + phase[0] + phase[1];
+    }
+
+    /* ---------- Swing helpers ---------- */
+    // validate() needs a native peer; without a window lay the tree out directly
+    private static void layoutTree(Component c) {
+        if (c instanceof Container container) {
+            container.doLayout();
+            for (Component child : container.getComponents()) layoutTree(child);
+        }
+    }
+
+    private static <T extends Component> T find(Component c, Class<T> type, String name) {
+        if (type.isInstance(c) && name.equals(c.getName())) return type.cast(c);
+        if (c instanceof Container container) {
+            for (Component child : container.getComponents()) {
+                T found = find(child, type, name);
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    // Allocation by every live thread, so background sorting and saving are counted too
+    private long allocatedBytes() {
+        long total = 0;
+        for (long b : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (b > 0) total += b;
+        }
+        return total;
+    }
+
+    /* ---------- report ---------- */
+    private static final String CSV_HEADER =
+            "label,interaction,runs,latency_p50_ms,latency_p95_ms,latency_max_ms,layout_p50_ms,paint_p50_ms,alloc_kb_per_op,alloc_mb_per_s";
+
+    private String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# UiStress ").append(Instant.now()).append(", ").append(System.getProperty("java.vm.name"))
+                .append(' ').append(System.getProperty("java.version"))
+                .append(", headless=").append(GraphicsEnvironment.isHeadless())
+                .append(String.format(Locale.ROOT, ", %d projects x %d tasks, %d rounds, %dx%d%n",
+                        projects, tasksPerProject, rounds, width, height));
+        sb.append(CSV_HEADER).append('\n');
+        stats.forEach((name, s) -> {
+            long runs = s.latency.count();
+            if (runs == 0) return;
+            double allocKbPerOp = s.allocatedBytes / 1024.0 / runs;
+            double allocRate = s.busyNanos == 0 ? 0 : s.allocatedBytes / 1048576.0 / (s.busyNanos / 1e9);
+            sb.append(String.format(Locale.ROOT, "%s,%s,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.1f,%.1f%n",
+                    label, name, runs, s.latency.percentileMillis(50), s.latency.percentileMillis(95),
+                    s.latency.maxMillis(), s.layout.percentileMillis(50), s.paint.percentileMillis(50),
+                    allocKbPerOp, allocRate));
+        });
+        return sb.toString();
+    }
+
+    private static Map<String, double[]> readReport(File file) throws IOException {
+        Map<String, double[]> out = new HashMap<>();
+        for (String line : Files.readAllLines(file.toPath())) {
+            if (line.startsWith("#") || line.startsWith("label,") || line.isBlank()) continue;
+            String[] f = line.split(",");
+            double[] values = new double[f.length - 3];
+            for (int i = 3; i < f.length; i++) values[i - 3] = Double.parseDouble(f[i]);
+            out.put(f[1], values);
+        }
+        return out;
+    }
+
+    // p50 latency, paint and allocation against an earlier report
+    private void compare(Map<String, double[]> baseline) {
+        System.err.println();
+        System.err.printf("%-16s %22s %22s %22s%n", "interaction", "latency p50 ms", "paint p50 ms", "alloc KB/op");
+        List<String> rows = new ArrayList<>();
+        stats.forEach((name, s) -> {
+            double[] base = baseline.get(name);
+            if (base == null || s.latency.count() == 0) return;
+            double allocKb = s.allocatedBytes / 1024.0 / s.latency.count();
+            rows.add(String.format(Locale.ROOT, "%-16s %22s %22s %22s", name,
+                    delta(base[0], s.latency.percentileMillis(50)),
+                    delta(base[4], s.paint.percentileMillis(50)),
+                    delta(base[5], allocKb)));
+        });
+        rows.forEach(System.err::println);
+    }
+
+    private static String delta(double before, double now) {
+        double pct = before == 0 ? 0 : (now - before) / before * 100;
+        return String.format(Locale.ROOT, "%.2f -> %.2f (%+.0f%%)", before, now, pct);
+    }
+}
@@ -0,0 +1,19 @@
+package group67.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/** Formatting `size` dates through SafeDateFormat. */
+public class DateBench extends SizedState {
+    private Workload format;
+
+    @Setup
+    public void setUp() throws Exception {
+        format = workload("date.format");
+    }
+
+    @Benchmark
+    public Object format() throws Exception {
+        return format.run();
+    }
+}
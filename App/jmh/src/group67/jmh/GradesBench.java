@@ -0,0 +1,19 @@
+package group67.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/** One score edit in a subject of `size` items spread over 8 groups. */
+public class GradesBench extends SizedState {
+    private Workload edit;
+
+    @Setup
+    public void setUp() throws Exception {
+        edit = workload("grades.edit");
+    }
+
+    @Benchmark
+    public Object edit() throws Exception {
+        return edit.run();
+    }
+}
@@ -0,0 +1,31 @@
+package group67.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/** GWA over `size` subjects: from scratch, after one edit, and `size` what-if samples. */
+public class GwaBench extends SizedState {
+    private Workload totals, update, whatif;
+
+    @Setup
+    public void setUp() throws Exception {
+        totals = workload("gwa.totals");
+        update = workload("gwa.update");
+        whatif = workload("gwa.whatif");
+    }
+
+    @Benchmark
+    public Object totals() throws Exception {
+        return totals.run();
+    }
+
+    @Benchmark
+    public Object update() throws Exception {
+        return update.run();
+    }
+
+    @Benchmark
+    public Object whatif() throws Exception {
+        return whatif.run();
+    }
+}
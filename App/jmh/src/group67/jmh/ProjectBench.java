@@ -0,0 +1,33 @@
+package group67.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/** Saving, serializing and loading projects of `size` tasks. */
+public class ProjectBench extends SizedState {
+    private Workload save, serialize, loadAll;
+
+    @Setup
+    public void setUp() throws Exception {
+        save = workload("project.save");
+        serialize = workload("project.serialize");
+        loadAll = workload("project.loadAll");
+    }
+
+    // One project of size tasks, written atomically
+    @Benchmark
+    public Object save() throws Exception {
+        return save.run();
+    }
+
+    @Benchmark
+    public Object serialize() throws Exception {
+        return serialize.run();
+    }
+
+    // size tasks spread over files of at most 1000 tasks
+    @Benchmark
+    public Object loadAll() throws Exception {
+        return loadAll.run();
+    }
+}
@@ -0,0 +1,58 @@
+package group67.jmh;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Shared settings for every benchmark: sizes 10 to 100k, average time in us/op, and a data
+ * folder for the persistence cases. The folder is temporary unless -Dgroup67.dataDir is
+ * given to the forked JVM (-jvmArgsAppend), in which case it is left in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class SizedState {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private final Workloads workloads = Workloads.load();
+    private Path tempRoot;
+
+    protected Workload workload(String name) throws Exception {
+        File root = workloads.dataRoot();
+        if (root == null) {
+            if (tempRoot == null) tempRoot = Files.createTempDirectory("group67-jmh");
+            root = tempRoot.toFile();
+        }
+        return workloads.create(name, size, new File(root, "n" + size));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTempData() throws IOException {
+        if (tempRoot == null) return;
+        try (Stream<Path> paths = Files.walk(tempRoot)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+        tempRoot = null;
+    }
+}
@@ -0,0 +1,23 @@
+package group67.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/** The refreshTasks comparators; each op sorts a fresh shuffled copy (the copy is included). */
+public class SortBench extends SizedState {
+    @Param({"deadline", "difficulty", "name"})
+    public String mode;
+
+    private Workload sort;
+
+    @Setup
+    public void setUp() throws Exception {
+        sort = workload("sort." + mode);
+    }
+
+    @Benchmark
+    public Object sort() throws Exception {
+        return sort.run();
+    }
+}
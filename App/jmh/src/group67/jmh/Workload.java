@@ -0,0 +1,7 @@
+package group67.jmh;
+
+/** One benchmarked operation, set up on data of a given size. */
+@FunctionalInterface
+public interface Workload {
+    Object run() throws Exception;
+}
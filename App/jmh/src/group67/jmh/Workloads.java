@@ -0,0 +1,24 @@
+package group67.jmh;
+
+import java.io.File;
+
+/**
+ * The app's classes live in the default package, which JMH benchmarks cannot (JMH wants a
+ * package) and code in a named package cannot import. BenchWorkloads, in the default
+ * package, builds the workloads and is reached by name through this interface.
+ */
+public interface Workloads {
+    /** A workload such as "sort.name" on `size` items; files it needs go under dir. */
+    Workload create(String name, int size, File dir) throws Exception;
+
+    /** The folder from -Dgroup67.dataDir or GROUP67_DATA_DIR, or null for a temporary one. */
+    File dataRoot();
+
+    static Workloads load() {
+        try {
+            return (Workloads) Class.forName("BenchWorkloads").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchWorkloads is missing from the benchmark jar", e);
+        }
+    }
+}
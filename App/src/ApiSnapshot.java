@@ -0,0 +1,293 @@
+import javax.swing.ListModel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * What the local API reads. The panels publish immutable copies of their data from the
+ * EDT after every change; request threads only ever see whole, consistent views and never
+ * touch a Swing model. JSON is rendered once per view, on the first request that needs it.
+ */
+final class ApiSnapshot {
+    private ApiSnapshot() {}
+
+    record TaskView(UUID id, String name, int difficulty, Date deadline, boolean completed,
+                    Instant createdAt, Instant completedAt, long trackedMillis, List<TaskView> subtasks) {
+        static TaskView of(Task t) {
+            List<TaskView> children = new ArrayList<>(t.getSubtasks().size());
+            for (Task c : t.getSubtasks()) children.add(of(c));
+            Date deadline = t.getDeadline() == null ? null : new Date(t.getDeadline().getTime());
+            return new TaskView(t.getId(), t.getName(), t.getDifficulty(), deadline, t.isCompleted(),
+                    t.getCreatedAt(), t.getCompletedAt(), t.getTrackedMillis(), Collections.unmodifiableList(children));
+        }
+
+        void writeJson(StringBuilder sb) {
+            sb.append("{\"id\":\"").append(id).append("\",\"name\":");
+            Json.string(sb, name);
+            sb.append(",\"difficulty\":").append(difficulty)
+              .append(",\"deadline\":").append(deadline == null ? "null" : "\"" + isoDate(deadline) + "\"")
+              .append(",\"completed\":").append(completed)
+              .append(",\"createdAt\":").append(createdAt == null ? "null" : "\"" + createdAt + "\"")
+              .append(",\"completedAt\":").append(completedAt == null ? "null" : "\"" + completedAt + "\"")
+              .append(",\"trackedMinutes\":").append(trackedMillis / 60_000)
+              .append(",\"subtasks\":[");
+            for (int i = 0; i < subtasks.size(); i++) {
+                if (i > 0) sb.append(',');
+                subtasks.get(i).writeJson(sb);
+            }
+            sb.append("]}");
+        }
+    }
+
+    static final class ProjectView {
+        final UUID id;
+        final String name;
+        final Instant createdAt;
+        final int leafCount, doneCount, progress;
+        final long trackedMillis;
+        final List<TaskView> tasks;
+        private volatile byte[] json; // rendered lazily; a race only renders it twice
+
+        ProjectView(Project p) {
+            id = p.getId();
+            name = p.getName();
+            createdAt = p.getCreationDate();
+            leafCount = p.getLeafCount();
+            doneCount = p.getDoneCount();
+            progress = p.getProgressPercent(false);
+            trackedMillis = p.getTrackedMillis();
+            List<TaskView> views = new ArrayList<>(p.tasks.size());
+            for (Task t : p.tasks) views.add(TaskView.of(t));
+            tasks = Collections.unmodifiableList(views);
+        }
+
+        void writeSummary(StringBuilder sb) {
+            sb.append("{\"id\":\"").append(id).append("\",\"name\":");
+            Json.string(sb, name);
+            sb.append(",\"createdAt\":").append(createdAt == null ? "null" : "\"" + createdAt + "\"")
+              .append(",\"tasks\":").append(leafCount)
+              .append(",\"done\":").append(doneCount)
+              .append(",\"progress\":").append(progress)
+              .append(",\"trackedMinutes\":").append(trackedMillis / 60_000).append('}');
+        }
+
+        byte[] json() {
+            byte[] out = json;
+            if (out == null) {
+                StringBuilder sb = new StringBuilder(256 + tasks.size() * 192);
+                writeSummary(sb);
+                sb.setLength(sb.length() - 1);
+                sb.append(",\"taskList\":[");
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (i > 0) sb.append(',');
+                    tasks.get(i).writeJson(sb);
+                }
+                sb.append("]}");
+                json = out = sb.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            return out;
+        }
+    }
+
+    record SubjectView(String name, double units, double grade, String term, boolean pending) {}
+
+    /** A published value with its JSON rendered on first use. */
+    private static final class Rendered<T> {
+        final T value;
+        private final Function<T, String> render;
+        private volatile byte[] json; // a race only renders it twice
+
+        Rendered(T value, Function<T, String> render) {
+            this.value = value;
+            this.render = render;
+        }
+
+        byte[] json() {
+            byte[] out = json;
+            if (out == null) json = out = render.apply(value).getBytes(StandardCharsets.UTF_8);
+            return out;
+        }
+    }
+
+    // Each field is swapped as a whole; null means that data has not been loaded yet
+    private static volatile Rendered<Map<UUID, ProjectView>> projects;
+    private static volatile Rendered<List<SubjectView>> subjects, gwa;
+    private static volatile Rendered<String> pomodoro = new Rendered<>("IDLE", state -> pomodoroJson(state, 0, 0));
+    private static volatile long pomodoroKey;
+
+    /** Follows ModelBus so every change is re-copied once per batch. EDT. */
+    static void install() {
+        ModelBus.subscribe(ModelEvent.class, batch -> {
+            Set<Project> changed = new LinkedHashSet<>();
+            for (ModelEvent e : batch) {
+                switch (e) {
+                    case ModelEvent.ProjectAdded a -> changed.add(a.project());
+                    case ModelEvent.ProjectRenamed r -> changed.add(r.project());
+                    case ModelEvent.TaskChanged t -> changed.add(t.project());
+                    case ModelEvent.ProjectRemoved r -> {
+                        changed.remove(r.project());
+                        removeProject(r.project());
+                    }
+                    case ModelEvent.SubjectsChanged s -> publishSubjects(s.subjects());
+                    case ModelEvent.PomodoroChanged p ->
+                            publishPomodoro(p.state(), p.remainingSeconds(), p.cyclesCompleted());
+                    case ModelEvent.ProjectSelected s -> { }
+                }
+            }
+            changed.forEach(ApiSnapshot::publishProject);
+        });
+    }
+
+    /* ---------- publishing (EDT, or before the data is shared) ---------- */
+    static void publishProjects(ListModel<Project> model) {
+        Map<UUID, ProjectView> next = new LinkedHashMap<>();
+        for (int i = 0; i < model.getSize(); i++) {
+            Project p = model.getElementAt(i);
+            next.put(p.getId(), new ProjectView(p));
+        }
+        setProjects(next);
+    }
+
+    /** Re-copies one project; a project not seen before goes first, as in the list. */
+    static void publishProject(Project p) {
+        Rendered<Map<UUID, ProjectView>> current = projects;
+        if (current == null) return; // the full list is published once it has loaded
+        Map<UUID, ProjectView> next = new LinkedHashMap<>();
+        if (!current.value.containsKey(p.getId())) next.put(p.getId(), new ProjectView(p));
+        for (Map.Entry<UUID, ProjectView> e : current.value.entrySet()) {
+            next.put(e.getKey(), e.getKey().equals(p.getId()) ? new ProjectView(p) : e.getValue());
+        }
+        setProjects(next);
+    }
+
+    static void removeProject(Project p) {
+        Rendered<Map<UUID, ProjectView>> current = projects;
+        if (current == null || !current.value.containsKey(p.getId())) return;
+        Map<UUID, ProjectView> next = new LinkedHashMap<>(current.value);
+        next.remove(p.getId());
+        setProjects(next);
+    }
+
+    private static void setProjects(Map<UUID, ProjectView> next) {
+        projects = new Rendered<>(Collections.unmodifiableMap(next), ApiSnapshot::projectListJson);
+    }
+
+    static void publishSubjects(ListModel<Subject> model) {
+        List<SubjectView> next = new ArrayList<>(model.getSize());
+        for (int i = 0; i < model.getSize(); i++) {
+            Subject s = model.getElementAt(i);
+            next.add(new SubjectView(s.getName(), s.getUnits(), s.getGrade(), s.getTerm(), s.isPending()));
+        }
+        List<SubjectView> list = Collections.unmodifiableList(next);
+        subjects = new Rendered<>(list, ApiSnapshot::subjectsJson);
+        gwa = new Rendered<>(list, ApiSnapshot::gwaJson);
+    }
+
+    // Called every timer tick; only allocates when something changed
+    static void publishPomodoro(String state, int remainingSeconds, int cyclesCompleted) {
+        long key = ((long) remainingSeconds << 32) | (cyclesCompleted & 0xffffffffL);
+        if (key == pomodoroKey && pomodoro.value.equals(state)) return;
+        pomodoroKey = key;
+        pomodoro = new Rendered<>(state, s -> pomodoroJson(s, remainingSeconds, cyclesCompleted));
+    }
+
+    /* ---------- reading (any thread) ---------- */
+    static boolean projectsLoaded() {
+        return projects != null;
+    }
+
+    static boolean subjectsLoaded() {
+        return subjects != null;
+    }
+
+    /** The project as last published, or null. */
+    static ProjectView project(UUID id) {
+        Rendered<Map<UUID, ProjectView>> current = projects;
+        return current == null ? null : current.value.get(id);
+    }
+
+    static byte[] projectListJson() {
+        return projects.json();
+    }
+
+    static byte[] subjectsJson() {
+        return subjects.json();
+    }
+
+    static byte[] gwaJson() {
+        return gwa.json();
+    }
+
+    static byte[] pomodoroJson() {
+        return pomodoro.json();
+    }
+
+    /* ---------- rendering ---------- */
+    private static String projectListJson(Map<UUID, ProjectView> views) {
+        StringBuilder sb = new StringBuilder(64 + views.size() * 160).append('[');
+        boolean first = true;
+        for (ProjectView v : views.values()) {
+            if (!first) sb.append(',');
+            first = false;
+            v.writeSummary(sb);
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String subjectsJson(List<SubjectView> list) {
+        StringBuilder sb = new StringBuilder(64 + list.size() * 64).append('[');
+        for (int i = 0; i < list.size(); i++) {
+            SubjectView s = list.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":");
+            Json.string(sb, s.name());
+            sb.append(",\"units\":").append(s.units()).append(",\"grade\":").append(s.grade()).append(",\"term\":");
+            Json.string(sb, s.term());
+            sb.append(",\"pending\":").append(s.pending()).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    // Same fixed-point sums and rounding as the GWA tab, terms in order of first appearance
+    private static String gwaJson(List<SubjectView> list) {
+        Map<String, Subject.Totals> terms = new LinkedHashMap<>();
+        for (SubjectView s : list) {
+            if (s.pending()) continue;
+            long units = Subject.cents(s.units());
+            terms.merge(s.term(), new Subject.Totals(units, Subject.cents(s.grade()) * units), Subject.Totals::plus);
+        }
+        Subject.Totals running = Subject.Totals.EMPTY;
+        StringBuilder sb = new StringBuilder("{\"subjects\":").append(list.size()).append(",\"terms\":[");
+        for (Map.Entry<String, Subject.Totals> e : terms.entrySet()) {
+            running = running.plus(e.getValue());
+            if (sb.charAt(sb.length() - 1) != '[') sb.append(',');
+            sb.append("{\"term\":");
+            Json.string(sb, e.getKey());
+            sb.append(",\"units\":").append(e.getValue().units())
+              .append(",\"gwa\":").append(e.getValue().gwaText())
+              .append(",\"cumulative\":").append(running.gwaText()).append('}');
+        }
+        return sb.append("],\"units\":").append(running.units())
+                 .append(",\"gwa\":").append(running.unitCents() > 0 ? running.gwaText() : "null")
+                 .append('}').toString();
+    }
+
+    private static String pomodoroJson(String state, int remainingSeconds, int cyclesCompleted) {
+        return "{\"state\":\"" + state + "\",\"remainingSeconds\":" + remainingSeconds
+                + ",\"cyclesCompleted\":" + cyclesCompleted + "}";
+    }
+
+    static String isoDate(Date d) {
+        return d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+}
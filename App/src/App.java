@@ -2,6 +2,12 @@ import javax.swing.*;
 
 public class App {
     public static void main(String[] args) {
+        StartupTimer.mark("main");
+        EdtWatchdog.start();
+        // The platform MBean server is slow to start; keep it off the startup path
+        AsyncIO.submit(() -> { Metrics.registerJmx(); return null; });
+        // Decode icons in the background while the UI is being built
+        Assets.preload("Logo.png", "check.png", "undo.png", "pencil.png", "trash.png");
         SwingUtilities.invokeLater(() -> new MainFrame());
     }
 }
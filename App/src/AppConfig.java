@@ -1,29 +1,55 @@
 import java.io.File;
 
 public class AppConfig {
+    private static final Log LOG = Log.get(AppConfig.class);
+
     // The name of the folder inside AppData
     public static final String APP_FOLDER_NAME = "Group67";
 
+    // Overrides the whole data folder, e.g. -Dgroup67.dataDir=/tmp/bench-data (property wins over env)
+    static final String DATA_DIR_PROPERTY = "group67.dataDir";
+    static final String DATA_DIR_ENV = "GROUP67_DATA_DIR";
+
+    // Resolved once; later calls are hit from the EDT and must not touch the disk
+    private static volatile File projectDirectory;
+
     public static File getProjectDirectory() {
-        // 1. Get the system's APPDATA environment variable
-        String appData = System.getenv("APPDATA");
+        File cached = projectDirectory;
+        if (cached != null) return cached;
+        return projectDirectory = resolveProjectDirectory();
+    }
 
-        // Fallback for Mac/Linux (uses user home directory)
-        if (appData == null) {
-            appData = System.getProperty("user.home");
-        }
+    private static File resolveProjectDirectory() {
+        File dir = configuredDirectory();
+        if (dir == null) {
+            // 1. Get the system's APPDATA environment variable
+            String appData = System.getenv("APPDATA");
 
-        // 2. Construct the full path: C:\Users\Name\AppData\Roaming\Group67
-        File dir = new File(appData, APP_FOLDER_NAME);
+            // Fallback for Mac/Linux (uses user home directory)
+            if (appData == null) {
+                appData = System.getProperty("user.home");
+            }
+
+            // 2. Construct the full path: C:\Users\Name\AppData\Roaming\Group67
+            dir = new File(appData, APP_FOLDER_NAME);
+        }
 
         // 3. Create the directory if it doesn't exist yet
         if (!dir.exists()) {
             boolean created = dir.mkdirs();
             if (created) {
-                System.out.println("Created directory: " + dir.getAbsolutePath());
+                LOG.info("Created directory: {}", dir.getAbsolutePath());
             }
         }
 
         return dir;
     }
+
+    // Explicit data root from -Dgroup67.dataDir or GROUP67_DATA_DIR, null if neither is set
+    static File configuredDirectory() {
+        String path = System.getProperty(DATA_DIR_PROPERTY);
+        if (path == null || path.isBlank()) path = System.getenv(DATA_DIR_ENV);
+        if (path == null || path.isBlank()) return null;
+        return new File(path.trim()).getAbsoluteFile();
+    }
 }
\ No newline at end of file
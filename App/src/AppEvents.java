@@ -0,0 +1,97 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for what the app is doing, so a JFR recording of a
+ * slow session shows project loads, refreshes, GWA runs, Pomodoro transitions and
+ * BGM playback next to the GC and thread data.
+ *
+ * Callers check shouldCommit() before filling in fields; with recording off that is
+ * a single flag test and the event object is optimized away by the JIT.
+ */
+final class AppEvents {
+    private static final String CATEGORY = "College Productivity App";
+
+    private AppEvents() {}
+
+    @Name("group67.ProjectLoad")
+    @Label("Project Load")
+    @Category({CATEGORY, "Persistence"})
+    @StackTrace(false)
+    static final class ProjectLoad extends Event {
+        @Label("Project Id") String projectId;
+        @Label("Project Name") String projectName;
+        @Label("Task Count") int taskCount;
+        @Label("Bytes") @DataAmount long bytes;
+    }
+
+    @Name("group67.ProjectSave")
+    @Label("Project Save")
+    @Category({CATEGORY, "Persistence"})
+    @StackTrace(false)
+    static final class ProjectSave extends Event {
+        @Label("Project Id") String projectId;
+        @Label("Project Name") String projectName;
+        @Label("Task Count") int taskCount;
+        @Label("Bytes") @DataAmount long bytes;
+        @Label("Asynchronous") boolean async;
+    }
+
+    @Name("group67.TaskRefresh")
+    @Label("Task List Refresh")
+    @Category({CATEGORY, "UI"})
+    @Description("ProjectTodoPanel rebuilding its task rows")
+    static final class TaskRefresh extends Event {
+        @Label("Sort Mode") String sortMode;
+        @Label("Row Count") int rowCount;
+        @Label("Project Id") String projectId;
+    }
+
+    @Name("group67.TaskSort")
+    @Label("Task Sort")
+    @Category({CATEGORY, "UI"})
+    @StackTrace(false)
+    static final class TaskSort extends Event {
+        @Label("Sort Mode") String sortMode;
+        @Label("Task Count") int taskCount;
+    }
+
+    @Name("group67.GwaCalculation")
+    @Label("GWA Calculation")
+    @Category({CATEGORY, "GWA"})
+    @StackTrace(false)
+    static final class GwaCalculation extends Event {
+        @Label("Subject Count") int subjectCount;
+        @Label("Total Units") double totalUnits;
+        @Label("GWA") double gwa;
+    }
+
+    @Name("group67.PomodoroTransition")
+    @Label("Pomodoro State Transition")
+    @Category({CATEGORY, "Pomodoro"})
+    @StackTrace(false)
+    static final class PomodoroTransition extends Event {
+        @Label("From") String from;
+        @Label("To") String to;
+        @Label("Cycles Completed") int cyclesCompleted;
+        @Label("Remaining Seconds") int remainingSeconds;
+    }
+
+    @Name("group67.BgmPlayback")
+    @Label("BGM Playback")
+    @Category({CATEGORY, "Pomodoro"})
+    @StackTrace(false)
+    static final class BgmPlayback extends Event {
+        @Label("Action") @Description("start, stop or loop") String action;
+        @Label("Track") String track;
+    }
+
+    static String projectId(Project p) {
+        return p == null ? null : p.getId().toString();
+    }
+}
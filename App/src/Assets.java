@@ -0,0 +1,154 @@
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads images from the classpath ("/assets/...") on a background thread and hands
+ * out shared, pre-scaled icons. Each icon is a MultiResolutionImage holding one
+ * variant per common HiDPI scale, so Java2D picks a sharp bitmap on any screen.
+ */
+final class Assets {
+    // Scale factors pre-rendered for every icon (100%, 125%, 150%, 200%)
+    static final double[] SCALES = {1.0, 1.25, 1.5, 2.0};
+
+    // Fallback for running from the project root without assets on the classpath
+    private static final String FILE_FALLBACK_DIR = "App/assets/";
+    private static final Log LOG = Log.get(Assets.class);
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "asset-loader");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    private static final Map<String, CompletableFuture<BufferedImage>> decoded = new ConcurrentHashMap<>();
+    private static final Map<String, AssetIcon> icons = new ConcurrentHashMap<>();
+
+    private Assets() {}
+
+    /** Starts decoding the given files so later lookups find them ready. */
+    static void preload(String... names) {
+        for (String name : names) decode(name);
+    }
+
+    /**
+     * Shared icon of the given logical size. Returns immediately; the icon paints
+     * nothing until its image is ready, then the windows are repainted once.
+     */
+    static Icon icon(String name, int width, int height) {
+        return icons.computeIfAbsent(name + "@" + width + "x" + height, key -> {
+            AssetIcon icon = new AssetIcon(width, height);
+            decode(name)
+                    .thenApplyAsync(src -> multiResolution(src, width, height), LOADER)
+                    .thenAccept(icon::ready)
+                    .exceptionally(ex -> {
+                        LOG.warn("Failed to load asset: {}", name, AsyncIO.unwrap(ex));
+                        return null;
+                    });
+            return icon;
+        });
+    }
+
+    /** The image pre-scaled to each of the given square sizes, e.g. for Window.setIconImages. */
+    static CompletableFuture<List<Image>> imageSizes(String name, int... sizes) {
+        return decode(name).thenApplyAsync(src -> {
+            List<Image> out = new ArrayList<>(sizes.length);
+            for (int s : sizes) out.add(scale(src, s, s));
+            return out;
+        }, LOADER);
+    }
+
+    /* ---------- internals ---------- */
+    private static CompletableFuture<BufferedImage> decode(String name) {
+        return decoded.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> read(n), LOADER));
+    }
+
+    private static BufferedImage read(String name) {
+        try {
+            URL url = Assets.class.getResource("/assets/" + name);
+            if (url != null) {
+                try (InputStream in = url.openStream()) {
+                    return ImageIO.read(in);
+                }
+            }
+            File file = new File(FILE_FALLBACK_DIR + name);
+            BufferedImage img = file.exists() ? ImageIO.read(file) : null;
+            if (img == null) throw new IOException("asset not found: " + name);
+            return img;
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    private static Image multiResolution(BufferedImage src, int width, int height) {
+        Image[] variants = new Image[SCALES.length];
+        for (int i = 0; i < SCALES.length; i++) {
+            variants[i] = scale(src, (int) Math.round(width * SCALES[i]), (int) Math.round(height * SCALES[i]));
+        }
+        return new BaseMultiResolutionImage(variants);
+    }
+
+    // Halves the image step by step before the final bilinear pass, which keeps
+    // downscaled icons smooth without the cost of Image.SCALE_SMOOTH
+    static BufferedImage scale(BufferedImage src, int width, int height) {
+        BufferedImage current = src;
+        int w = src.getWidth(), h = src.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            if (w < width * 2 && h < height * 2) { w = width; h = height; }
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    // Fixed-size icon whose bitmap arrives later from the loader thread
+    private static final class AssetIcon implements Icon {
+        private final int width, height;
+        private volatile Image image;
+
+        AssetIcon(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        void ready(Image img) {
+            image = img;
+            SwingUtilities.invokeLater(() -> {
+                for (Window w : Window.getWindows()) w.repaint();
+            });
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            Image img = image;
+            if (img != null) g.drawImage(img, x, y, width, height, c);
+        }
+
+        @Override
+        public int getIconWidth() { return width; }
+
+        @Override
+        public int getIconHeight() { return height; }
+    }
+}
@@ -0,0 +1,230 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Shared background executor for file I/O, plus helpers to get results back onto the EDT.
+ * Writes to the same file run in order; a write that has not started yet is replaced
+ * by a newer one for the same file, so bursts of saves hit the disk once.
+ */
+final class AsyncIO {
+    private static final int THREADS = 3;
+    private static final int QUEUE_CAPACITY = 512;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadPoolExecutor IO = new ThreadPoolExecutor(
+            THREADS, THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            r -> {
+                Thread t = new Thread(r, "app-io-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    /** Runs callbacks on the event dispatch thread. */
+    static final Executor EDT = SwingUtilities::invokeLater;
+
+    // One pending (not yet started) write per file, and the tail of each file's queue
+    private static final Map<String, PendingWrite> pendingWrites = new HashMap<>();
+    private static final Map<String, CompletableFuture<Void>> fileTails = new HashMap<>();
+
+    private static boolean errorShowing = false;
+
+    private static final Log LOG = Log.get(AsyncIO.class);
+
+    private static final LatencyHistogram WRITE = Metrics.histogram("io.write");
+    private static final LongAdder BYTES_WRITTEN = Metrics.counter("io.bytesWritten");
+    private static final LongAdder COALESCED = Metrics.counter("io.writesCoalesced");
+
+    private AsyncIO() {}
+
+    static {
+        IO.allowCoreThreadTimeOut(true);
+        // Flush queued saves before the JVM exits (EXIT_ON_CLOSE)
+        Runtime.getRuntime().addShutdownHook(new Thread(AsyncIO::drain, "app-io-drain"));
+    }
+
+    /** Runs a blocking call on the I/O executor. */
+    static <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            IO.execute(() -> {
+                if (result.isDone()) return; // cancelled while queued
+                try {
+                    result.complete(work.call());
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException rejected) {
+            result.completeExceptionally(rejected);
+        }
+        return result;
+    }
+
+    /**
+     * Writes bytes to a file atomically (temp file + rename). If an earlier write
+     * to the same file is still queued, its bytes are swapped for these instead.
+     */
+    static CompletableFuture<Void> writeFile(File file, byte[] bytes) {
+        return writeFile(file, bytes, null);
+    }
+
+    /**
+     * writeFile, plus a callback on the I/O thread once these bytes are on disk. When a
+     * later call replaces them, only that call's callback runs, so a merged write is
+     * reported once.
+     */
+    static CompletableFuture<Void> writeFile(File file, byte[] bytes, Runnable onWritten) {
+        String key = file.getAbsolutePath();
+        synchronized (pendingWrites) {
+            PendingWrite pending = pendingWrites.get(key);
+            if (pending != null) {
+                pending.bytes = bytes;
+                pending.onWritten = onWritten;
+                COALESCED.increment();
+                return pending.done;
+            }
+            PendingWrite write = new PendingWrite(bytes);
+            write.onWritten = onWritten;
+            pendingWrites.put(key, write);
+            enqueue(key, () -> {
+                byte[] latest;
+                Runnable written;
+                synchronized (pendingWrites) {
+                    pendingWrites.remove(key);
+                    latest = write.bytes;
+                    written = write.onWritten;
+                }
+                writeAtomically(file, latest);
+                if (written != null) written.run();
+            }).whenComplete((v, ex) -> {
+                if (ex == null) write.done.complete(null);
+                else write.done.completeExceptionally(ex);
+            });
+            return write.done;
+        }
+    }
+
+    /** Runs a file operation after every earlier queued operation on the same file. */
+    static CompletableFuture<Void> runOnFile(File file, IORunnable op) {
+        synchronized (pendingWrites) {
+            return enqueue(file.getAbsolutePath(), op);
+        }
+    }
+
+    /**
+     * Delivers a result on the EDT. Failures are shown in a dialog; cancelled
+     * futures are ignored because their result is stale by design.
+     * The returned future completes once the callback has run.
+     */
+    static <T> CompletableFuture<Void> onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, String errorTitle) {
+        return future.handleAsync((value, ex) -> {
+            if (ex == null) {
+                if (onSuccess != null) onSuccess.accept(value);
+            } else {
+                showError(errorTitle, ex);
+            }
+            return null;
+        }, EDT);
+    }
+
+    /** Only surfaces failures, for fire-and-forget saves. */
+    static void reportErrors(CompletableFuture<?> future, String errorTitle) {
+        onEdt(future, null, errorTitle);
+    }
+
+    static void showError(String title, Throwable ex) {
+        Throwable cause = unwrap(ex);
+        if (cause instanceof CancellationException) return;
+        LOG.error("{}", title, cause);
+        if (GraphicsEnvironment.isHeadless() || errorShowing) return; // one dialog at a time
+        errorShowing = true;
+        try {
+            String msg = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            JOptionPane.showMessageDialog(null, title + ":\n" + msg, title, JOptionPane.ERROR_MESSAGE);
+        } finally {
+            errorShowing = false;
+        }
+    }
+
+    static Throwable unwrap(Throwable ex) {
+        while (ex instanceof CompletionException && ex.getCause() != null) ex = ex.getCause();
+        return ex;
+    }
+
+    /** Waits (bounded) for queued file work to finish. */
+    static void drain() {
+        CompletableFuture<?>[] tails;
+        synchronized (pendingWrites) {
+            tails = fileTails.values().toArray(new CompletableFuture<?>[0]);
+        }
+        try {
+            CompletableFuture.allOf(tails).get(5, TimeUnit.SECONDS);
+        } catch (Exception ignored) {
+            // best effort on exit
+        }
+    }
+
+    @FunctionalInterface
+    interface IORunnable {
+        void run() throws IOException;
+    }
+
+    /* ---------- internals ---------- */
+    // Caller holds the pendingWrites lock
+    private static CompletableFuture<Void> enqueue(String key, IORunnable op) {
+        CompletableFuture<Void> tail = fileTails.getOrDefault(key, CompletableFuture.completedFuture(null));
+        CompletableFuture<Void> next = tail
+                .handle((v, ex) -> null) // an earlier failure must not block later writes
+                .thenCompose(v -> submit(() -> { op.run(); return null; }));
+        fileTails.put(key, next);
+        next.whenComplete((v, ex) -> {
+            synchronized (pendingWrites) {
+                fileTails.remove(key, next);
+            }
+        });
+        return next;
+    }
+
+    private static void writeAtomically(File file, byte[] bytes) throws IOException {
+        long t0 = System.nanoTime();
+        File dir = file.getParentFile();
+        if (!dir.isDirectory()) dir.mkdirs(); // the data folder was removed while running
+        File tmp = new File(dir, file.getName() + ".tmp");
+        Files.write(tmp.toPath(), bytes);
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException atomicFailed) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        BYTES_WRITTEN.add(bytes.length);
+        WRITE.recordSince(t0);
+    }
+
+    private static final class PendingWrite {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        byte[] bytes;
+        Runnable onWritten; // of the call whose bytes these are
+
+        PendingWrite(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
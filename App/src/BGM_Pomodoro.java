@@ -1,37 +1,322 @@
-import javazoom.jl.player.Player;
-import java.io.FileInputStream;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Background music for the Pomodoro tab. One long-lived decoder thread turns the wanted
+ * track into PCM and hands it through a lock-free PcmRing to one output thread that feeds
+ * the sound card, so the EDT never touches audio and a busy UI cannot starve it.
+ *
+ * Loops are seamless because the next pass is decoded into the same ring straight after
+ * the last sample of the previous one. Switching tracks crossfades inside the decoder, and
+ * stop fades out. Every control only sets a volatile field and wakes a thread, so it is safe
+ * from any thread.
+ */
 public class BGM_Pomodoro {
-    private Player player;
-    private boolean isPlaying = false;
-    private boolean loop = false;
+    private static final Log LOG = Log.get(BGM_Pomodoro.class);
 
+    static final int RATE = 44100;
+    static final AudioFormat FORMAT = new AudioFormat(RATE, 16, 2, true, false);
+    private static final int RING_SAMPLES = 1 << 15;       // ~370 ms of stereo
+    private static final int LINE_BUFFER_BYTES = RATE / 10 * 4; // 100 ms
+    private static final int BLOCK_FRAMES = 1024;
+    private static final int CROSSFADE_FRAMES = RATE * 3 / 2;
+    private static final int FADE_OUT_FRAMES = RATE / 4;
+    private static final long DEVICE_RETRY_NANOS = 10_000_000_000L;
+
+    /** Opens a track; through the PcmCache by default. */
+    interface Opener {
+        PcmSource open(String path) throws IOException;
+    }
+
+    /** Supplies an opened output line, or throws if there is no sound device. */
+    interface LineFactory {
+        SourceDataLine open() throws LineUnavailableException;
+    }
+
+    private record Request(String path, boolean loop) {}
+
+    private final PcmCache cache; // null when tracks are opened some other way
+    private final Opener opener;
+    private final LineFactory lines;
+    private final PcmRing ring = new PcmRing(RING_SAMPLES);
+    private final AtomicReference<Request> requested = new AtomicReference<>(); // null = silence
+    private volatile boolean paused, producing, flush, cut, unavailable;
+    private volatile long retryAt; // when play() may try a missing sound device again; 0 = none failed yet
+    private Thread decoderThread, outputThread; // started on first play, guarded by this
+
+    public BGM_Pomodoro() {
+        PcmCache pcm = new PcmCache();
+        this.cache = pcm;
+        this.opener = pcm::open;
+        this.lines = BGM_Pomodoro::openDefaultLine;
+    }
+
+    BGM_Pomodoro(Opener opener, LineFactory lines) {
+        this.cache = null;
+        this.opener = opener;
+        this.lines = lines;
+    }
+
+    /* ---------- controls (any thread) ---------- */
+    /** Plays filePath, crossfading from whatever is playing; the same track just carries on. */
     public void play(String filePath, boolean loopMusic) {
-        if (filePath == "") return;
-
-        loop = loopMusic;
-        if (isPlaying) return;
-
-        isPlaying = true;
-        new Thread(() -> {
-            do {
-                try {
-                    FileInputStream fis = new FileInputStream(filePath);
-                    player = new Player(fis);
-                    player.play();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            } while (loop);
-            isPlaying = false;
-        }).start();
+        if (filePath == null || filePath.isEmpty()) return;
+        if (unavailable) {
+            if (System.nanoTime() - retryAt < 0) return;
+            unavailable = false; // a device may have been plugged in since
+        }
+        Request previous = requested.getAndSet(new Request(filePath, loopMusic));
+        if (previous == null) recordPlayback("start", filePath);
+        else if (!previous.path().equals(filePath)) recordPlayback("switch", filePath);
+        paused = false;
+        wake();
+    }
+
+    /** Decodes a track into the cache in the background, so playing it later starts at once. */
+    public void prefetch(String filePath) {
+        if (cache != null) cache.prefetch(filePath);
     }
 
+    /** Fades out and goes quiet. */
     public void stop() {
-        loop = false;
-        if (player != null) {
-            player.close();
-            isPlaying = false;
+        if (requested.getAndSet(null) == null) return;
+        if (paused) cut = true; // nothing of it should be heard: no fade, and the queue is dropped
+        paused = false;
+        recordPlayback("stop", null);
+        wake();
+    }
+
+    /** Holds the music where it is; play or resume carries on from there. */
+    public void pause() {
+        if (requested.get() == null || paused) return;
+        paused = true;
+        recordPlayback("pause", null);
+        wake();
+    }
+
+    public void resume() {
+        if (!paused) return;
+        paused = false;
+        recordPlayback("resume", null);
+        wake();
+    }
+
+    private synchronized void wake() {
+        if (decoderThread == null) {
+            decoderThread = startThread(this::decodeLoop, "bgm-decoder", Thread.NORM_PRIORITY + 1);
+            outputThread = startThread(this::outputLoop, "bgm-output", Thread.MAX_PRIORITY);
+        }
+        LockSupport.unpark(decoderThread);
+        LockSupport.unpark(outputThread);
+    }
+
+    private static Thread startThread(Runnable body, String name, int priority) {
+        Thread t = new Thread(body, name);
+        t.setDaemon(true);
+        t.setPriority(priority);
+        t.start();
+        return t;
+    }
+
+    /* ---------- decoder thread ---------- */
+    private void decodeLoop() {
+        short[] block = new short[BLOCK_FRAMES * 2];
+        short[] old = new short[BLOCK_FRAMES * 2];
+        Request playing = null;
+        PcmSource current = null, fading = null;
+        int fadePos = 0, fadeLen = 0;
+
+        while (true) {
+            if (cut) {
+                // Stopped while paused: drop the track outright, then have the output
+                // discard what was queued before any new track is written
+                close(current);
+                close(fading);
+                current = fading = null;
+                playing = null;
+                fadePos = fadeLen;
+                flush = true; // set before cut clears, so the output never sees neither
+                cut = false;
+                while (flush) {
+                    LockSupport.unpark(outputThread);
+                    LockSupport.parkNanos(this, 1_000_000L);
+                }
+            }
+            Request want = requested.get();
+            if (want != playing) {
+                boolean sameTrack = want != null && playing != null && current != null && want.path().equals(playing.path());
+                if (!sameTrack) {
+                    close(fading);
+                    fading = current;
+                    fadeLen = want == null ? FADE_OUT_FRAMES : CROSSFADE_FRAMES;
+                    fadePos = fading == null ? fadeLen : 0; // from silence the new track starts at full volume
+                    current = want == null ? null : open(want.path());
+                }
+                playing = want;
+            }
+            if (current == null && fading == null) {
+                producing = false;
+                LockSupport.park(this);
+                continue;
+            }
+            producing = true;
+
+            int got = current == null ? 0 : readTrack(current, block, playing != null && playing.loop());
+            if (current != null && got < block.length) {
+                close(current); // played out and not looping
+                current = null;
+            }
+            Arrays.fill(block, got, block.length, (short) 0);
+
+            if (fadePos < fadeLen) {
+                // The new track keeps ramping up even if the old one runs out first
+                int oldGot = fading == null ? 0 : readTrack(fading, old, false);
+                for (int f = 0; f < BLOCK_FRAMES; f++) {
+                    float t = Math.min(1f, (fadePos + f) / (float) fadeLen);
+                    for (int c = 0; c < 2; c++) {
+                        int i = 2 * f + c;
+                        float mixed = block[i] * t + (i < oldGot ? old[i] * (1 - t) : 0);
+                        block[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(mixed)));
+                    }
+                }
+                fadePos += BLOCK_FRAMES;
+                if (fading != null && (fadePos >= fadeLen || oldGot < old.length)) {
+                    close(fading);
+                    fading = null;
+                }
+            }
+            write(block);
+        }
+    }
+
+    // Fills buf from the track, starting it over at the end when looping; returns samples read
+    private int readTrack(PcmSource source, short[] buf, boolean loop) {
+        int done = 0;
+        boolean rewound = false;
+        try {
+            while (done < buf.length) {
+                int n = source.read(buf, done, buf.length - done);
+                if (n > 0) {
+                    done += n;
+                    rewound = false;
+                } else if (loop && !rewound) {
+                    source.rewind();
+                    rewound = true; // an empty file must not spin here
+                    recordPlayback("loop", null);
+                } else {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Playback failed: {}", e.getMessage(), e); // the track ends here
+        }
+        return done;
+    }
+
+    // Blocks while the ring is full; the output thread drains it in real time.
+    // A stop while paused abandons the block.
+    private void write(short[] block) {
+        int off = 0;
+        while (off < block.length && !cut) {
+            off += ring.offer(block, off, block.length - off);
+            LockSupport.unpark(outputThread);
+            if (off < block.length) LockSupport.parkNanos(this, 5_000_000L);
+        }
+    }
+
+    private PcmSource open(String path) {
+        try {
+            return opener.open(path);
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Cannot play {}", path, e);
+            return null;
+        }
+    }
+
+    private static void close(PcmSource source) {
+        if (source == null) return;
+        try {
+            source.close();
+        } catch (IOException ignored) {
+            // nothing left to do with it
+        }
+    }
+
+    /* ---------- output thread ---------- */
+    private void outputLoop() {
+        short[] samples = new short[2048];
+        byte[] bytes = new byte[samples.length * 2];
+        SourceDataLine line = null;
+
+        while (true) {
+            if (flush) {
+                while (ring.poll(samples, 0, samples.length) > 0) { }
+                if (line != null) line.flush();
+                flush = false; // only now may the decoder write again
+            }
+            if (paused || cut || (!producing && ring.available() == 0)) {
+                if (line != null && line.isRunning()) {
+                    if (!paused && !cut) line.drain(); // let the fade-out finish
+                    line.stop();
+                }
+                LockSupport.park(this);
+                continue;
+            }
+
+            int n = ring.poll(samples, 0, samples.length);
+            if (n == 0) {
+                LockSupport.parkNanos(this, 1_000_000L); // decoder is catching up
+                continue;
+            }
+            if (line == null) {
+                if (unavailable) continue; // no sound device: drop what is left, the fade-out included
+                line = openLine();
+                if (line == null) continue;
+            }
+            for (int i = 0; i < n; i++) {
+                bytes[2 * i] = (byte) samples[i];
+                bytes[2 * i + 1] = (byte) (samples[i] >> 8);
+            }
+            if (!line.isRunning()) line.start();
+            line.write(bytes, 0, n * 2);
+        }
+    }
+
+    // On failure play() is a no-op until DEVICE_RETRY_NANOS have passed; it then tries once more
+    private SourceDataLine openLine() {
+        try {
+            SourceDataLine line = lines.open();
+            retryAt = 0;
+            return line;
+        } catch (LineUnavailableException | RuntimeException e) {
+            if (retryAt == 0) LOG.error("No audio output; background music is off", e);
+            else LOG.warn("Still no audio output: {}", e.getMessage());
+            retryAt = System.nanoTime() + DEVICE_RETRY_NANOS;
+            unavailable = true;
+            requested.set(null);
+            flush = true;
+            return null;
+        }
+    }
+
+    private static SourceDataLine openDefaultLine() throws LineUnavailableException {
+        SourceDataLine line = AudioSystem.getSourceDataLine(FORMAT);
+        line.open(FORMAT, LINE_BUFFER_BYTES);
+        return line;
+    }
+
+    private static void recordPlayback(String action, String track) {
+        AppEvents.BgmPlayback ev = new AppEvents.BgmPlayback();
+        if (ev.shouldCommit()) {
+            ev.action = action;
+            ev.track = track;
+            ev.commit();
         }
     }
 }
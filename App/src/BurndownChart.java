@@ -0,0 +1,121 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+
+// Burndown (open tasks per day) and weekly velocity for one project.
+// Drawn from the timeline's day/week buckets into an offscreen image that is
+// only redrawn when the timeline or the panel size changes.
+class BurndownChart extends JPanel {
+    private static final Color REMAINING = new Color(70, 130, 180);
+    private static final Color VELOCITY = new Color(34, 139, 34, 110);
+    private static final int PAD = 40;
+
+    private ProjectTimeline timeline;
+    private BufferedImage cache;
+    private int cachedVersion = -1;
+    private ProjectTimeline cachedTimeline;
+
+    BurndownChart() {
+        setBackground(Color.WHITE);
+    }
+
+    public void setTimeline(ProjectTimeline timeline) {
+        this.timeline = timeline;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int w = getWidth(), h = getHeight();
+        if (w <= 0 || h <= 0) return;
+
+        if (cache == null || cache.getWidth() != w || cache.getHeight() != h
+                || cachedTimeline != timeline || (timeline != null && cachedVersion != timeline.getVersion())) {
+            if (cache == null || cache.getWidth() != w || cache.getHeight() != h) {
+                cache = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g2 = cache.createGraphics();
+            try {
+                render(g2, w, h);
+            } finally {
+                g2.dispose();
+            }
+            cachedTimeline = timeline;
+            cachedVersion = timeline == null ? -1 : timeline.getVersion();
+        }
+        g.drawImage(cache, 0, 0, null);
+    }
+
+    private void render(Graphics2D g, int w, int h) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, w, h);
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font("SansSerif", Font.PLAIN, 12));
+
+        if (timeline == null || timeline.isEmpty()) {
+            g.drawString("No history yet", PAD, PAD);
+            return;
+        }
+
+        int plotW = w - 2 * PAD, plotH = h - 2 * PAD;
+        if (plotW <= 0 || plotH <= 0) return;
+        int days = timeline.getDayCount();
+
+        // Scales: remaining tasks on the left axis, tasks completed per week on the right
+        int maxRemaining = 1;
+        for (int i = 0; i < days; i++) maxRemaining = Math.max(maxRemaining, timeline.remainingAt(i));
+        int maxVelocity = 1;
+        for (int wk = 0; wk < timeline.getWeekCount(); wk++) maxVelocity = Math.max(maxVelocity, timeline.completedInWeek(wk));
+
+        // Weekly velocity bars, positioned on the same day axis
+        long firstDay = timeline.getFirstDay().toEpochDay();
+        long firstWeekDay = timeline.getFirstWeek().toEpochDay();
+        g.setColor(VELOCITY);
+        for (int wk = 0; wk < timeline.getWeekCount(); wk++) {
+            int v = timeline.completedInWeek(wk);
+            if (v <= 0) continue; // more tasks reopened than finished
+            long start = firstWeekDay + wk * 7L - firstDay;
+            int x0 = PAD + (int) (Math.max(0, start) * plotW / Math.max(1, days));
+            int x1 = PAD + (int) (Math.min(days, start + 7) * plotW / Math.max(1, days));
+            int bh = (int) ((long) v * plotH / maxVelocity);
+            g.fillRect(x0, PAD + plotH - bh, Math.max(1, x1 - x0 - 1), bh);
+        }
+
+        // Burndown line, one point per pixel column at most
+        g.setColor(REMAINING);
+        g.setStroke(new BasicStroke(2f));
+        int columns = Math.min(days, plotW);
+        int prevX = -1, prevY = -1;
+        for (int c = 0; c < columns; c++) {
+            int day = (columns == 1) ? days - 1 : (int) ((long) c * (days - 1) / (columns - 1));
+            int x = PAD + (columns == 1 ? plotW : c * plotW / (columns - 1));
+            int y = PAD + plotH - (int) ((long) timeline.remainingAt(day) * plotH / maxRemaining);
+            if (prevX >= 0) g.drawLine(prevX, prevY, x, y);
+            prevX = x; prevY = y;
+        }
+
+        // Axes and labels
+        g.setStroke(new BasicStroke(1f));
+        g.setColor(Color.GRAY);
+        g.drawLine(PAD, PAD + plotH, PAD + plotW, PAD + plotH);
+        g.drawLine(PAD, PAD, PAD, PAD + plotH);
+        g.drawLine(PAD + plotW, PAD, PAD + plotW, PAD + plotH);
+
+        g.setColor(Color.DARK_GRAY);
+        LocalDate first = timeline.getFirstDay();
+        g.drawString(first.toString(), PAD, PAD + plotH + 16);
+        String last = first.plusDays(days - 1).toString();
+        g.drawString(last, PAD + plotW - g.getFontMetrics().stringWidth(last), PAD + plotH + 16);
+        g.drawString(String.valueOf(maxRemaining), 4, PAD + 4);
+        g.drawString(String.valueOf(maxVelocity), PAD + plotW + 4, PAD + 4);
+
+        g.setColor(REMAINING);
+        g.drawString("Open tasks (" + timeline.remainingAt(days - 1) + " now)", PAD, PAD - 14);
+        g.setColor(new Color(34, 139, 34));
+        String vel = "Completed per week";
+        g.drawString(vel, PAD + plotW - g.getFontMetrics().stringWidth(vel), PAD - 14);
+    }
+}
@@ -0,0 +1,509 @@
+import javax.swing.DefaultListModel;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Command-line access to the same data folder as the app, for scripting:
+ *
+ *   java -cp 'out:App/lib/*' Cli list
+ *   java -cp 'out:App/lib/*' Cli add "Thesis" --from syllabus.txt
+ *
+ * Only the model and file handler classes are used, so AWT never starts and a command
+ * runs in well under a second. Scans read one project file at a time and print as
+ * they go. Changes are written straight to the project file; if the app is open at
+ * the same time, its next save of that project wins.
+ */
+public class Cli {
+    static final String USAGE = """
+            usage: Cli <command> [args]
+              list                                 projects with progress
+              query <project> [--open|--done] [--sort deadline|difficulty|name]
+                    [--due-before DATE] [--match TEXT]
+                                                   tasks of one project, subtasks indented
+              add <project> <name> [--deadline DATE] [--difficulty 0-3] [--parent TASK]
+              add <project> --from FILE|-          bulk add, one "name[,deadline[,difficulty]]" per line
+              complete <project> <task>            mark a task (and its subtasks) done
+              export [<project>] [--format csv|json]
+                                                   every task, CSV or one JSON object per line
+              overdue                              open tasks past their deadline, all projects
+              gwa [--target GWA --remaining UNITS] GWA per term from the saved subjects, and
+                                                   the average needed to reach a target
+              roster FILE [--out FILE]             ranked GWA per student from a CSV of
+                                                   "student,subject,units,grade" rows
+            <project> is a name or the start of its id. DATE is MM/dd/yyyy or yyyy-MM-dd.
+            The data folder can be changed with -Dgroup67.dataDir=DIR.
+            """;
+
+    private final PrintWriter out = new PrintWriter(
+            new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16), false);
+    private final ProjectFileHandler files = new ProjectFileHandler();
+
+    private static final int PIPE_CHECK_LINES = 4096;
+    private int linesSinceCheck = 0;
+
+    /** A user error: printed without a stack trace, exit code 1. */
+    static final class CliException extends RuntimeException {
+        CliException(String message) {
+            super(message);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true"); // in case anything touches AWT anyway
+        if (args.length == 0 || args[0].equals("-h") || args[0].equals("--help") || args[0].equals("help")) {
+            System.out.print(USAGE);
+            System.exit(args.length == 0 ? 2 : 0);
+        }
+        Cli cli = new Cli();
+        int status;
+        try {
+            cli.run(args);
+            status = 0;
+        } catch (CliException e) {
+            System.err.println("error: " + e.getMessage());
+            status = 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            System.err.print(USAGE);
+            status = 2;
+        } finally {
+            cli.out.flush();
+        }
+        Log.flushNow();
+        System.exit(status);
+    }
+
+    void run(String[] args) {
+        Args a = new Args(args);
+        switch (a.next("command")) {
+            case "list" -> list();
+            case "query" -> query(a);
+            case "add" -> add(a);
+            case "complete" -> complete(a);
+            case "export" -> export(a);
+            case "overdue" -> overdue();
+            case "gwa" -> gwa(a);
+            case "roster" -> roster(a);
+            default -> throw new IllegalArgumentException("unknown command " + args[0]);
+        }
+    }
+
+    /* ---------- commands ---------- */
+    private void list() {
+        out.println("ID        PROGRESS   DONE/TOTAL  NAME");
+        files.forEachProject(p -> {
+            out.printf(Locale.ROOT, "%-8s  %7d%%  %5d/%-5d  %s%n", shortId(p), p.getProgressPercent(false),
+                    p.getDoneCount(), p.getLeafCount(), p.getName());
+            stopIfPipeClosed();
+        });
+    }
+
+    private void query(Args a) {
+        Project p = findProject(a.next("project"));
+        Predicate<Task> filter = t -> true;
+        int sort = -1;
+        while (a.hasNext()) {
+            String opt = a.next("option");
+            switch (opt) {
+                case "--open" -> filter = filter.and(t -> !t.isCompleted());
+                case "--done" -> filter = filter.and(Task::isCompleted);
+                case "--sort" -> sort = sortMode(a.next("sort order"));
+                case "--due-before" -> {
+                    Date limit = parseDate(a.next("date"));
+                    filter = filter.and(t -> t.getDeadline() != null && t.getDeadline().before(limit));
+                }
+                case "--match" -> {
+                    String text = a.next("text").toLowerCase();
+                    filter = filter.and(t -> t.getName().toLowerCase().contains(text));
+                }
+                default -> throw new IllegalArgumentException("unknown option " + opt);
+            }
+        }
+        Comparator<Task> order = sort < 0 ? null : Task.order(sort);
+        printTree(p.tasks, 0, filter, order);
+    }
+
+    private void printTree(List<Task> tasks, int depth, Predicate<Task> filter, Comparator<Task> order) {
+        List<Task> level = tasks;
+        if (order != null) {
+            level = new ArrayList<>(tasks);
+            level.sort(order);
+        }
+        for (Task t : level) {
+            // A parent is shown when it or any subtask matches, to keep the tree readable
+            if (filter.test(t) || anyMatch(t.getSubtasks(), filter)) {
+                out.printf(Locale.ROOT, "%s[%s] %s  %s  %s%n", "  ".repeat(depth), t.isCompleted() ? "x" : " ",
+                        t.getName(), t.stars(), t.getDeadlineString());
+                stopIfPipeClosed();
+                printTree(t.getSubtasks(), depth + 1, filter, order);
+            }
+        }
+    }
+
+    private static boolean anyMatch(List<Task> tasks, Predicate<Task> filter) {
+        for (Task t : tasks) {
+            if (filter.test(t) || anyMatch(t.getSubtasks(), filter)) return true;
+        }
+        return false;
+    }
+
+    private void add(Args a) {
+        Project p = findProject(a.next("project"));
+        String first = a.next("task name or --from");
+        int added;
+        if (first.equals("--from")) {
+            added = addFrom(p, a.next("file"));
+        } else {
+            Date deadline = null;
+            int difficulty = 1;
+            Task parent = null;
+            while (a.hasNext()) {
+                String opt = a.next("option");
+                switch (opt) {
+                    case "--deadline" -> deadline = parseDate(a.next("date"));
+                    case "--difficulty" -> difficulty = parseDifficulty(a.next("difficulty"));
+                    case "--parent" -> parent = findTask(p, a.next("parent task"));
+                    default -> throw new IllegalArgumentException("unknown option " + opt);
+                }
+            }
+            Task t = new Task(first, difficulty, deadline);
+            if (parent == null) p.addTask(t);
+            else parent.addSubtask(t);
+            added = 1;
+        }
+        save(p);
+        out.println("Added " + added + " task(s) to " + p.getName());
+    }
+
+    // One task per line: name[,deadline[,difficulty]]; blank lines and # comments are skipped
+    private int addFrom(Project p, String source) {
+        int added = 0;
+        int lineNo = 0;
+        try (Reader r = source.equals("-") ? new InputStreamReader(System.in, StandardCharsets.UTF_8) : new FileReader(source, StandardCharsets.UTF_8);
+             BufferedReader in = new BufferedReader(r)) {
+            for (String line; (line = in.readLine()) != null; ) {
+                lineNo++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] f = line.split(",", 3);
+                String name = f[0].strip();
+                if (name.isEmpty()) throw new CliException(source + ":" + lineNo + ": missing task name");
+                Date deadline = f.length > 1 && !f[1].isBlank() ? parseDate(f[1].strip()) : null;
+                int difficulty = f.length > 2 && !f[2].isBlank() ? parseDifficulty(f[2].strip()) : 1;
+                p.addTask(new Task(name, difficulty, deadline));
+                added++;
+            }
+        } catch (java.io.IOException e) {
+            throw new CliException("cannot read " + source + ": " + e.getMessage());
+        }
+        return added;
+    }
+
+    private void complete(Args a) {
+        Project p = findProject(a.next("project"));
+        Task t = findTask(p, a.next("task"));
+        if (t.isCompleted()) {
+            out.println("Already done: " + t.getName());
+            return;
+        }
+        t.setCompleted(true);
+        save(p);
+        out.println("Completed: " + t.getName() + "  (" + p.getName() + " now " + p.getProgressPercent(false) + "%)");
+    }
+
+    // Nothing is reported as done unless it reached the disk
+    private void save(Project p) {
+        try {
+            files.saveProjectOrThrow(p);
+        } catch (IOException e) {
+            throw new CliException("could not save " + p.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void export(Args a) {
+        String project = null;
+        boolean json = false;
+        while (a.hasNext()) {
+            String arg = a.next("argument");
+            if (arg.equals("--format")) {
+                String format = a.next("format");
+                if (!format.equals("csv") && !format.equals("json")) throw new IllegalArgumentException("format must be csv or json");
+                json = format.equals("json");
+            } else if (project == null && !arg.startsWith("--")) {
+                project = arg;
+            } else {
+                throw new IllegalArgumentException("unexpected " + arg);
+            }
+        }
+        boolean asJson = json;
+        if (!asJson) out.println("project_id,project,task,parent,difficulty,deadline,completed,created,completed_at");
+        if (project != null) {
+            exportProject(findProject(project), asJson);
+        } else {
+            files.forEachProject(p -> exportProject(p, asJson));
+        }
+    }
+
+    private void exportProject(Project p, boolean json) {
+        forEachTask(p.tasks, t -> {
+            Task parent = t.getParentTask();
+            String deadline = t.getDeadline() == null ? "" : isoDate(t.getDeadline());
+            String created = t.getCreatedAt() == null ? "" : t.getCreatedAt().toString();
+            String completedAt = t.getCompletedAt() == null ? "" : t.getCompletedAt().toString();
+            if (json) {
+                out.print("{\"projectId\":\"" + p.getId() + "\",\"project\":" + Json.string(p.getName())
+                        + ",\"task\":" + Json.string(t.getName())
+                        + ",\"parent\":" + (parent == null ? "null" : Json.string(parent.getName()))
+                        + ",\"difficulty\":" + t.getDifficulty()
+                        + ",\"deadline\":" + (deadline.isEmpty() ? "null" : "\"" + deadline + "\"")
+                        + ",\"completed\":" + t.isCompleted()
+                        + ",\"created\":" + (created.isEmpty() ? "null" : "\"" + created + "\"")
+                        + ",\"completedAt\":" + (completedAt.isEmpty() ? "null" : "\"" + completedAt + "\"") + "}");
+                out.println();
+            } else {
+                out.println(p.getId() + "," + csv(p.getName()) + "," + csv(t.getName()) + ","
+                        + (parent == null ? "" : csv(parent.getName())) + "," + t.getDifficulty() + ","
+                        + deadline + "," + t.isCompleted() + "," + created + "," + completedAt);
+            }
+            stopIfPipeClosed();
+        });
+    }
+
+    private void overdue() {
+        Date today = toDate(LocalDate.now());
+        out.println("DEADLINE    PROJECT / TASK");
+        files.forEachProject(p -> forEachTask(p.tasks, t -> {
+            if (!t.isCompleted() && t.getDeadline() != null && t.getDeadline().before(today)) {
+                out.println(isoDate(t.getDeadline()) + "  " + p.getName() + " / " + t.getName());
+                stopIfPipeClosed();
+            }
+        }));
+    }
+
+    private void gwa(Args a) {
+        double target = 0, remaining = 0;
+        while (a.hasNext()) {
+            String opt = a.next("option");
+            switch (opt) {
+                case "--target" -> target = parseNumber(a.next("target GWA"));
+                case "--remaining" -> remaining = parseNumber(a.next("remaining units"));
+                default -> throw new IllegalArgumentException("unknown option " + opt);
+            }
+        }
+        if ((target > 0) != (remaining > 0)) throw new IllegalArgumentException("--target needs --remaining");
+        if (remaining > 0 && Subject.cents(remaining) == 0) throw new IllegalArgumentException("--remaining must be at least 0.01");
+
+        DefaultListModel<Subject> subjects;
+        try {
+            subjects = new SubjectFileHandler().loadSubjects();
+        } catch (Exception e) {
+            throw new CliException("cannot read subjects: " + e.getMessage());
+        }
+        if (subjects.isEmpty()) {
+            out.println("No subjects saved.");
+            return;
+        }
+        GwaAggregator aggregator = new GwaAggregator(subjects);
+        List<String> terms = aggregator.terms();
+        for (int t = 0; t < terms.size(); t++) {
+            if (terms.size() > 1) out.println(terms.get(t) + ":");
+            for (int i = 0; i < subjects.size(); i++) {
+                if (subjects.get(i).getTerm().equals(terms.get(t))) out.println("  " + subjects.get(i));
+            }
+            if (terms.size() > 1) {
+                out.printf(Locale.ROOT, "  term %s, cumulative %s%n",
+                        aggregator.term(t).gwaText(), aggregator.cumulative(t).gwaText());
+            }
+        }
+        Subject.Totals totals = aggregator.totals();
+        out.printf(Locale.ROOT, "GWA %s  (%s units)%n", totals.gwaText(), trimZeros(totals.units()));
+        if (target > 0) out.println(totals.describeTarget(remaining, target));
+    }
+
+    // Ranked rows go to --out or stdout; the summary to stderr when stdout has the rows
+    private void roster(Args a) {
+        Path input = Path.of(a.next("roster file"));
+        Path output = null;
+        while (a.hasNext()) {
+            String opt = a.next("option");
+            if (!opt.equals("--out")) throw new IllegalArgumentException("unknown option " + opt);
+            output = Path.of(a.next("output file"));
+        }
+        if (!Files.isReadable(input)) throw new CliException("cannot read " + input);
+        // Opening the output truncates it before the roster is read
+        if (output != null && sameFile(input, output)) throw new CliException("--out must differ from the roster file");
+
+        RosterGwa.Summary summary;
+        try {
+            if (output == null) {
+                summary = new RosterGwa(input).run(out);
+            } else {
+                try (Writer w = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                    summary = new RosterGwa(input).run(w);
+                }
+            }
+        } catch (IOException e) {
+            throw new CliException("roster failed: " + e.getMessage());
+        }
+        PrintStream report = output == null ? System.err : System.out;
+        out.flush();
+        summary.lines().forEach(report::println);
+    }
+
+    private static boolean sameFile(Path a, Path b) {
+        if (a.toAbsolutePath().normalize().equals(b.toAbsolutePath().normalize())) return true;
+        try {
+            return Files.exists(b) && Files.isSameFile(a, b); // links and other spellings of one file
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static double parseNumber(String s) {
+        try {
+            double v = Double.parseDouble(s);
+            if (v > 0) return v;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("expected a positive number: " + s);
+    }
+
+    /* ---------- lookup ---------- */
+    // Exact name, then id prefix, then a unique name prefix (all case-insensitive)
+    private Project findProject(String key) {
+        String k = key.toLowerCase();
+        List<Project> exact = new ArrayList<>();
+        List<Project> prefix = new ArrayList<>();
+        files.forEachProject(p -> {
+            String name = p.getName().toLowerCase();
+            if (name.equals(k) || (k.length() >= 4 && p.getId().toString().startsWith(k))) exact.add(p);
+            else if (name.startsWith(k)) prefix.add(p);
+        });
+        List<Project> matches = exact.isEmpty() ? prefix : exact;
+        if (matches.isEmpty()) throw new CliException("no project matches \"" + key + "\"");
+        if (matches.size() > 1) throw new CliException("\"" + key + "\" matches " + matches.size() + " projects: "
+                + String.join(", ", matches.stream().map(p -> p.getName() + " (" + shortId(p) + ")").toList()));
+        return matches.get(0);
+    }
+
+    private static Task findTask(Project p, String name) {
+        List<Task> matches = new ArrayList<>();
+        forEachTask(p.tasks, t -> {
+            if (t.getName().equalsIgnoreCase(name)) matches.add(t);
+        });
+        if (matches.isEmpty()) throw new CliException("no task named \"" + name + "\" in " + p.getName());
+        if (matches.size() > 1) throw new CliException(matches.size() + " tasks are named \"" + name + "\" in " + p.getName());
+        return matches.get(0);
+    }
+
+    // Depth-first, parents before their subtasks
+    private static void forEachTask(List<Task> tasks, java.util.function.Consumer<Task> action) {
+        for (Task t : tasks) {
+            action.accept(t);
+            forEachTask(t.getSubtasks(), action);
+        }
+    }
+
+    /* ---------- parsing and formatting ---------- */
+    private static Date parseDate(String s) {
+        try {
+            if (s.matches("\\d{4}-\\d{2}-\\d{2}")) return toDate(LocalDate.parse(s));
+            SimpleDateFormat fmt = new SimpleDateFormat("MM/dd/yyyy");
+            fmt.setLenient(false);
+            return fmt.parse(s);
+        } catch (ParseException | java.time.format.DateTimeParseException e) {
+            throw new CliException("bad date \"" + s + "\" (use MM/dd/yyyy or yyyy-MM-dd)");
+        }
+    }
+
+    private static int parseDifficulty(String s) {
+        try {
+            int d = Integer.parseInt(s);
+            if (d >= 0 && d <= 3) return d;
+        } catch (NumberFormatException ignored) {
+            // fall through to the error
+        }
+        throw new CliException("difficulty must be 0-3, got \"" + s + "\"");
+    }
+
+    private static int sortMode(String s) {
+        return switch (s) {
+            case "deadline" -> 0;
+            case "difficulty" -> 1;
+            case "name" -> 2;
+            default -> throw new IllegalArgumentException("sort must be deadline, difficulty or name");
+        };
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String isoDate(Date d) {
+        return d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+
+    private static String shortId(Project p) {
+        return p.getId().toString().substring(0, 8);
+    }
+
+    private static String trimZeros(double v) {
+        return v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v);
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    // `cli export | head` closes stdout early; stop instead of formatting the rest.
+    // checkError() flushes, so it is only asked every PIPE_CHECK_LINES lines.
+    private void stopIfPipeClosed() {
+        if (++linesSinceCheck < PIPE_CHECK_LINES) return;
+        linesSinceCheck = 0;
+        if (out.checkError()) {
+            Log.flushNow();
+            System.exit(0);
+        }
+    }
+
+    /** Positional argument reader. */
+    private static final class Args {
+        private final String[] args;
+        private int pos = 0;
+
+        Args(String[] args) {
+            this.args = args;
+        }
+
+        String next(String what) {
+            if (pos >= args.length) throw new IllegalArgumentException("missing " + what);
+            return args[pos++];
+        }
+
+        boolean hasNext() {
+            return pos < args.length;
+        }
+    }
+}
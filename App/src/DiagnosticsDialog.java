@@ -0,0 +1,116 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.DefaultTableModel;
+
+// Help > Diagnostics: live metrics, recent EDT stalls and startup timing, for bug reports
+class DiagnosticsDialog extends JDialog {
+    private final DefaultListModel<EdtWatchdog.StallReport> stallModel = new DefaultListModel<>();
+    private final JList<EdtWatchdog.StallReport> stallList = new JList<>(stallModel);
+    private final JTextArea stallDetail = new JTextArea();
+    private final DefaultTableModel metricsModel = new DefaultTableModel(
+            new Object[]{"Metric", "Count / Value", "p50 ms", "p99 ms", "max ms"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) { return false; }
+    };
+    private final javax.swing.Timer metricsTimer = new javax.swing.Timer(1000, e -> refreshMetrics());
+
+    DiagnosticsDialog(Frame owner) {
+        super(owner, "Diagnostics", false);
+        setSize(900, 560);
+        setLocationRelativeTo(owner);
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Metrics", new JScrollPane(new JTable(metricsModel)));
+        tabs.addTab("EDT Stalls", createStallsTab());
+        tabs.addTab("Startup", createStartupTab());
+        add(tabs, BorderLayout.CENTER);
+
+        JButton refresh = new JButton("Refresh");
+        refresh.addActionListener(e -> { refreshStalls(); refreshMetrics(); });
+        JButton reset = new JButton("Reset Metrics");
+        reset.addActionListener(e -> { Metrics.reset(); refreshMetrics(); });
+        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        bottom.add(reset);
+        bottom.add(refresh);
+        add(bottom, BorderLayout.SOUTH);
+
+        refreshStalls();
+        refreshMetrics();
+        // Live while open
+        metricsTimer.start();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) { metricsTimer.stop(); }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    private void refreshMetrics() {
+        metricsModel.setRowCount(0);
+        for (Map.Entry<String, LatencyHistogram> e : Metrics.histograms().entrySet()) {
+            LatencyHistogram h = e.getValue();
+            metricsModel.addRow(new Object[]{e.getKey(), h.count(),
+                    String.format("%.3f", h.percentileMillis(50)),
+                    String.format("%.3f", h.percentileMillis(99)),
+                    String.format("%.3f", h.maxMillis())});
+        }
+        Metrics.counterValues().forEach((k, v) -> metricsModel.addRow(new Object[]{k, v, "", "", ""}));
+        Metrics.gaugeValues().forEach((k, v) -> metricsModel.addRow(new Object[]{k, v, "", "", ""}));
+    }
+
+    private JComponent createStallsTab() {
+        stallList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        stallList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> lst, Object value, int idx, boolean sel, boolean focus) {
+                super.getListCellRendererComponent(lst, value, idx, sel, focus);
+                if (value instanceof EdtWatchdog.StallReport r) setText(r.summary());
+                return this;
+            }
+        });
+        stallList.addListSelectionListener(e -> {
+            EdtWatchdog.StallReport r = stallList.getSelectedValue();
+            stallDetail.setText(r == null ? "" : describe(r));
+            stallDetail.setCaretPosition(0);
+        });
+
+        stallDetail.setEditable(false);
+        stallDetail.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(stallList), new JScrollPane(stallDetail));
+        split.setResizeWeight(0.35);
+        split.setBorder(new EmptyBorder(6, 6, 6, 6));
+        return split;
+    }
+
+    private JComponent createStartupTab() {
+        StringBuilder sb = new StringBuilder(String.format("%10s  %10s  %s%n", "start ms", "took ms", "phase"));
+        for (StartupTimer.Phase p : StartupTimer.phases()) {
+            sb.append(String.format("%10.1f  %10.1f  %s [%s]%n", p.startMs(), p.durationMs(), p.name(), p.thread()));
+        }
+        JTextArea text = new JTextArea(sb.toString());
+        text.setEditable(false);
+        text.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        return new JScrollPane(text);
+    }
+
+    private void refreshStalls() {
+        stallModel.clear();
+        List<EdtWatchdog.StallReport> stalls = EdtWatchdog.recentStalls();
+        for (EdtWatchdog.StallReport r : stalls) stallModel.addElement(r);
+        if (stalls.isEmpty()) stallDetail.setText("No stalls over " + EdtWatchdog.STALL_THRESHOLD_MS + " ms recorded.");
+        else stallList.setSelectedIndex(0);
+    }
+
+    private static String describe(EdtWatchdog.StallReport r) {
+        StringBuilder sb = new StringBuilder(EdtWatchdog.format(r)).append("\nFirst sample:\n");
+        for (StackTraceElement f : r.firstStack()) sb.append("  at ").append(f).append('\n');
+        return sb.toString();
+    }
+}
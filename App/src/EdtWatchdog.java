@@ -0,0 +1,163 @@
+import javax.swing.*;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects event dispatch thread stalls with a heartbeat: every HEARTBEAT_MS a tiny
+ * runnable is posted to the EDT. If it has not run after STALL_THRESHOLD_MS the EDT
+ * is stuck, and its stack is sampled until it recovers. Healthy operation costs one
+ * invokeLater per heartbeat and nothing else.
+ */
+final class EdtWatchdog {
+    static final long HEARTBEAT_MS = 100;
+    static final long STALL_THRESHOLD_MS = 500;
+    static final long SAMPLE_INTERVAL_MS = 50;
+    static final int MAX_REPORTS = 32;
+    static final int TOP_FRAMES = 8;
+    private static final String DUMP_FILE_NAME = "edt-stalls.log";
+    private static final Log LOG = Log.get(EdtWatchdog.class);
+
+    /** One stall: when it started, how long it lasted and where the EDT was. */
+    record StallReport(Instant start, long durationMs, int samples, List<String> topFrames, StackTraceElement[] firstStack) {
+        String summary() {
+            return start + "  " + durationMs + " ms  (" + samples + " samples)"
+                    + (topFrames.isEmpty() ? "" : "  at " + topFrames.get(0));
+        }
+    }
+
+    // Ring buffer of recent stalls
+    private static final StallReport[] reports = new StallReport[MAX_REPORTS];
+    private static int nextReport = 0;
+    private static int reportCount = 0;
+
+    private static volatile Thread edt;
+    private static volatile long beatPostedAt = 0;   // nanoTime the pending heartbeat was posted, 0 if none
+    private static volatile boolean started = false;
+
+    private EdtWatchdog() {}
+
+    static synchronized void start() {
+        if (started) return;
+        started = true;
+        Thread t = new Thread(EdtWatchdog::run, "edt-watchdog");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY); // must keep running while the app is busy
+        t.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EdtWatchdog::dumpToFile, "edt-watchdog-dump"));
+    }
+
+    /** Most recent stalls, newest first. */
+    static synchronized List<StallReport> recentStalls() {
+        List<StallReport> out = new ArrayList<>(reportCount);
+        for (int i = 1; i <= reportCount; i++) {
+            out.add(reports[Math.floorMod(nextReport - i, MAX_REPORTS)]);
+        }
+        return out;
+    }
+
+    /* ---------- internals ---------- */
+    private static void run() {
+        while (true) {
+            try {
+                if (beatPostedAt == 0) {
+                    beatPostedAt = System.nanoTime();
+                    SwingUtilities.invokeLater(EdtWatchdog::beat);
+                }
+                Thread.sleep(HEARTBEAT_MS);
+
+                long posted = beatPostedAt;
+                if (posted != 0 && (System.nanoTime() - posted) / 1_000_000 >= STALL_THRESHOLD_MS) {
+                    sampleStall(posted);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void beat() {
+        edt = Thread.currentThread(); // AWT starts a new EDT after an uncaught exception
+        beatPostedAt = 0;
+    }
+
+    // Samples the EDT until the pending heartbeat finally runs, then files a report
+    private static void sampleStall(long posted) throws InterruptedException {
+        Thread target = edt;
+        Map<String, Integer> frameCounts = new HashMap<>();
+        StackTraceElement[] first = null;
+        int samples = 0;
+
+        while (beatPostedAt == posted) {
+            if (target != null) {
+                StackTraceElement[] stack = target.getStackTrace();
+                if (first == null) first = stack;
+                samples++;
+                // Count each distinct app/library frame once per sample
+                Set<String> seen = new HashSet<>();
+                for (StackTraceElement f : stack) {
+                    if (isDispatchPlumbing(f)) continue;
+                    String key = f.getClassName() + "." + f.getMethodName()
+                            + (f.getLineNumber() > 0 ? ":" + f.getLineNumber() : "");
+                    if (seen.add(key)) frameCounts.merge(key, 1, Integer::sum);
+                }
+            }
+            Thread.sleep(SAMPLE_INTERVAL_MS);
+        }
+
+        long durationMs = (System.nanoTime() - posted) / 1_000_000;
+        List<String> top = new ArrayList<>();
+        final int total = Math.max(1, samples);
+        frameCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_FRAMES)
+                .forEach(e -> top.add(e.getKey() + "  (" + (100 * e.getValue() / total) + "%)"));
+
+        Instant start = Instant.now().minusMillis(durationMs);
+        add(new StallReport(start, durationMs, samples, top, first == null ? new StackTraceElement[0] : first));
+    }
+
+    private static boolean isDispatchPlumbing(StackTraceElement f) {
+        String c = f.getClassName();
+        return c.startsWith("java.awt.EventQueue") || c.startsWith("java.awt.EventDispatchThread")
+                || c.startsWith("java.security.") || c.startsWith("java.awt.event.InvocationEvent");
+    }
+
+    private static synchronized void add(StallReport r) {
+        reports[nextReport] = r;
+        nextReport = (nextReport + 1) % MAX_REPORTS;
+        reportCount = Math.min(reportCount + 1, MAX_REPORTS);
+    }
+
+    static String format(StallReport r) {
+        StringBuilder sb = new StringBuilder(r.summary()).append('\n');
+        for (String f : r.topFrames()) sb.append("    ").append(f).append('\n');
+        return sb.toString();
+    }
+
+    // Appends this session's stalls to Group67/edt-stalls.log on exit
+    private static void dumpToFile() {
+        List<StallReport> stalls = recentStalls();
+        if (stalls.isEmpty()) return;
+        File file = new File(AppConfig.getProjectDirectory(), DUMP_FILE_NAME);
+        try (PrintWriter out = new PrintWriter(new FileWriter(file, true))) {
+            out.println("=== session ending " + Instant.now() + ", " + stalls.size() + " stall(s) ===");
+            for (StallReport r : stalls) {
+                out.print(format(r));
+                out.println("    first sample:");
+                for (StackTraceElement f : r.firstStack()) out.println("      at " + f);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write {}", DUMP_FILE_NAME, e);
+        }
+    }
+}
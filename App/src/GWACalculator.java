@@ -3,17 +3,28 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.List;
 
 public class GWACalculator extends JPanel {
+    private static final LatencyHistogram CALCULATE = Metrics.histogram("gwa.calculate");
+    private static final DecimalFormat SUM_FORMAT = new DecimalFormat("#.####"); // exact for 2-decimal inputs
 
     private final DefaultListModel<Subject> subjectModel;
     private final JList<Subject> subjectList;
     private final JLabel resultLabel;
+    private final GwaAggregator aggregator;
+    private long shownVersion = -1; // aggregator version resultLabel currently shows
+    private String lastTerm = Subject.DEFAULT_TERM; // preselected in the Add dialog
 
     // NEW: Instance of the file handler
     private final SubjectFileHandler fileHandler = new SubjectFileHandler();
 
     public GWACalculator() {
+        this(loadInitialModel());
+    }
+
+    // initialModel == null means the saved subjects could not be read
+    public GWACalculator(DefaultListModel<Subject> initialModel) {
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(15, 15, 15, 15));
 
@@ -27,33 +38,34 @@ public class GWACalculator extends JPanel {
         listPanel.setBorder(BorderFactory.createTitledBorder("Subjects"));
         listPanel.setPreferredSize(new Dimension(300, 400));
 
-        // Load existing data or start new
-        DefaultListModel<Subject> initialModel;
-        try {
-            initialModel = fileHandler.loadSubjects();
-        } catch (IOException | ClassNotFoundException e) {
+        // Use loaded data or start new
+        if (initialModel == null) {
             initialModel = new DefaultListModel<>();
             JOptionPane.showMessageDialog(this, "Could not load data. Starting with a blank list.", "Load Error", JOptionPane.ERROR_MESSAGE);
         }
 
         this.subjectModel = initialModel;
+        aggregator = new GwaAggregator(subjectModel);
+        Metrics.gauge("subjects.count", subjectModel::getSize);
         subjectList = new JList<>(subjectModel);
         subjectList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         listPanel.add(new JScrollPane(subjectList), BorderLayout.CENTER);
 
         // --- Button Panel Setup ---
-        JPanel buttonPanel = new JPanel(new GridLayout(1, 3, 5, 1));
+        JPanel buttonPanel = new JPanel(new GridLayout(1, 4, 5, 1));
         buttonPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
 
         JButton addButton = new JButton("Add");
         JButton editButton = new JButton("Edit");
         JButton removeButton = new JButton("Remove");
+        JButton componentsButton = new JButton("Components…");
 //        JButton saveButton = new JButton("Save Data");
 //        JButton loadButton = new JButton("Load Data");
 
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(removeButton);
+        buttonPanel.add(componentsButton);
 //        buttonPanel.add(saveButton);
 //        buttonPanel.add(loadButton);
         listPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -69,9 +81,15 @@ public class GWACalculator extends JPanel {
         JButton calculateButton = new JButton("Calculate GWA");
         calculateButton.setBackground(new Color(70, 130, 180));
         calculateButton.setForeground(Color.WHITE);
+        JButton targetButton = new JButton("Target GWA…");
+        JButton whatIfButton = new JButton("What-if…");
+        JButton rosterButton = new JButton("Roster…");
 
         JPanel calcButtonPanel = new JPanel();
         calcButtonPanel.add(calculateButton);
+        calcButtonPanel.add(targetButton);
+        calcButtonPanel.add(whatIfButton);
+        calcButtonPanel.add(rosterButton);
         calcPanel.add(calcButtonPanel, BorderLayout.SOUTH);
 
         // --- Layout assembly ---
@@ -90,49 +108,70 @@ public class GWACalculator extends JPanel {
         addButton.addActionListener(e -> addSubject());
         editButton.addActionListener(e -> editSelectedSubject());
         removeButton.addActionListener(e -> removeSelectedSubject());
+        componentsButton.addActionListener(e -> editComponents());
         calculateButton.addActionListener(e -> calculateGWA());
+        targetButton.addActionListener(e -> openTargetDialog());
+        whatIfButton.addActionListener(e ->
+                new WhatIfDialog((Frame) SwingUtilities.getWindowAncestor(this), subjectModel).setVisible(true));
+        rosterButton.addActionListener(e ->
+                new RosterDialog((Frame) SwingUtilities.getWindowAncestor(this)).setVisible(true));
 //        saveButton.addActionListener(e -> saveSubjects());
 //        loadButton.addActionListener(e -> loadSubjectsWithRefresh());
 
+        // One save and one recalculation per burst of edits
+        ModelBus.subscribe(ModelEvent.SubjectsChanged.class, batch -> {
+            if (batch.stream().noneMatch(e -> e.subjects() == subjectModel)) return;
+            saveSubjects();
+            calculateGWA();
+        });
+
         // Calculate initial GWA if subjects were loaded successfully
         calculateGWA();
     }
 
-    // --- File Handling Delegation ---
-    private void saveSubjects() {
+    // Reads subjects.dat; safe to call off the EDT. Returns null if the file could not be read.
+    static DefaultListModel<Subject> loadInitialModel() {
         try {
-            fileHandler.saveSubjects(subjectModel);
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error saving subjects: " + ex.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
+            return new SubjectFileHandler().loadSubjects();
+        } catch (IOException | ClassNotFoundException e) {
+            return null;
         }
     }
 
+    // --- File Handling Delegation ---
+    private void saveSubjects() {
+        // Snapshot is taken here on the EDT, the write happens on the I/O executor
+        AsyncIO.reportErrors(fileHandler.saveSubjectsAsync(subjectModel), "Error saving subjects");
+    }
+
     private void loadSubjectsWithRefresh() {
-        try {
-            DefaultListModel<Subject> loadedModel = fileHandler.loadSubjects();
+        fileHandler.loadSubjectsAsync().whenCompleteAsync((loadedModel, ex) -> {
             // This is the clean way to replace the model's contents
             subjectModel.clear();
-            for (int i = 0; i < loadedModel.size(); i++) {
-                subjectModel.addElement(loadedModel.getElementAt(i));
+            if (ex != null) {
+                JOptionPane.showMessageDialog(this, "Error loading subjects. Starting with a blank list.", "Load Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                for (int i = 0; i < loadedModel.size(); i++) {
+                    subjectModel.addElement(loadedModel.getElementAt(i));
+                }
             }
             calculateGWA();
-        } catch (IOException | ClassNotFoundException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading subjects. Starting with a blank list.", "Load Error", JOptionPane.ERROR_MESSAGE);
-            subjectModel.clear(); // Ensure list is clear on failure
-            calculateGWA();
-        }
+        }, AsyncIO.EDT);
     }
 
 
     // --- Core Logic Methods (Simplified/Cleaned) ---
 
     private void addSubject() {
-        JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+        JPanel panel = new JPanel(new GridLayout(6, 2, 5, 5));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
 
         JTextField nameField = new JTextField();
         JTextField unitsField = new JTextField("3.0");
         JTextField gradeField = new JTextField("5.0");
+        JComboBox<String> termBox = termChooser(lastTerm);
+        JCheckBox pendingBox = new JCheckBox("Not graded yet");
+        JTextField rangeField = pendingRange(pendingBox, "3.0 - 5.0");
 
         panel.add(new JLabel("Subject Name:"));
         panel.add(nameField);
@@ -140,6 +179,12 @@ public class GWACalculator extends JPanel {
         panel.add(unitsField);
         panel.add(new JLabel("Grade (Highest = 5.0):"));
         panel.add(gradeField);
+        panel.add(new JLabel("Term:"));
+        panel.add(termBox);
+        panel.add(new JLabel("What-if:"));
+        panel.add(pendingBox);
+        panel.add(new JLabel("Possible grades (low - high):"));
+        panel.add(rangeField);
 
         int result = JOptionPane.showConfirmDialog(
                 null, panel, "Add Subject",
@@ -149,27 +194,24 @@ public class GWACalculator extends JPanel {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 String name = nameField.getText().trim();
-                if (name.isEmpty()) {
-                    JOptionPane.showMessageDialog(null, "Please enter a subject name");
-                    return;
-                }
-
                 double units = Double.parseDouble(unitsField.getText().trim());
-                if (units <= 0) {
-                    JOptionPane.showMessageDialog(null, "Units must be positive");
+                double grade = Double.parseDouble(gradeField.getText().trim());
+                String problem = Subject.check(name, units, grade);
+                if (problem != null) {
+                    JOptionPane.showMessageDialog(null, problem);
                     return;
                 }
 
-                double grade = Double.parseDouble(gradeField.getText().trim());
-                if (grade < 1.0 || grade > 5.0) {
-                    JOptionPane.showMessageDialog(null, "Grade must be between 1.0 and 5.0");
+                double[] range = pendingBox.isSelected() ? parseRange(rangeField.getText(), grade) : null;
+                if (pendingBox.isSelected() && range == null) {
+                    JOptionPane.showMessageDialog(null, RANGE_HINT);
                     return;
                 }
 
-                Subject newSubject = new Subject(name, units, grade);
-                subjectModel.addElement(newSubject);
-                saveSubjects(); // Automatically save
-                calculateGWA();
+                lastTerm = chosenTerm(termBox);
+                Subject subject = new Subject(name, units, grade, lastTerm);
+                setPending(subject, range);
+                addSubject(subject);
 
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(null, "Please enter valid numbers for units and grade");
@@ -177,6 +219,62 @@ public class GWACalculator extends JPanel {
         }
     }
 
+    // Also called by the local API, with values already checked by Subject.check
+    void addSubject(Subject subject) {
+        subjectModel.addElement(subject);
+        subjectsChanged();
+    }
+
+    // Saving and recalculating run once per batch, in the ModelBus subscriber
+    private void subjectsChanged() {
+        ModelBus.publish(new ModelEvent.SubjectsChanged(subjectModel));
+    }
+
+    // Existing terms to pick from; typing a new name starts a new term
+    private JComboBox<String> termChooser(String selected) {
+        JComboBox<String> box = new JComboBox<>(aggregator.terms().toArray(new String[0]));
+        box.setEditable(true);
+        box.setSelectedItem(selected);
+        return box;
+    }
+
+    private static String chosenTerm(JComboBox<String> box) {
+        Object item = box.getEditor().getItem();
+        String term = item == null ? "" : item.toString().trim();
+        return term.isEmpty() ? Subject.DEFAULT_TERM : term;
+    }
+
+    /* ---------- What-if (pending subjects) ---------- */
+    private static final String RANGE_HINT =
+            "Enter the possible grades as low - high, between 1.0 and 5.0 and around the grade";
+
+    // Only editable while the subject is marked as not graded yet
+    private static JTextField pendingRange(JCheckBox pendingBox, String text) {
+        JTextField field = new JTextField(text);
+        field.setEnabled(pendingBox.isSelected());
+        pendingBox.addActionListener(e -> field.setEnabled(pendingBox.isSelected()));
+        return field;
+    }
+
+    /** "low - high" with low <= grade <= high, all within 1.0..5.0; null if it is not. */
+    static double[] parseRange(String text, double grade) {
+        String[] parts = text.trim().split("\\s*(?:-|–|to)\\s*");
+        if (parts.length != 2) return null;
+        try {
+            double low = Double.parseDouble(parts[0]), high = Double.parseDouble(parts[1]);
+            if (!(low >= 1.0 && low <= grade && grade <= high && high <= 5.0)) return null;
+            return new double[]{low, high};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // range is null for a subject that has its final grade
+    private static void setPending(Subject subject, double[] range) {
+        subject.setPending(range != null);
+        if (range != null) subject.setRange(range[0], range[1]);
+    }
+
     private void editSelectedSubject() {
         Subject selected = subjectList.getSelectedValue();
         if (selected == null) {
@@ -184,12 +282,20 @@ public class GWACalculator extends JPanel {
             return;
         }
 
-        JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+        JPanel panel = new JPanel(new GridLayout(6, 2, 5, 5));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
 
         JTextField nameField = new JTextField(selected.getName());
         JTextField unitsField = new JTextField(String.valueOf(selected.getUnits()));
         JTextField gradeField = new JTextField(String.valueOf(selected.getGrade()));
+        if (selected.isGradedByComponents()) {
+            gradeField.setEnabled(false);
+            gradeField.setToolTipText("Set by the subject's components");
+        }
+        JComboBox<String> termBox = termChooser(selected.getTerm());
+        JCheckBox pendingBox = new JCheckBox("Not graded yet", selected.isPending());
+        JTextField rangeField = pendingRange(pendingBox, selected.isPending()
+                ? selected.getLow() + " - " + selected.getHigh() : "3.0 - 5.0");
 
         panel.add(new JLabel("Subject Name:"));
         panel.add(nameField);
@@ -197,6 +303,12 @@ public class GWACalculator extends JPanel {
         panel.add(unitsField);
         panel.add(new JLabel("Grade (Highest = 5.0):"));
         panel.add(gradeField);
+        panel.add(new JLabel("Term:"));
+        panel.add(termBox);
+        panel.add(new JLabel("What-if:"));
+        panel.add(pendingBox);
+        panel.add(new JLabel("Possible grades (low - high):"));
+        panel.add(rangeField);
 
         int result = JOptionPane.showConfirmDialog(
                 null, panel, "Edit Subject",
@@ -223,15 +335,22 @@ public class GWACalculator extends JPanel {
                     return;
                 }
 
+                double[] range = pendingBox.isSelected() ? parseRange(rangeField.getText(), grade) : null;
+                if (pendingBox.isSelected() && range == null) {
+                    JOptionPane.showMessageDialog(null, RANGE_HINT);
+                    return;
+                }
+
                 // Update the selected subject's properties
                 selected.setName(name);
                 selected.setUnits(units);
                 selected.setGrade(grade);
+                selected.setTerm(chosenTerm(termBox));
+                setPending(selected, range);
 
-                // Re-calculate and repaint the list item
-                saveSubjects(); // Automatically save
-                calculateGWA();
-                subjectList.repaint();
+                // set() tells the list and the running totals that this row changed
+                subjectModel.set(subjectList.getSelectedIndex(), selected);
+                subjectsChanged();
 
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(null, "Please enter valid numbers for units and grade");
@@ -239,6 +358,26 @@ public class GWACalculator extends JPanel {
         }
     }
 
+    // Each edit in the dialog updates this subject's row and the running totals in O(1)
+    private void editComponents() {
+        Subject selected = subjectList.getSelectedValue();
+        if (selected == null) {
+            JOptionPane.showMessageDialog(null, "Select a subject first");
+            return;
+        }
+        if (selected.getGradeBook() == null) selected.setGradeBook(new GradeBook());
+
+        new GradeComponentsDialog((Frame) SwingUtilities.getWindowAncestor(this), selected, () -> {
+            int idx = subjectModel.indexOf(selected);
+            if (idx < 0) return;
+            if (selected.applyGradeBook()) subjectModel.set(idx, selected);
+            subjectsChanged();
+        }).setVisible(true);
+
+        // Nothing was broken down after all
+        if (selected.getGradeBook().root.children.isEmpty()) selected.setGradeBook(null);
+    }
+
     private void removeSelectedSubject() {
         Subject selected = subjectList.getSelectedValue();
         int selectedIndex = subjectList.getSelectedIndex();
@@ -257,42 +396,105 @@ public class GWACalculator extends JPanel {
 
         if (confirm == JOptionPane.YES_OPTION) {
             subjectModel.remove(selectedIndex);
-            saveSubjects(); // Automatically save
-            calculateGWA(); // Recalculate after removal
+            subjectsChanged();
         }
     }
 
 
     private void calculateGWA() {
+        long t0 = System.nanoTime();
+        try {
+            calculateGWAUntimed();
+        } finally {
+            CALCULATE.recordSince(t0);
+        }
+    }
+
+    private void calculateGWAUntimed() {
+        AppEvents.GwaCalculation event = new AppEvents.GwaCalculation();
+        event.begin();
+        try {
+            computeGWA(event);
+        } finally {
+            event.commit(); // no-op unless a recording has the event enabled
+        }
+    }
+
+    private void computeGWA(AppEvents.GwaCalculation event) {
         if (subjectModel.isEmpty()) {
+            shownVersion = -1;
             resultLabel.setText("No subjects to calculate");
             return;
         }
 
-        try {
-            double totalUnits = 0;
-            double totalWeightedGrade = 0;
-
-            for (int i = 0; i < subjectModel.size(); i++) {
-                Subject subject = subjectModel.getElementAt(i);
-                totalUnits += subject.getUnits();
-                totalWeightedGrade += (subject.getGrade() * subject.getUnits());
+        // Running totals from the aggregator; the label is only rebuilt after a change
+        Subject.Totals totals = aggregator.totals();
+        if (event.shouldCommit()) {
+            event.subjectCount = subjectModel.size();
+            event.totalUnits = totals.units();
+            event.gwa = totals.gwa();
+        }
+        if (aggregator.version() == shownVersion) return;
+        shownVersion = aggregator.version();
+
+        StringBuilder html = new StringBuilder(String.format(
+                "<html><center><h2>GWA = %s</h2>" +
+                        "<p>∑(grade×units) = %s<br>" +
+                        "∑units = %s</p>",
+                totals.gwaText(), SUM_FORMAT.format(totals.weightedGrade()), SUM_FORMAT.format(totals.units())
+        ));
+
+        // Per term and running (cumulative) GWA, each an O(1) prefix-sum lookup
+        List<String> terms = aggregator.terms();
+        if (terms.size() > 1) {
+            html.append("<br><table><tr><th align=left>Term</th><th>Units</th><th>GWA</th><th>Cumulative</th></tr>");
+            for (int i = 0; i < terms.size(); i++) {
+                Subject.Totals term = aggregator.term(i);
+                html.append("<tr><td>").append(escape(terms.get(i)))
+                    .append("</td><td align=right>").append(SUM_FORMAT.format(term.units()))
+                    .append("</td><td align=right>").append(term.gwaText())
+                    .append("</td><td align=right>").append(aggregator.cumulative(i).gwaText())
+                    .append("</td></tr>");
             }
+            html.append("</table>");
+        }
+        resultLabel.setText(html.append("</center></html>").toString());
+    }
 
-            double gwa = totalWeightedGrade / totalUnits;
-            DecimalFormat df = new DecimalFormat("#.##");
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;");
+    }
 
-            String formula = String.format(
-                    "<html><center><h2>GWA = %s</h2>" +
-                            "<p>∑(grade×units) = %s<br>" +
-                            "∑units = %s</p></center></html>",
-                    df.format(gwa), df.format(totalWeightedGrade), df.format(totalUnits)
-            );
+    /* ---------- Target solver ---------- */
+    // "What average do I need in my remaining units?" answered from the running totals
+    private void openTargetDialog() {
+        JTextField targetField = new JTextField("4.50");
+        JTextField unitsField = new JTextField("21");
+        JPanel panel = new JPanel(new GridLayout(2, 2, 5, 5));
+        panel.add(new JLabel("Target cumulative GWA:"));
+        panel.add(targetField);
+        panel.add(new JLabel("Remaining units:"));
+        panel.add(unitsField);
 
-            resultLabel.setText(formula);
+        int result = JOptionPane.showConfirmDialog(null, panel, "Target GWA",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
 
-        } catch (Exception e) {
-            resultLabel.setText("Error in calculation");
+        try {
+            double target = Double.parseDouble(targetField.getText().trim());
+            double units = Double.parseDouble(unitsField.getText().trim());
+            if (!(units > 0) || target < 1.0 || target > 5.0) {
+                JOptionPane.showMessageDialog(null, "Enter a target between 1.0 and 5.0 and a positive number of units");
+                return;
+            }
+            if (Subject.cents(units) == 0) {
+                JOptionPane.showMessageDialog(null, "Units must be at least 0.01");
+                return;
+            }
+            JOptionPane.showMessageDialog(null, aggregator.totals().describeTarget(units, target),
+                    "Target GWA", JOptionPane.INFORMATION_MESSAGE);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(null, "Please enter valid numbers");
         }
     }
-}
\ No newline at end of file
+}
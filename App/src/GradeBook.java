@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A subject's grade components and the table that turns their percentage into a grade.
+ *
+ * Each group keeps exact integer sums of its scored children's weight and weight × value,
+ * and each node remembers what it last added to them. A change therefore walks up from the
+ * edited node, swapping one contribution per level, and stops at the first ancestor whose
+ * value did not move; siblings are never revisited. Subject and the GWA tab's running
+ * totals take it from there, so one score edit costs O(depth) plus one O(1) GWA update.
+ */
+final class GradeBook implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final LongAdder NODES_UPDATED = Metrics.counter("grades.nodesUpdated");
+
+    final GradeComponent root = GradeComponent.group("Final grade", 1);
+    private Transmutation table = Transmutation.DEFAULT;
+
+    Transmutation getTable() { return table; }
+
+    void setTable(Transmutation table) { this.table = table; }
+
+    /** The overall percentage in basis points, or -1 while nothing is scored. */
+    long percent() { return root.value; }
+
+    /** The transmuted grade in hundredths, or -1 while nothing is scored. */
+    long gradeCents() {
+        return root.value < 0 ? -1 : table.gradeCents(root.value);
+    }
+
+    /* ---------- edits ---------- */
+    void add(GradeComponent parent, GradeComponent child) {
+        child.parent = parent;
+        parent.children.add(child);
+        child.givenWeight = child.givenSum = 0;
+        propagate(child);
+    }
+
+    void remove(GradeComponent child) {
+        GradeComponent parent = child.parent;
+        if (parent == null) return;
+        parent.children.remove(child);
+        child.value = -1; // withdraws its contribution
+        propagate(child);
+        child.parent = null;
+    }
+
+    void setScore(GradeComponent item, Double score, double maxScore) {
+        item.score = score;
+        item.maxScore = maxScore;
+        item.value = item.scoredValue();
+        propagate(item);
+    }
+
+    void setWeight(GradeComponent node, double weight) {
+        node.weight = weight;
+        propagate(node);
+    }
+
+    // node's value or weight changed: fix its parent's sums and carry on up while values move
+    private void propagate(GradeComponent node) {
+        for (GradeComponent n = node; n.parent != null; n = n.parent) {
+            GradeComponent p = n.parent;
+            long w = n.weightCents(), s = w * Math.max(0, n.value);
+            p.weightSum += w - n.givenWeight;
+            p.weightedSum += s - n.givenSum;
+            n.givenWeight = w;
+            n.givenSum = s;
+            NODES_UPDATED.increment();
+
+            long before = p.value;
+            p.value = average(p);
+            if (p.value == before) return;
+        }
+    }
+
+    private static long average(GradeComponent group) {
+        if (group.weightSum <= 0) return -1;
+        return (2 * group.weightedSum + group.weightSum) / (2 * group.weightSum); // half up
+    }
+
+    /* ---------- loading ---------- */
+    // The sums are not saved; one bottom-up pass restores them
+    private static void rebuild(GradeComponent node) {
+        node.givenWeight = node.givenSum = 0;
+        if (!node.isGroup()) {
+            node.value = node.scoredValue();
+            return;
+        }
+        node.weightSum = node.weightedSum = 0;
+        for (GradeComponent c : node.children) {
+            rebuild(c);
+            c.givenWeight = c.weightCents();
+            c.givenSum = c.givenWeight * Math.max(0, c.value);
+            node.weightSum += c.givenWeight;
+            node.weightedSum += c.givenSum;
+        }
+        node.value = average(node);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (table == null) table = Transmutation.DEFAULT;
+        rebuild(root);
+    }
+}
@@ -0,0 +1,74 @@
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One node of a subject's grade breakdown: a scored item (a quiz, a lab, the final exam) or
+ * a group of them. Weights are relative to the siblings, so 30/70 and 3/7 mean the same.
+ * Values are percentages in basis points (100% = 10000); the derived fields are kept up to
+ * date by GradeBook, which owns the tree.
+ */
+class GradeComponent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    String name;
+    double weight;
+    Double score;             // items only; null until it has been taken
+    double maxScore;
+    final List<GradeComponent> children; // null for items
+    GradeComponent parent;
+
+    // Derived; rebuilt by GradeBook after loading
+    transient long value = -1;              // -1 while nothing under this node is scored
+    transient long weightSum, weightedSum;  // over the children that have a value
+    transient long givenWeight, givenSum;   // what this node last added to its parent's sums
+
+    private GradeComponent(String name, double weight, double maxScore, boolean group) {
+        this.name = name;
+        this.weight = weight;
+        this.maxScore = maxScore;
+        this.children = group ? new ArrayList<>() : null;
+    }
+
+    static GradeComponent item(String name, double weight, double maxScore) {
+        return new GradeComponent(name, weight, maxScore, false);
+    }
+
+    static GradeComponent group(String name, double weight) {
+        return new GradeComponent(name, weight, 0, true);
+    }
+
+    boolean isGroup() { return children != null; }
+
+    public String getName() { return name; }
+    public double getWeight() { return weight; }
+    public Double getScore() { return score; }
+    public double getMaxScore() { return maxScore; }
+
+    /** An item's own percentage in basis points, half up; -1 if it has no score. */
+    long scoredValue() {
+        if (score == null || !(maxScore > 0)) return -1;
+        return Math.round(score * 10_000 / maxScore);
+    }
+
+    /** This node's share of its parent: its weight in hundredths, or 0 while unscored. */
+    long weightCents() {
+        return value < 0 ? 0 : Subject.cents(weight);
+    }
+
+    static String percentText(long basisPoints) {
+        return basisPoints < 0 ? "—" : Subject.centsText(basisPoints) + "%";
+    }
+
+    @Override
+    public String toString() {
+        String share = parent == null ? "" : " ×" + Subject.centsText(Subject.cents(weight));
+        if (isGroup()) return name + share + ": " + percentText(value);
+        String raw = score == null ? "not taken" : trim(score) + "/" + trim(maxScore);
+        return name + share + ": " + raw + (score == null ? "" : " = " + percentText(value));
+    }
+
+    private static String trim(double v) {
+        return v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v);
+    }
+}
@@ -0,0 +1,219 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
+import java.awt.*;
+
+// GWA tab > Components: edit one subject's grade breakdown. Every edit goes through the
+// subject's GradeBook, which only touches the edited node's ancestors, and onChange then
+// lets the GWA tab pick up the new grade.
+class GradeComponentsDialog extends JDialog {
+    private final GradeBook book;
+    private final Runnable onChange;
+    private final DefaultMutableTreeNode rootNode;
+    private final DefaultTreeModel treeModel;
+    private final JTree tree;
+
+    private final JTextField nameField = new JTextField(16);
+    private final JTextField weightField = new JTextField(6);
+    private final JTextField scoreField = new JTextField(6);
+    private final JTextField maxField = new JTextField(6);
+    private final JButton applyButton = new JButton("Apply");
+    private final JLabel resultLabel = new JLabel(" ");
+
+    GradeComponentsDialog(Frame owner, Subject subject, Runnable onChange) {
+        super(owner, "Grade components: " + subject.getName(), true);
+        this.book = subject.getGradeBook();
+        this.onChange = onChange;
+
+        rootNode = buildNode(book.root);
+        treeModel = new DefaultTreeModel(rootNode);
+        tree = new JTree(treeModel);
+        tree.getSelectionModel().setSelectionMode(javax.swing.tree.TreeSelectionModel.SINGLE_TREE_SELECTION);
+        for (int i = 0; i < tree.getRowCount(); i++) tree.expandRow(i);
+        tree.addTreeSelectionListener(e -> showSelected());
+        add(new JScrollPane(tree), BorderLayout.CENTER);
+
+        // --- Selected component ---
+        JPanel form = new JPanel(new GridLayout(4, 2, 5, 5));
+        form.add(new JLabel("Name:"));
+        form.add(nameField);
+        form.add(new JLabel("Weight:"));
+        form.add(weightField);
+        form.add(new JLabel("Score (blank = not taken):"));
+        form.add(scoreField);
+        form.add(new JLabel("Out of:"));
+        form.add(maxField);
+        JPanel formHolder = new JPanel(new BorderLayout(5, 5));
+        formHolder.setBorder(BorderFactory.createTitledBorder("Selected"));
+        formHolder.add(form, BorderLayout.NORTH);
+        JPanel applyRow = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        applyRow.add(applyButton);
+        formHolder.add(applyRow, BorderLayout.CENTER);
+        add(formHolder, BorderLayout.EAST);
+
+        // --- Structure ---
+        JButton addGroupButton = new JButton("Add Group");
+        JButton addItemButton = new JButton("Add Item");
+        JButton removeButton = new JButton("Remove");
+        JButton tableButton = new JButton("Transmutation…");
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttons.add(addGroupButton);
+        buttons.add(addItemButton);
+        buttons.add(removeButton);
+        buttons.add(tableButton);
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(buttons, BorderLayout.WEST);
+        resultLabel.setBorder(new EmptyBorder(0, 10, 0, 10));
+        bottom.add(resultLabel, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+
+        applyButton.addActionListener(e -> applySelected());
+        // Enter in any field applies, so scores can be typed in one after another
+        for (JTextField f : new JTextField[]{nameField, weightField, scoreField, maxField}) {
+            f.addActionListener(e -> applySelected());
+        }
+        addGroupButton.addActionListener(e -> addComponent(GradeComponent.group("Group", 1)));
+        addItemButton.addActionListener(e -> addComponent(GradeComponent.item("Item", 1, 100)));
+        removeButton.addActionListener(e -> removeSelected());
+        tableButton.addActionListener(e -> editTable());
+
+        tree.setSelectionRow(0);
+        updateResult();
+        setSize(720, 460);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    private static DefaultMutableTreeNode buildNode(GradeComponent c) {
+        DefaultMutableTreeNode node = new DefaultMutableTreeNode(c, c.isGroup());
+        if (c.isGroup()) for (GradeComponent child : c.children) node.add(buildNode(child));
+        return node;
+    }
+
+    private DefaultMutableTreeNode selectedNode() {
+        TreePath path = tree.getSelectionPath();
+        return path == null ? null : (DefaultMutableTreeNode) path.getLastPathComponent();
+    }
+
+    private void showSelected() {
+        DefaultMutableTreeNode node = selectedNode();
+        GradeComponent c = node == null ? null : (GradeComponent) node.getUserObject();
+        boolean item = c != null && !c.isGroup();
+        nameField.setText(c == null ? "" : c.getName());
+        weightField.setText(c == null ? "" : String.valueOf(c.getWeight()));
+        scoreField.setText(item && c.getScore() != null ? String.valueOf(c.getScore()) : "");
+        maxField.setText(item ? String.valueOf(c.getMaxScore()) : "");
+        nameField.setEnabled(c != null);
+        weightField.setEnabled(c != null && c != book.root); // the root's weight means nothing
+        scoreField.setEnabled(item);
+        maxField.setEnabled(item);
+        applyButton.setEnabled(c != null);
+    }
+
+    private void applySelected() {
+        DefaultMutableTreeNode node = selectedNode();
+        if (node == null) return;
+        GradeComponent c = (GradeComponent) node.getUserObject();
+
+        String name = nameField.getText().trim();
+        if (name.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please enter a name");
+            return;
+        }
+        double weight;
+        Double score = null;
+        double max = c.getMaxScore();
+        try {
+            weight = Double.parseDouble(weightField.getText().trim());
+            if (!c.isGroup()) {
+                String s = scoreField.getText().trim();
+                if (!s.isEmpty()) score = Double.parseDouble(s);
+                max = Double.parseDouble(maxField.getText().trim());
+            }
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter valid numbers");
+            return;
+        }
+        if (!(weight > 0) || !(max > 0) || (score != null && score < 0)) {
+            JOptionPane.showMessageDialog(this, "Weights and totals must be positive, and scores not negative");
+            return;
+        }
+
+        c.name = name;
+        if (weight != c.getWeight()) book.setWeight(c, weight);
+        if (!c.isGroup() && (!java.util.Objects.equals(score, c.getScore()) || max != c.getMaxScore())) {
+            book.setScore(c, score, max);
+        }
+        changed(node);
+    }
+
+    private void addComponent(GradeComponent child) {
+        DefaultMutableTreeNode node = selectedNode();
+        if (node == null) node = rootNode;
+        if (!((GradeComponent) node.getUserObject()).isGroup()) node = (DefaultMutableTreeNode) node.getParent();
+        GradeComponent parent = (GradeComponent) node.getUserObject();
+
+        child.name = (child.isGroup() ? "Group " : "Item ") + (parent.children.size() + 1);
+        book.add(parent, child);
+        DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(child, child.isGroup());
+        treeModel.insertNodeInto(childNode, node, node.getChildCount());
+        TreePath path = new TreePath(childNode.getPath());
+        tree.scrollPathToVisible(path);
+        tree.setSelectionPath(path);
+        changed(childNode);
+        nameField.requestFocusInWindow();
+        nameField.selectAll();
+    }
+
+    private void removeSelected() {
+        DefaultMutableTreeNode node = selectedNode();
+        if (node == null || node == rootNode) return;
+        GradeComponent c = (GradeComponent) node.getUserObject();
+        if (c.isGroup() && !c.children.isEmpty()) {
+            int confirm = JOptionPane.showConfirmDialog(this, "Remove '" + c.getName() + "' and everything in it?",
+                    "Confirm", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) return;
+        }
+        DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) node.getParent();
+        book.remove(c);
+        treeModel.removeNodeFromParent(node);
+        tree.setSelectionPath(new TreePath(parentNode.getPath()));
+        changed(parentNode);
+    }
+
+    private void editTable() {
+        JTextArea area = new JTextArea(book.getTable().format().replace(", ", "\n"), 10, 14);
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(new JLabel("<html>One row per line: lowest percent = grade.<br>Below every row the grade is 1.00.</html>"),
+                BorderLayout.NORTH);
+        panel.add(new JScrollPane(area), BorderLayout.CENTER);
+        int result = JOptionPane.showConfirmDialog(this, panel, "Transmutation Table",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+        try {
+            book.setTable(Transmutation.parse(area.getText()));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+        updateResult();
+        onChange.run();
+    }
+
+    // Only the edited node and its ancestors can have new text
+    private void changed(DefaultMutableTreeNode node) {
+        for (DefaultMutableTreeNode n = node; n != null; n = (DefaultMutableTreeNode) n.getParent()) {
+            treeModel.nodeChanged(n);
+        }
+        updateResult();
+        onChange.run();
+    }
+
+    private void updateResult() {
+        long grade = book.gradeCents();
+        resultLabel.setText(grade < 0 ? "Nothing scored yet; the entered grade is kept"
+                : "Overall " + GradeComponent.percentText(book.percent()) + "  →  grade " + Subject.centsText(grade));
+    }
+}
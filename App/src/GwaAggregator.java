@@ -0,0 +1,200 @@
+import javax.swing.ListModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running ∑units and ∑(grade×units) for a subject list, overall and per term, kept up to
+ * date from the list's own events: adding, removing or set()-ing a subject costs O(1)
+ * arithmetic instead of a pass over the whole list. Each row's contribution is remembered,
+ * because a removal event arrives after the subject is already gone.
+ *
+ * Terms are ordered by first appearance. Prefix sums over the terms are rebuilt lazily,
+ * in O(terms), after a change, so any range of terms (one term, cumulative up to a term)
+ * is answered in O(1).
+ *
+ * In-place edits to a Subject are only seen when followed by model.set(i, subject).
+ * EDT only, like the model it listens to.
+ */
+final class GwaAggregator implements ListDataListener {
+    private final ListModel<Subject> model;
+
+    // Per row, parallel to the model
+    private long[] unitCents = new long[16];
+    private long[] weighted = new long[16];
+    private int[] termOf = new int[16];
+    private int size;
+    private long totalUnits, totalWeighted;
+
+    // Per term, indexed by order of first appearance; emptied terms keep their slot
+    private final List<String> termNames = new ArrayList<>();
+    private final Map<String, Integer> termIndex = new HashMap<>();
+    private long[] termUnits = new long[4];
+    private long[] termWeighted = new long[4];
+    private int[] termRows = new int[4];
+
+    // Rebuilt on demand after a change
+    private Subject.Totals totals = Subject.Totals.EMPTY;
+    private List<String> activeTerms;
+    private long[] prefixUnits, prefixWeighted;
+    private long version;
+
+    GwaAggregator(ListModel<Subject> model) {
+        this.model = model;
+        insert(0, model.getSize() - 1);
+        model.addListDataListener(this);
+    }
+
+    /* ---------- queries ---------- */
+    Subject.Totals totals() {
+        Subject.Totals t = totals;
+        if (t == null) totals = t = new Subject.Totals(totalUnits, totalWeighted);
+        return t;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Bumped on every change, for callers that cache what they render. */
+    long version() {
+        return version;
+    }
+
+    /** Terms that have subjects, in order of first appearance. */
+    List<String> terms() {
+        buildPrefix();
+        return activeTerms;
+    }
+
+    /** Totals over terms from..to (inclusive, indexes into terms()). */
+    Subject.Totals range(int from, int to) {
+        buildPrefix();
+        return new Subject.Totals(prefixUnits[to + 1] - prefixUnits[from],
+                prefixWeighted[to + 1] - prefixWeighted[from]);
+    }
+
+    Subject.Totals term(int i) {
+        return range(i, i);
+    }
+
+    /** Everything up to and including term i. */
+    Subject.Totals cumulative(int i) {
+        return range(0, i);
+    }
+
+    void detach() {
+        model.removeListDataListener(this);
+    }
+
+    private void buildPrefix() {
+        if (activeTerms != null) return;
+        List<String> names = new ArrayList<>();
+        long[] pu = new long[termNames.size() + 1];
+        long[] pw = new long[termNames.size() + 1];
+        int k = 0;
+        for (int t = 0; t < termNames.size(); t++) {
+            if (termRows[t] == 0) continue;
+            names.add(termNames.get(t));
+            pu[k + 1] = pu[k] + termUnits[t];
+            pw[k + 1] = pw[k] + termWeighted[t];
+            k++;
+        }
+        activeTerms = List.copyOf(names);
+        prefixUnits = pu;
+        prefixWeighted = pw;
+    }
+
+    /* ---------- list events ---------- */
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        insert(e.getIndex0(), e.getIndex1());
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        int from = e.getIndex0(), to = e.getIndex1();
+        for (int i = from; i <= to; i++) account(i, -1);
+        int count = to - from + 1;
+        System.arraycopy(unitCents, to + 1, unitCents, from, size - to - 1);
+        System.arraycopy(weighted, to + 1, weighted, from, size - to - 1);
+        System.arraycopy(termOf, to + 1, termOf, from, size - to - 1);
+        size -= count;
+        changed();
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        // -1/-1 means "everything may have changed"
+        int from = Math.max(0, e.getIndex0());
+        int to = e.getIndex1() < 0 ? size - 1 : Math.min(e.getIndex1(), size - 1);
+        for (int i = from; i <= to; i++) {
+            account(i, -1);
+            read(i);
+            account(i, 1);
+        }
+        changed();
+    }
+
+    private void insert(int from, int to) {
+        int count = to - from + 1;
+        if (count <= 0) return;
+        if (size + count > unitCents.length) {
+            int capacity = Math.max(unitCents.length * 2, size + count);
+            unitCents = Arrays.copyOf(unitCents, capacity);
+            weighted = Arrays.copyOf(weighted, capacity);
+            termOf = Arrays.copyOf(termOf, capacity);
+        }
+        System.arraycopy(unitCents, from, unitCents, to + 1, size - from);
+        System.arraycopy(weighted, from, weighted, to + 1, size - from);
+        System.arraycopy(termOf, from, termOf, to + 1, size - from);
+        for (int i = from; i <= to; i++) {
+            read(i);
+            account(i, 1);
+        }
+        size += count;
+        changed();
+    }
+
+    // Copies row i's contribution from the model
+    private void read(int i) {
+        Subject s = model.getElementAt(i);
+        unitCents[i] = s.unitCents();
+        weighted[i] = s.weightedScaled();
+        termOf[i] = termSlot(s.getTerm());
+    }
+
+    // Adds (sign 1) or takes away (sign -1) row i's remembered contribution
+    private void account(int i, int sign) {
+        int t = termOf[i];
+        totalUnits += sign * unitCents[i];
+        totalWeighted += sign * weighted[i];
+        termUnits[t] += sign * unitCents[i];
+        termWeighted[t] += sign * weighted[i];
+        termRows[t] += sign;
+    }
+
+    private int termSlot(String name) {
+        Integer slot = termIndex.get(name);
+        if (slot != null) return slot;
+        int t = termNames.size();
+        termNames.add(name);
+        termIndex.put(name, t);
+        if (t == termUnits.length) {
+            termUnits = Arrays.copyOf(termUnits, t * 2);
+            termWeighted = Arrays.copyOf(termWeighted, t * 2);
+            termRows = Arrays.copyOf(termRows, t * 2);
+        }
+        return t;
+    }
+
+    private void changed() {
+        totals = null;
+        activeTerms = null;
+        version++;
+    }
+}
@@ -0,0 +1,150 @@
+import javax.swing.ListModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+
+/**
+ * Monte Carlo what-if for the GWA: every pending subject draws a grade from the triangular
+ * distribution low / most likely / high, and each sample's final GWA (exact fixed-point sums,
+ * rounded as on the form) lands in one of 401 hundredth bins. Samples run in chunks on the
+ * common fork-join pool; a chunk counts into a per-thread long[] and merges it when done, so
+ * the hot loop allocates nothing and shares nothing. snapshot() can be read at any time.
+ */
+final class GwaSimulation {
+    static final int BINS = (int) (Subject.MAX_GRADE_CENTS - Subject.MIN_GRADE_CENTS + 1); // 1.00 .. 5.00
+    private static final int CHUNK = 1 << 16;
+    private static final ThreadLocal<long[]> LOCAL_COUNTS = ThreadLocal.withInitial(() -> new long[BINS]);
+
+    /** A progressive view of the finished samples. */
+    record Result(long[] counts, long samples, long requested) {
+        boolean isEmpty() { return samples == 0; }
+
+        /** The GWA in hundredths that p (0..1) of the samples are at or below. */
+        long percentileCents(double p) {
+            long rank = Math.max(1, (long) Math.ceil(p * samples));
+            long seen = 0;
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank) return b + Subject.MIN_GRADE_CENTS;
+            }
+            return Subject.MAX_GRADE_CENTS;
+        }
+
+        double mean() {
+            if (samples == 0) return 0;
+            double sum = 0;
+            for (int b = 0; b < counts.length; b++) sum += counts[b] * (double) (b + Subject.MIN_GRADE_CENTS);
+            return sum / samples / 100.0;
+        }
+
+        /** Share of samples whose rounded GWA is at least targetCents. */
+        double probabilityAtLeast(long targetCents) {
+            if (samples == 0) return 0;
+            int from = (int) Math.max(0, targetCents - Subject.MIN_GRADE_CENTS);
+            long hits = 0;
+            for (int b = from; b < counts.length; b++) hits += counts[b];
+            return hits / (double) samples;
+        }
+    }
+
+    private final long baseUnits, baseWeighted; // graded subjects, as in Subject.Totals
+    private final long pendingUnits;
+    // Per pending subject, flattened for the hot loop
+    private final long[] unitCents;
+    private final double[] low, span, modeShare, lowArea, highArea;
+    private final long samples, seed;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BINS);
+    private volatile boolean cancelled;
+
+    GwaSimulation(Subject.Totals graded, List<Subject> pending, long samples, long seed) {
+        this.baseUnits = graded.unitCents();
+        this.baseWeighted = graded.weightedScaled();
+        this.samples = samples;
+        this.seed = seed;
+        int n = pending.size();
+        unitCents = new long[n];
+        low = new double[n];
+        span = new double[n];
+        modeShare = new double[n];
+        lowArea = new double[n];
+        highArea = new double[n];
+        long units = 0;
+        for (int k = 0; k < n; k++) {
+            Subject s = pending.get(k);
+            double a = s.getLow(), b = s.getHigh(), m = Math.min(b, Math.max(a, s.getGrade()));
+            unitCents[k] = Subject.cents(s.getUnits());
+            units += unitCents[k];
+            low[k] = a;
+            span[k] = b - a;
+            modeShare[k] = b > a ? (m - a) / (b - a) : 0;
+            lowArea[k] = (b - a) * (m - a);
+            highArea[k] = (b - a) * (b - m);
+        }
+        pendingUnits = units;
+    }
+
+    /** The graded totals and pending subjects of a subject list. */
+    static GwaSimulation of(ListModel<Subject> model, long samples, long seed) {
+        List<Subject> pending = new ArrayList<>();
+        for (int i = 0; i < model.getSize(); i++) {
+            Subject s = model.getElementAt(i);
+            if (s.isPending()) pending.add(s);
+        }
+        return new GwaSimulation(Subject.totals(model), pending, samples, seed);
+    }
+
+    int pendingCount() { return unitCents.length; }
+
+    /** Runs every chunk on the common pool; completes when all samples are in or on cancel. */
+    CompletableFuture<Void> start() {
+        long chunks = (samples + CHUNK - 1) / CHUNK;
+        return CompletableFuture.runAsync(() -> LongStream.range(0, chunks).parallel().forEach(this::runChunk));
+    }
+
+    void cancel() { cancelled = true; }
+
+    boolean isCancelled() { return cancelled; }
+
+    Result snapshot() {
+        long[] copy = new long[BINS];
+        long total = 0;
+        for (int b = 0; b < BINS; b++) total += copy[b] = counts.get(b);
+        return new Result(copy, total, samples);
+    }
+
+    private void runChunk(long chunk) {
+        if (cancelled) return;
+        int n = (int) Math.min(CHUNK, samples - chunk * CHUNK);
+        // Seeded per chunk, so a run gives the same histogram however it is split over threads
+        SplittableRandom random = new SplittableRandom(seed + chunk * 0x9E3779B97F4A7C15L);
+        long[] local = LOCAL_COUNTS.get();
+        long totalUnits = baseUnits + pendingUnits;
+        for (int i = 0; i < n; i++) {
+            long weighted = baseWeighted;
+            for (int k = 0; k < unitCents.length; k++) {
+                weighted += gradeCents(k, random.nextDouble()) * unitCents[k];
+            }
+            long gwa = totalUnits <= 0 ? Subject.MIN_GRADE_CENTS : (2 * weighted + totalUnits) / (2 * totalUnits);
+            int bin = (int) Math.min(BINS - 1, Math.max(0, gwa - Subject.MIN_GRADE_CENTS));
+            local[bin]++;
+        }
+        for (int b = 0; b < BINS; b++) {
+            if (local[b] != 0) {
+                counts.addAndGet(b, local[b]);
+                local[b] = 0;
+            }
+        }
+    }
+
+    // Inverse CDF of the triangular distribution, rounded to a grade in hundredths
+    private long gradeCents(int k, double u) {
+        double g = u < modeShare[k]
+                ? low[k] + Math.sqrt(u * lowArea[k])
+                : low[k] + span[k] - Math.sqrt((1 - u) * highArea[k]);
+        return Math.round(g * 100);
+    }
+}
@@ -0,0 +1,60 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Function;
+
+// Placeholder tab content. Swaps in the real panel once its data has arrived
+// and the tab is (or becomes) visible, so hidden tabs cost nothing at startup.
+class LazyTab<T> extends JPanel {
+    private final String name;
+    private final Function<T, JComponent> builder;
+    private T data;
+    private boolean hasData = false;
+    private boolean viewed = false;
+    private JComponent content;
+
+    LazyTab(String name, Function<T, JComponent> builder) {
+        super(new BorderLayout());
+        this.name = name;
+        this.builder = builder;
+        JLabel loading = new JLabel("Loading " + name + "…", SwingConstants.CENTER);
+        loading.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        loading.setForeground(Color.GRAY);
+        add(loading, BorderLayout.CENTER);
+    }
+
+    /** Called on the EDT when the tab's data is loaded. */
+    void dataArrived(T data) {
+        this.data = data;
+        this.hasData = true;
+        buildIfReady();
+    }
+
+    /** Called on the EDT when the user selects this tab. */
+    void viewed() {
+        viewed = true;
+        buildIfReady();
+    }
+
+    /** Builds now if the data is here, even while hidden. Returns whether the tab is built. */
+    boolean ensureBuilt() {
+        if (content == null && hasData) {
+            viewed = true;
+            buildIfReady();
+        }
+        return isBuilt();
+    }
+
+    boolean isBuilt() {
+        return content != null;
+    }
+
+    private void buildIfReady() {
+        if (content != null || !hasData || !viewed) return;
+        content = StartupTimer.time("build " + name + " tab", () -> builder.apply(data));
+        data = null;
+        removeAll();
+        add(content, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+}
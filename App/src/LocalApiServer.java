@@ -0,0 +1,455 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local JSON API for scripts and companion tools, on 127.0.0.1 only:
+ *
+ *   curl -H "Authorization: Bearer $(cat ~/Group67/api-token)" localhost:8767/api/projects
+ *
+ * Every request runs on its own virtual thread. Reads are served from ApiSnapshot and never
+ * wait for the EDT; writes are handed to the EDT and go through the same panel methods as
+ * the buttons, so the open window updates and saves as usual.
+ *
+ *   GET    /api/health                              no token needed
+ *   GET    /api/projects, /api/projects/{id}
+ *   POST   /api/projects                            {"name"}
+ *   POST   /api/projects/{id}/tasks                 {"name", "deadline"?: "yyyy-MM-dd", "difficulty"?, "parent"?: taskId}
+ *   PATCH  /api/projects/{id}/tasks/{taskId}        {"completed": true|false}
+ *   DELETE /api/projects/{id}/tasks/{taskId}
+ *   GET    /api/subjects, /api/gwa, /api/pomodoro
+ *   POST   /api/subjects                            {"name", "units", "grade", "term"?}
+ *
+ * -Dgroup67.api.port picks the port ("off" disables the server, 0 any free port).
+ * The token is kept in api-token in the data folder and created on first start.
+ */
+final class LocalApiServer {
+    static final String PORT_PROPERTY = "group67.api.port";
+    static final int DEFAULT_PORT = 8767;
+    static final String TOKEN_FILE = "api-token";
+
+    private static final Log LOG = Log.get(LocalApiServer.class);
+    private static final LatencyHistogram REQUEST = Metrics.histogram("api.request");
+    private static final LongAdder REJECTED = Metrics.counter("api.rejected");
+    private static final int MAX_BODY = 64 * 1024;
+    private static final long EDT_TIMEOUT_MS = 5_000;
+
+    /** The UI side of the writes; every method is called on the EDT. */
+    interface Backend {
+        Project createProject(String name);
+        Project project(UUID id);
+        void addTask(Project project, Task parent, Task task);
+        void setCompleted(Project project, Task task, boolean completed);
+        void removeTask(Project project, Task task);
+        void addSubject(Subject subject);
+    }
+
+    /** Thrown by the backend while the data for a request is still loading; answered with 503. */
+    static final class Unavailable extends RuntimeException {
+        Unavailable(String message) { super(message); }
+    }
+
+    private static final class HttpError extends RuntimeException {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final Backend backend;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final byte[] token;
+    private final int port;
+
+    private LocalApiServer(Backend backend, int port, byte[] token) throws IOException {
+        this.backend = backend;
+        this.token = token;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 256);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+        this.port = server.getAddress().getPort();
+    }
+
+    /** Starts the server unless disabled; logs and returns null if it cannot. Call off the EDT. */
+    static LocalApiServer start(Backend backend) {
+        String setting = System.getProperty(PORT_PROPERTY, Integer.toString(DEFAULT_PORT)).trim();
+        if (setting.equalsIgnoreCase("off")) return null;
+        // Headers and body go out as separate writes; without this every keep-alive
+        // response waits out the client's delayed ACK (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            LocalApiServer s = new LocalApiServer(backend, Integer.parseInt(setting), loadToken());
+            LOG.info("Local API listening on 127.0.0.1:{}", s.port);
+            return s;
+        } catch (IOException | RuntimeException e) {
+            // Usually a second instance already holds the port
+            LOG.warn("Local API not started on port {}", setting, e);
+            return null;
+        }
+    }
+
+    int port() {
+        return port;
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // Created once with owner-only permissions where the file system supports them
+    static byte[] loadToken() throws IOException {
+        File file = new File(AppConfig.getProjectDirectory(), TOKEN_FILE);
+        if (!file.isFile()) {
+            byte[] raw = new byte[32];
+            new SecureRandom().nextBytes(raw);
+            File tmp = new File(file.getPath() + ".tmp");
+            Files.writeString(tmp.toPath(), HexFormat.of().formatHex(raw));
+            try {
+                Files.setPosixFilePermissions(tmp.toPath(), PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ignored) {
+                // Windows: the user profile folder is already private
+            }
+            Files.move(tmp.toPath(), file.toPath(), java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+        }
+        return Files.readString(file.toPath()).strip().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /* ---------- request handling (virtual threads) ---------- */
+    private void handle(HttpExchange ex) {
+        long t0 = System.nanoTime();
+        try (ex) {
+            int status;
+            byte[] body;
+            try {
+                Object result = route(ex);
+                status = result instanceof Created ? 201 : 200;
+                body = result instanceof Created c ? c.json : (byte[]) result;
+            } catch (HttpError e) {
+                status = e.status;
+                body = error(e.getMessage());
+            } catch (Unavailable e) {
+                status = 503;
+                body = error(e.getMessage());
+            } catch (RuntimeException e) {
+                LOG.error("Local API request {} failed", ex.getRequestURI(), e);
+                status = 500;
+                body = error("Internal error");
+            }
+            if (status >= 400) REJECTED.increment();
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.getResponseHeaders().set("Cache-Control", "no-store");
+            ex.sendResponseHeaders(status, body.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            LOG.debug("Local API client went away: {}", e.toString());
+        } finally {
+            REQUEST.recordSince(t0);
+        }
+    }
+
+    private record Created(byte[] json) {}
+
+    private Object route(HttpExchange ex) throws IOException {
+        checkOrigin(ex);
+        String method = ex.getRequestMethod();
+        String[] path = ex.getRequestURI().getPath().substring("/api/".length()).split("/");
+
+        if (path.length == 1 && path[0].equals("health")) {
+            return utf8("{\"status\":\"ok\",\"projects\":" + ApiSnapshot.projectsLoaded()
+                    + ",\"subjects\":" + ApiSnapshot.subjectsLoaded() + "}");
+        }
+        checkToken(ex);
+
+        switch (path[0]) {
+            case "projects" -> {
+                if (path.length == 1) {
+                    if (method.equals("GET")) {
+                        requireProjects();
+                        return ApiSnapshot.projectListJson();
+                    }
+                    if (method.equals("POST")) return createProject(readBody(ex));
+                } else if (path.length == 2 && method.equals("GET")) {
+                    UUID id = uuid(path[1]);
+                    requireProjects();
+                    ApiSnapshot.ProjectView view = ApiSnapshot.project(id);
+                    if (view == null) throw new HttpError(404, "No such project");
+                    return view.json();
+                } else if (path.length == 3 && path[2].equals("tasks") && method.equals("POST")) {
+                    return addTask(uuid(path[1]), readBody(ex));
+                } else if (path.length == 4 && path[2].equals("tasks")) {
+                    if (method.equals("PATCH")) return updateTask(uuid(path[1]), uuid(path[3]), readBody(ex));
+                    if (method.equals("DELETE")) return removeTask(uuid(path[1]), uuid(path[3]));
+                }
+            }
+            case "subjects" -> {
+                if (path.length == 1 && method.equals("GET")) {
+                    requireSubjects();
+                    return ApiSnapshot.subjectsJson();
+                }
+                if (path.length == 1 && method.equals("POST")) return addSubject(readBody(ex));
+            }
+            case "gwa" -> {
+                if (path.length == 1 && method.equals("GET")) {
+                    requireSubjects();
+                    return ApiSnapshot.gwaJson();
+                }
+            }
+            case "pomodoro" -> {
+                if (path.length == 1 && method.equals("GET")) return ApiSnapshot.pomodoroJson();
+            }
+            default -> { }
+        }
+        throw new HttpError(404, "No route for " + method + " " + ex.getRequestURI().getPath());
+    }
+
+    /* ---------- writes (EDT) ---------- */
+    private Created createProject(Map<String, Object> body) {
+        String name = requiredString(body, "name");
+        Project p = onEdt(() -> backend.createProject(name));
+        return new Created(ApiSnapshot.project(p.getId()).json());
+    }
+
+    private Created addTask(UUID projectId, Map<String, Object> body) {
+        String name = requiredString(body, "name");
+        double d = body.get("difficulty") == null ? 0 : number(body, "difficulty");
+        if (d != Math.rint(d) || d < 0 || d > 3) throw new HttpError(400, "\"difficulty\" must be 0-3");
+        int difficulty = (int) d;
+        Date deadline = body.get("deadline") == null ? null : date(string(body, "deadline"));
+        UUID parentId = body.get("parent") == null ? null : uuid(string(body, "parent"));
+
+        Task task = new Task(name, difficulty, deadline);
+        onEdt(() -> {
+            Project p = project(projectId);
+            Task parent = parentId == null ? null : task(p, parentId);
+            backend.addTask(p, parent, task);
+            return null;
+        });
+        return new Created(taskJson(projectId, task.getId()));
+    }
+
+    private byte[] updateTask(UUID projectId, UUID taskId, Map<String, Object> body) {
+        if (!(body.get("completed") instanceof Boolean completed)) {
+            throw new HttpError(400, "\"completed\" must be true or false");
+        }
+        onEdt(() -> {
+            Project p = project(projectId);
+            backend.setCompleted(p, task(p, taskId), completed);
+            return null;
+        });
+        return taskJson(projectId, taskId);
+    }
+
+    private byte[] removeTask(UUID projectId, UUID taskId) {
+        onEdt(() -> {
+            Project p = project(projectId);
+            backend.removeTask(p, task(p, taskId));
+            return null;
+        });
+        return utf8("{\"removed\":\"" + taskId + "\"}");
+    }
+
+    private Created addSubject(Map<String, Object> body) {
+        String name = requiredString(body, "name");
+        double units = number(body, "units");
+        double grade = number(body, "grade");
+        String term = body.get("term") == null ? null : string(body, "term").strip();
+        String problem = Subject.check(name, units, grade);
+        if (problem != null) throw new HttpError(400, problem);
+        onEdt(() -> {
+            backend.addSubject(new Subject(name, units, grade, term));
+            return null;
+        });
+        return new Created(ApiSnapshot.gwaJson());
+    }
+
+    private Project project(UUID id) {
+        Project p = backend.project(id);
+        if (p == null) throw new HttpError(404, "No such project");
+        return p;
+    }
+
+    private static Task task(Project p, UUID id) {
+        Task t = p.findTask(id);
+        if (t == null) throw new HttpError(404, "No such task");
+        return t;
+    }
+
+    // The task as published after the write, found in the project snapshot
+    private static byte[] taskJson(UUID projectId, UUID taskId) {
+        ApiSnapshot.ProjectView view = ApiSnapshot.project(projectId);
+        ApiSnapshot.TaskView found = view == null ? null : find(view.tasks, taskId);
+        if (found == null) return utf8("{\"id\":\"" + taskId + "\"}");
+        StringBuilder sb = new StringBuilder(256);
+        found.writeJson(sb);
+        return utf8(sb.toString());
+    }
+
+    private static ApiSnapshot.TaskView find(List<ApiSnapshot.TaskView> tasks, UUID id) {
+        for (ApiSnapshot.TaskView t : tasks) {
+            if (t.id().equals(id)) return t;
+            ApiSnapshot.TaskView found = find(t.subtasks(), id);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    // Runs on the EDT and waits; the virtual thread parks instead of holding a carrier.
+    // The bus is flushed before answering so the snapshot already shows the change.
+    // A write that has not started when the wait times out is dropped, so the 503 is honest
+    // and a retry cannot apply it twice; one that has started is waited for.
+    private static <T> T onEdt(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        AsyncIO.EDT.execute(() -> {
+            if (!claimed.compareAndSet(false, true)) return; // the client was already told 503
+            try {
+                T value = work.call();
+                ModelBus.flush();
+                result.complete(value);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        try {
+            try {
+                return result.get(EDT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) throw new Unavailable("The app is busy, try again");
+                return result.get(); // already running on the EDT
+            }
+        } catch (InterruptedException e) {
+            claimed.set(true); // nobody is left to answer, so do not start it either
+            Thread.currentThread().interrupt();
+            throw new Unavailable("Interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /* ---------- request checks ---------- */
+    // Browsers send Origin on cross-site requests, and a rebound DNS name shows up in Host
+    private void checkOrigin(HttpExchange ex) {
+        String host = ex.getRequestHeaders().getFirst("Host");
+        if (host != null && !isLocal(host)) throw new HttpError(403, "Forbidden host");
+        String origin = ex.getRequestHeaders().getFirst("Origin");
+        if (origin != null && !isLocal(origin.replaceFirst("^https?://", ""))) {
+            throw new HttpError(403, "Forbidden origin");
+        }
+    }
+
+    private boolean isLocal(String hostAndPort) {
+        return hostAndPort.equals("127.0.0.1:" + port) || hostAndPort.equals("localhost:" + port)
+                || hostAndPort.equals("[::1]:" + port);
+    }
+
+    private void checkToken(HttpExchange ex) {
+        String auth = ex.getRequestHeaders().getFirst("Authorization");
+        byte[] given = auth != null && auth.startsWith("Bearer ")
+                ? auth.substring(7).strip().getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        if (!MessageDigest.isEqual(given, token)) throw new HttpError(401, "Missing or wrong token");
+    }
+
+    private static void requireProjects() {
+        if (!ApiSnapshot.projectsLoaded()) throw new Unavailable("Projects are still loading");
+    }
+
+    private static void requireSubjects() {
+        if (!ApiSnapshot.subjectsLoaded()) throw new Unavailable("Subjects are still loading");
+    }
+
+    /* ---------- body parsing ---------- */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException {
+        byte[] raw;
+        try (InputStream in = ex.getRequestBody()) {
+            raw = in.readNBytes(MAX_BODY + 1);
+        }
+        if (raw.length > MAX_BODY) throw new HttpError(413, "Body too large");
+        try {
+            if (Json.parse(new String(raw, StandardCharsets.UTF_8)) instanceof Map<?, ?> map) {
+                return (Map<String, Object>) map;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, e.getMessage());
+        }
+        throw new HttpError(400, "Expected a JSON object");
+    }
+
+    private static String string(Map<String, Object> body, String key) {
+        if (body.get(key) instanceof String s) return s;
+        throw new HttpError(400, "\"" + key + "\" must be a string");
+    }
+
+    private static String requiredString(Map<String, Object> body, String key) {
+        String s = string(body, key).strip();
+        if (s.isEmpty()) throw new HttpError(400, "\"" + key + "\" must not be empty");
+        return s;
+    }
+
+    private static double number(Map<String, Object> body, String key) {
+        if (body.get(key) instanceof Double d) return d;
+        throw new HttpError(400, "\"" + key + "\" must be a number");
+    }
+
+    private static UUID uuid(String s) {
+        try {
+            return UUID.fromString(s);
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(404, "Not an id: " + s);
+        }
+    }
+
+    private static Date date(String s) {
+        try {
+            return Date.from(LocalDate.parse(s).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new HttpError(400, "Dates are yyyy-MM-dd");
+        }
+    }
+
+    private static byte[] error(String message) {
+        return utf8("{\"error\":" + Json.string(message) + "}");
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,322 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leveled logger that never blocks the caller. log() claims a slot in a fixed ring
+ * with one CAS, stores the template and arguments as-is, and returns; a single
+ * "log-appender" thread formats them and writes Group67/logs/app.log, rotating at
+ * MAX_FILE_BYTES and keeping MAX_BACKUPS old files.
+ *
+ * Messages use SLF4J-style "{}" placeholders, formatted on the appender thread. A
+ * trailing Throwable that no placeholder consumes is logged with its stack trace.
+ * Each logger is rate limited, so a tight error loop costs a counter increment
+ * instead of filling the disk; the number suppressed is logged once the window rolls over.
+ *
+ * Level and console echo: -Dgroup67.log.level=DEBUG, -Dgroup67.log.console=true
+ */
+final class Log {
+    enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int RING_SIZE = 1024;                  // power of two
+    private static final int MAX_PER_WINDOW = 50;               // per logger per window
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final long MAX_FILE_BYTES = 1 << 20;         // 1 MB
+    private static final int MAX_BACKUPS = 5;
+    private static final long IDLE_PARK_NANOS = 50_000_000L;
+    static final String LOG_DIR_NAME = "logs";
+    static final String LOG_FILE_NAME = "app.log";
+
+    private static final Level THRESHOLD = parseLevel(System.getProperty("group67.log.level"));
+    private static final boolean CONSOLE = Boolean.getBoolean("group67.log.console");
+
+    private static final Map<String, Log> loggers = new ConcurrentHashMap<>();
+
+    // Multi-producer, single-consumer ring: head is claimed by producers, tail is owned by the appender
+    private static final Slot[] ring = new Slot[RING_SIZE];
+    private static final AtomicLong head = new AtomicLong();
+    private static volatile long tail = 0;
+
+    private static final LongAdder DROPPED = Metrics.counter("log.dropped");
+    private static final LongAdder SUPPRESSED = Metrics.counter("log.suppressed");
+    private static final LongAdder WRITTEN = Metrics.counter("log.written");
+
+    private static final Thread appender;
+    private static volatile boolean shuttingDown = false;
+    private static long droppedReported = 0;
+
+    static {
+        for (int i = 0; i < RING_SIZE; i++) ring[i] = new Slot(i - RING_SIZE);
+        appender = new Thread(Log::drainLoop, "log-appender");
+        appender.setDaemon(true);
+        appender.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::shutdown, "log-flush"));
+    }
+
+    private final String name;
+    // Rate limit window, updated without locks
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicInteger windowSuppressed = new AtomicInteger();
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    /** One logger per name; keep it in a static final field. */
+    static Log get(String name) {
+        return loggers.computeIfAbsent(name, Log::new);
+    }
+
+    static Log get(Class<?> type) {
+        return get(type.getSimpleName());
+    }
+
+    boolean isEnabled(Level level) {
+        return level.compareTo(THRESHOLD) >= 0;
+    }
+
+    void debug(String msg)                     { log(Level.DEBUG, msg, null, null, 0); }
+    void debug(String msg, Object a)           { log(Level.DEBUG, msg, a, null, 1); }
+    void debug(String msg, Object a, Object b) { log(Level.DEBUG, msg, a, b, 2); }
+    void info(String msg)                      { log(Level.INFO, msg, null, null, 0); }
+    void info(String msg, Object a)            { log(Level.INFO, msg, a, null, 1); }
+    void info(String msg, Object a, Object b)  { log(Level.INFO, msg, a, b, 2); }
+    void warn(String msg)                      { log(Level.WARN, msg, null, null, 0); }
+    void warn(String msg, Object a)            { log(Level.WARN, msg, a, null, 1); }
+    void warn(String msg, Object a, Object b)  { log(Level.WARN, msg, a, b, 2); }
+    void error(String msg)                     { log(Level.ERROR, msg, null, null, 0); }
+    void error(String msg, Object a)           { log(Level.ERROR, msg, a, null, 1); }
+    void error(String msg, Object a, Object b) { log(Level.ERROR, msg, a, b, 2); }
+
+    /* ---------- producer side (any thread, no locks, no allocation) ---------- */
+    private void log(Level level, String template, Object a, Object b, int argCount) {
+        if (!isEnabled(level)) return;
+        if (!acquirePermit()) return;
+        if (shuttingDown) {
+            // Appender is gone; late messages go straight to stderr
+            System.err.print(format(System.currentTimeMillis(), level, Thread.currentThread().getName(),
+                    name, template, a, b, argCount));
+            return;
+        }
+        publish(System.currentTimeMillis(), level, Thread.currentThread().getName(), template, a, b, argCount);
+        if (level == Level.ERROR) LockSupport.unpark(appender);
+    }
+
+    private void publish(long time, Level level, String thread, String template, Object a, Object b, int argCount) {
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail >= RING_SIZE) {          // full: drop rather than block the caller
+                DROPPED.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+
+        Slot s = ring[(int) (seq & (RING_SIZE - 1))];
+        s.time = time;
+        s.level = level;
+        s.thread = thread;
+        s.logger = name;
+        s.template = template;
+        s.a = a;
+        s.b = b;
+        s.argCount = argCount;
+        s.sequence = seq;                           // volatile write publishes the fields above
+    }
+
+    // Allows MAX_PER_WINDOW messages per logger per second
+    private boolean acquirePermit() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+            int suppressed = windowSuppressed.getAndSet(0);
+            if (suppressed > 0) {
+                publish(System.currentTimeMillis(), Level.WARN, Thread.currentThread().getName(),
+                        "suppressed {} messages (rate limit)", suppressed, null, 1);
+            }
+        }
+        if (windowCount.incrementAndGet() <= MAX_PER_WINDOW) return true;
+        windowSuppressed.incrementAndGet();
+        SUPPRESSED.increment();
+        return false;
+    }
+
+    /* ---------- appender thread ---------- */
+    private static Writer out;
+    private static File file;
+    private static long fileBytes;
+
+    private static void drainLoop() {
+        while (true) {
+            if (!drainBatch()) {
+                if (shuttingDown) return;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Writes everything published so far; false if there was nothing to do
+    private static synchronized boolean drainBatch() {
+        long t = tail;
+        boolean any = false;
+        while (true) {
+            Slot s = ring[(int) (t & (RING_SIZE - 1))];
+            if (s.sequence != t) break;             // not published yet
+            String line = format(s.time, s.level, s.thread, s.logger, s.template, s.a, s.b, s.argCount);
+            s.thread = null; s.template = null; s.a = null; s.b = null;
+            tail = ++t;                             // slot may be reused from here on
+            write(line);
+            any = true;
+        }
+        long dropped = DROPPED.sum();
+        if (dropped > droppedReported) {
+            write(format(System.currentTimeMillis(), Level.WARN, "log-appender", "Log",
+                    "ring full, dropped {} messages", dropped - droppedReported, null, 1));
+            any = true;
+        }
+        droppedReported = dropped; // also follows Metrics.reset()
+        if (any) flush();
+        return any;
+    }
+
+    private static void write(String line) {
+        if (CONSOLE) System.err.print(line);
+        try {
+            if (out == null || fileBytes >= MAX_FILE_BYTES) open();
+            out.write(line);
+            fileBytes += line.length(); // chars, close enough for rotation
+            WRITTEN.increment();
+        } catch (IOException e) {
+            // Disk trouble must not kill the appender; fall back to the console
+            if (!CONSOLE) System.err.print(line);
+            closeQuietly();
+        }
+    }
+
+    private static void flush() {
+        try {
+            if (out != null) out.flush();
+        } catch (IOException e) {
+            closeQuietly();
+        }
+    }
+
+    private static void open() throws IOException {
+        closeQuietly();
+        if (file == null) {
+            File dir = new File(AppConfig.getProjectDirectory(), LOG_DIR_NAME);
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+            file = new File(dir, LOG_FILE_NAME);
+        }
+        if (file.length() >= MAX_FILE_BYTES) rotate();
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+        fileBytes = file.length();
+    }
+
+    // app.log -> app.log.1 -> ... -> app.log.MAX_BACKUPS (oldest deleted)
+    private static void rotate() {
+        File dir = file.getParentFile();
+        new File(dir, LOG_FILE_NAME + "." + MAX_BACKUPS).delete();
+        for (int i = MAX_BACKUPS - 1; i >= 1; i--) {
+            File from = new File(dir, LOG_FILE_NAME + "." + i);
+            if (from.exists()) from.renameTo(new File(dir, LOG_FILE_NAME + "." + (i + 1)));
+        }
+        file.renameTo(new File(dir, LOG_FILE_NAME + ".1"));
+    }
+
+    private static void closeQuietly() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // nothing left to report to
+        }
+        out = null;
+    }
+
+    private static void shutdown() {
+        shuttingDown = true;
+        drainBatch();
+        synchronized (Log.class) {
+            closeQuietly();
+        }
+    }
+
+    /** Blocks until everything logged so far is on disk. For tools and tests. */
+    static void flushNow() {
+        drainBatch();
+    }
+
+    /* ---------- formatting (appender thread) ---------- */
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    static String format(long time, Level level, String thread, String logger,
+                         String template, Object a, Object b, int argCount) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(TIMESTAMP.format(Instant.ofEpochMilli(time))).append(' ');
+        sb.append(level);
+        if (level.name().length() == 4) sb.append(' ');
+        sb.append(" [").append(thread).append("] ").append(logger).append(" - ");
+
+        Object[] args = {a, b};
+        int used = 0;
+        int from = 0;
+        String t = template == null ? "null" : template;
+        int at;
+        while (used < argCount && (at = t.indexOf("{}", from)) >= 0) {
+            sb.append(t, from, at).append(args[used++]);
+            from = at + 2;
+        }
+        sb.append(t, from, t.length()).append(System.lineSeparator());
+
+        // An unconsumed trailing Throwable is the exception to report
+        if (used < argCount && args[argCount - 1] instanceof Throwable thrown) {
+            StringWriter trace = new StringWriter();
+            thrown.printStackTrace(new PrintWriter(trace));
+            sb.append(trace);
+        }
+        return sb.toString();
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) return Level.INFO;
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    private static final class Slot {
+        volatile long sequence;
+        long time;
+        Level level;
+        String thread;
+        String logger;
+        String template;
+        Object a, b;
+        int argCount;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -1,31 +1,37 @@
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
-class MainFrame extends JFrame {
-    private final ProjectListPanel projectListPanel;
-    private final ProjectTodoPanel projectTodoPanel;
-    private final PomodoroPanel pomodoroPanel;
-    private final GWACalculator gwaCalculator;
+class MainFrame extends JFrame implements LocalApiServer.Backend {
+    private ProjectListPanel projectListPanel;
+    private ProjectTodoPanel projectTodoPanel;
+    private PomodoroPanel pomodoroPanel;
+    private GWACalculator gwaCalculator;
+
+    // Saved Pomodoro settings, kept so the scheduler works before the Pomodoro tab is built
+    private volatile PomodoroPanel.Settings pomodoroSettings;
+
+    private final JTabbedPane tabs = new JTabbedPane();
+    private final LazyTab<List<Project>> projectsTab = new LazyTab<>("Projects", this::buildProjectsTab);
+    private final LazyTab<PomodoroPanel.Settings> pomodoroTab = new LazyTab<>("Pomodoro", this::buildPomodoroTab);
+    private final LazyTab<DefaultListModel<Subject>> gwaTab = new LazyTab<>("CIT GWA Calculator", this::buildGwaTab);
+    private boolean firstPaint = true;
 
     MainFrame() {
         super("College Productivity App");
 
-        Image icon = new ImageIcon("App/assets/Logo.png").getImage();
-        setIconImage(icon);
+        // Window icon arrives from the asset loader; the OS picks the best size
+        Assets.imageSizes("Logo.png", 16, 24, 32, 48, 64, 128)
+                .thenAccept(icons -> SwingUtilities.invokeLater(() -> setIconImages(icons)));
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setExtendedState(Frame.MAXIMIZED_BOTH);
         setMinimumSize(new Dimension(1200, 360));
         setLayout(new BorderLayout());
 
-        projectTodoPanel = new ProjectTodoPanel();
-        // Left: Projects list (shared)
-        projectListPanel = new ProjectListPanel(this);
-//        projectListPanel.loadProjects();    // load projects
-        gwaCalculator = new GWACalculator();
-        // Center: card panel switching between "Projects" view and others
-        JTabbedPane tabs = new JTabbedPane();
-
         //Test Samples------------------------------
 //        Project sample = new Project("Test");
 //        sample.tasks.add(new Task("Buy groceries", 1, ProjectTodoPanel.DATE_FMT.parseQuiet("01/30/2026")));
@@ -36,24 +42,154 @@ class MainFrame extends JFrame {
 
 //        //------------------------------------------
 
-        pomodoroPanel = new PomodoroPanel();
-// add tabs
-        tabs.addTab("Projects", wrapPanels(projectListPanel, projectTodoPanel));
-        tabs.addTab("Pomodoro", pomodoroPanel);
-        tabs.addTab("CIT GWA Calculator", gwaCalculator);
+// add tabs (placeholders until their data arrives)
+        tabs.addTab("Projects", projectsTab);
+        tabs.addTab("Pomodoro", pomodoroTab);
+        tabs.addTab("CIT GWA Calculator", gwaTab);
+        tabs.addChangeListener(e -> {
+            if (tabs.getSelectedComponent() instanceof LazyTab<?> tab) tab.viewed();
+        });
 
         add(tabs, BorderLayout.CENTER);
+        setJMenuBar(createMenuBar());
+
+        // Model changes fan out from the ModelBus; these two follow every change
+        new ProjectFileHandler().saveOnChange();
+        ApiSnapshot.install();
+
+        setLocationRelativeTo(null);
+        StartupTimer.time("show frame", () -> setVisible(true));
+        projectsTab.viewed();
+
+        // Each tab's data is read in parallel on the I/O executor
+        CompletableFuture<Void> projects = load("load projects",
+                () -> new ProjectFileHandler().loadAllProjects(), projectsTab);
+        CompletableFuture<Void> pomodoro = load("load pomodoro.dat", () -> {
+            pomodoroSettings = PomodoroPanel.readSettings();
+            return pomodoroSettings;
+        }, pomodoroTab);
+        CompletableFuture<Void> subjects = load("load subjects.dat", () -> {
+            DefaultListModel<Subject> model = GWACalculator.loadInitialModel();
+            // Readable through the local API before the GWA tab is first opened
+            if (model != null) ApiSnapshot.publishSubjects(model);
+            return model;
+        }, gwaTab);
+
+        // Interactive once everything is loaded and the visible tab is built
+        CompletableFuture.allOf(projects, pomodoro, subjects).thenRun(() -> SwingUtilities.invokeLater(() -> {
+            StartupTimer.mark("interactive");
+            StartupTimer.report();
+        }));
+
+        // Binding a socket and reading the token file stay off the EDT
+        AsyncIO.submit(() -> LocalApiServer.start(this));
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (firstPaint) {
+            firstPaint = false;
+            StartupTimer.mark("first paint");
+        }
+    }
+
+    private JMenuBar createMenuBar() {
+        JMenuBar bar = new JMenuBar();
+        JMenu help = new JMenu("Help");
+        JMenuItem diagnostics = new JMenuItem("Diagnostics…");
+        diagnostics.setAccelerator(KeyStroke.getKeyStroke("ctrl shift D"));
+        diagnostics.addActionListener(e -> new DiagnosticsDialog(this).setVisible(true));
+        help.add(diagnostics);
+        bar.add(help);
+        return bar;
+    }
+
+    /* ---------- Local API writes (EDT) ---------- */
+    // Same panel methods as the buttons, so the window updates and saves as usual.
+    // A tab whose data has arrived is built on demand, even while hidden.
+    @Override
+    public Project createProject(String name) {
+        return projects().createProject(name);
+    }
+
+    @Override
+    public Project project(UUID id) {
+        return projects().findById(id);
+    }
+
+    @Override
+    public void addTask(Project project, Task parent, Task task) {
+        projects();
+        projectTodoPanel.addTask(project, parent, task);
+    }
+
+    @Override
+    public void setCompleted(Project project, Task task, boolean completed) {
+        projects();
+        projectTodoPanel.setCompleted(project, task, completed);
+    }
+
+    @Override
+    public void removeTask(Project project, Task task) {
+        projects();
+        projectTodoPanel.removeTask(project, task);
+    }
+
+    @Override
+    public void addSubject(Subject subject) {
+        if (!gwaTab.ensureBuilt()) throw new LocalApiServer.Unavailable("Subjects are still loading");
+        gwaCalculator.addSubject(subject);
+    }
+
+    private ProjectListPanel projects() {
+        if (!projectsTab.ensureBuilt()) throw new LocalApiServer.Unavailable("Projects are still loading");
+        return projectListPanel;
+    }
+
+    /* ---------- Tab builders (EDT) ---------- */
+    private JComponent buildProjectsTab(List<Project> loadedProjects) {
+        projectTodoPanel = new ProjectTodoPanel();
+        projectTodoPanel.setCapacitySource(this::schedulerCapacity);
+        // Left: Projects list (shared)
+        projectListPanel = new ProjectListPanel(loadedProjects);
 
         // Automatically select first project if it exists
         projectListPanel.selectFirstProject();
+        return wrapPanels(projectListPanel, projectTodoPanel);
+    }
 
-        setLocationRelativeTo(null);
-        setVisible(true);
+    private JComponent buildPomodoroTab(PomodoroPanel.Settings settings) {
+        pomodoroPanel = new PomodoroPanel(settings);
+        // Work periods are credited to a task from the Projects tab, built on demand like the API does
+        pomodoroPanel.setTaskTracker(new PomodoroPanel.TaskTracker() {
+            @Override
+            public List<Project> projects() {
+                return projectsTab.ensureBuilt() ? projectListPanel.projects() : List.of();
+            }
+
+            @Override
+            public void workCompleted(Project project, Task task, long millis) {
+                if (projectsTab.ensureBuilt()) projectTodoPanel.addTrackedTime(project, task, millis);
+            }
+        });
+        return pomodoroPanel;
+    }
+
+    private JComponent buildGwaTab(DefaultListModel<Subject> model) {
+        gwaCalculator = new GWACalculator(model);
+        return gwaCalculator;
+    }
+
+    // Live settings if the Pomodoro tab exists, otherwise the saved ones
+    private TaskScheduler.Capacity schedulerCapacity(int focusMinutesPerDay) {
+        if (pomodoroPanel != null) return pomodoroPanel.getSchedulerCapacity(focusMinutesPerDay);
+        return PomodoroPanel.capacityOf(pomodoroSettings, focusMinutesPerDay);
     }
 
-    // Pass selected project to todo panel
-    public void loadProject(Project p) {
-        projectTodoPanel.loadProject(p);
+    private static <T> CompletableFuture<Void> load(String phase, Supplier<T> work, LazyTab<T> tab) {
+        CompletableFuture<T> data = AsyncIO.submit(() -> StartupTimer.time(phase, work));
+        return AsyncIO.onEdt(data, tab::dataArrived, "Could not " + phase);
     }
 
     // Utility: combine left and right panels for Projects tab
@@ -0,0 +1,116 @@
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide metrics: lock-free counters, latency histograms and gauges,
+ * looked up by name. Hot paths keep the returned instance in a static field
+ * so recording never touches the map.
+ */
+final class Metrics {
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private static boolean jmxRegistered = false;
+
+    private Metrics() {}
+
+    static {
+        Runtime rt = Runtime.getRuntime();
+        gauge("heap.usedBytes", () -> rt.totalMemory() - rt.freeMemory());
+        gauge("heap.maxBytes", rt::maxMemory);
+    }
+
+    static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /** Registers (or replaces) a value read on demand, e.g. a collection size. */
+    static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /** Exposes the registry as an MXBean; safe to call more than once. */
+    static synchronized void registerJmx() {
+        if (jmxRegistered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new Bean(), new ObjectName("com.group67:type=Metrics"));
+            jmxRegistered = true;
+        } catch (Exception e) {
+            Log.get(Metrics.class).warn("Could not register metrics MBean", e);
+        }
+    }
+
+    /* ---------- snapshots (sorted by name) ---------- */
+    static Map<String, Long> counterValues() {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    static Map<String, Long> gaugeValues() {
+        Map<String, Long> out = new TreeMap<>();
+        gauges.forEach((k, v) -> {
+            try {
+                out.put(k, v.getAsLong());
+            } catch (RuntimeException ignored) {
+                // a gauge reading UI state can race with the EDT; skip it this time
+            }
+        });
+        return out;
+    }
+
+    static Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    static void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override public Map<String, Long> getCounters() { return counterValues(); }
+        @Override public Map<String, Long> getGauges() { return gaugeValues(); }
+
+        @Override
+        public Map<String, Long> getLatencyCounts() {
+            Map<String, Long> out = new TreeMap<>();
+            histograms.forEach((k, h) -> out.put(k, h.count()));
+            return out;
+        }
+
+        @Override
+        public Map<String, Double> getLatencyP50Millis() {
+            Map<String, Double> out = new TreeMap<>();
+            histograms.forEach((k, h) -> out.put(k, h.percentileMillis(50)));
+            return out;
+        }
+
+        @Override
+        public Map<String, Double> getLatencyP99Millis() {
+            Map<String, Double> out = new TreeMap<>();
+            histograms.forEach((k, h) -> out.put(k, h.percentileMillis(99)));
+            return out;
+        }
+
+        @Override
+        public Map<String, Double> getLatencyMaxMillis() {
+            Map<String, Double> out = new TreeMap<>();
+            histograms.forEach((k, h) -> out.put(k, h.maxMillis()));
+            return out;
+        }
+
+        @Override public void reset() { Metrics.reset(); }
+    }
+}
@@ -0,0 +1,18 @@
+import java.util.Map;
+
+/** JMX view of the in-app metrics registry (com.group67:type=Metrics). */
+public interface MetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getGauges();
+
+    Map<String, Long> getLatencyCounts();
+
+    Map<String, Double> getLatencyP50Millis();
+
+    Map<String, Double> getLatencyP99Millis();
+
+    Map<String, Double> getLatencyMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,75 @@
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Typed, coalescing bus for ModelEvents. Publishing only queues the event; the first one
+ * in a frame schedules a single delivery at the end of the current EDT event, where each
+ * subscriber gets every queued event of its type as one batch, duplicates removed and in
+ * publish order; a repeated event counts at its latest position. A burst of changes therefore costs one save, one refresh and one index
+ * update per subscriber instead of one per change.
+ *
+ * EDT only. Events published by a subscriber during delivery go into the next batch.
+ */
+final class ModelBus {
+    private static final Log LOG = Log.get(ModelBus.class);
+    private static final LongAdder PUBLISHED = Metrics.counter("bus.events");
+    private static final LongAdder BATCHES = Metrics.counter("bus.batches");
+
+    private record Subscriber<E extends ModelEvent>(Class<E> type, Consumer<List<E>> listener) {
+        void deliver(List<ModelEvent> batch) {
+            List<E> matching = new ArrayList<>();
+            for (ModelEvent e : batch) {
+                if (type.isInstance(e)) matching.add(type.cast(e));
+            }
+            if (!matching.isEmpty()) listener.accept(matching);
+        }
+    }
+
+    private static final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+    private static LinkedHashSet<ModelEvent> pending = new LinkedHashSet<>();
+    private static boolean flushScheduled = false;
+
+    private ModelBus() {}
+
+    /** Subscribers are called in the order they subscribed; ModelEvent.class receives everything. */
+    static <E extends ModelEvent> void subscribe(Class<E> type, Consumer<List<E>> listener) {
+        subscribers.add(new Subscriber<>(type, listener));
+    }
+
+    static void publish(ModelEvent event) {
+        PUBLISHED.increment();
+        pending.remove(event); // a repeat moves to the end, so select A, B, A ends on A
+        pending.add(event);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(ModelBus::flush);
+        }
+    }
+
+    /** Delivers what is queued now, for callers that must see the effects before returning. */
+    static void flush() {
+        flushScheduled = false;
+        if (pending.isEmpty()) return;
+        List<ModelEvent> batch = new ArrayList<>(pending);
+        pending = new LinkedHashSet<>();
+        BATCHES.increment();
+        for (Subscriber<?> s : subscribers) {
+            try {
+                s.deliver(batch);
+            } catch (RuntimeException e) {
+                // One broken view must not keep the others (or the save) from running
+                LOG.error("Model event subscriber failed", e);
+            }
+        }
+    }
+
+    /** The last event of a batch, e.g. the final selection after several clicks. */
+    static <E> E last(List<E> batch) {
+        return batch.get(batch.size() - 1);
+    }
+}
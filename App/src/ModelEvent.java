@@ -0,0 +1,28 @@
+import javax.swing.ListModel;
+
+/**
+ * Changes to the app's data, published on the EDT through ModelBus. Events name what
+ * changed, not what to do about it; saving, redrawing and indexing are left to subscribers.
+ */
+sealed interface ModelEvent {
+    enum Change { ADDED, UPDATED, REMOVED }
+
+    record ProjectAdded(Project project) implements ModelEvent {}
+
+    record ProjectRenamed(Project project) implements ModelEvent {}
+
+    record ProjectRemoved(Project project) implements ModelEvent {}
+
+    /** The user picked a project in the list (null clears); only the last one of a batch matters. */
+    record ProjectSelected(Project project) implements ModelEvent {}
+
+    /**
+     * A task was added, edited, completed or removed. For changes inside a subtree the
+     * event carries the top-level task, which is what views and the scheduler track.
+     */
+    record TaskChanged(Project project, Task task, Change change) implements ModelEvent {}
+
+    record SubjectsChanged(ListModel<Subject> subjects) implements ModelEvent {}
+
+    record PomodoroChanged(String state, int remainingSeconds, int cyclesCompleted) implements ModelEvent {}
+}
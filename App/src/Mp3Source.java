@@ -0,0 +1,122 @@
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.DecoderException;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Decodes an MP3 frame by frame with JLayer into the BGM output format: mono is doubled to
+ * stereo and other sample rates are linearly resampled to BGM_Pomodoro.RATE.
+ */
+final class Mp3Source implements PcmSource {
+    private final String path;
+    private final Decoder decoder = new Decoder();
+    private Bitstream bitstream;
+
+    // Current decoded frame, already converted
+    private short[] frame = new short[4608];
+    private int framePos, frameLen;
+
+    // Resampler state: position in source frames, and the last source frame of the previous block
+    private double resamplePos;
+    private short prevLeft, prevRight;
+
+    Mp3Source(String path) throws IOException {
+        this.path = path;
+        open();
+    }
+
+    @Override
+    public int read(short[] buf, int off, int len) throws IOException {
+        len &= ~1;
+        int done = 0;
+        while (done < len) {
+            if (framePos == frameLen && !decodeFrame()) return done == 0 ? -1 : done;
+            int n = Math.min(len - done, frameLen - framePos);
+            System.arraycopy(frame, framePos, buf, off + done, n);
+            framePos += n;
+            done += n;
+        }
+        return done;
+    }
+
+    @Override
+    public void rewind() throws IOException {
+        close();
+        open();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (bitstream != null) bitstream.close();
+        } catch (BitstreamException e) {
+            throw new IOException("Cannot close " + path, e);
+        }
+        bitstream = null;
+    }
+
+    private void open() throws IOException {
+        bitstream = new Bitstream(new BufferedInputStream(new FileInputStream(path), 1 << 16));
+        framePos = frameLen = 0;
+        resamplePos = 0;
+        prevLeft = prevRight = 0;
+    }
+
+    private boolean decodeFrame() throws IOException {
+        try {
+            Header header = bitstream.readFrame();
+            if (header == null) return false;
+            SampleBuffer out = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+            bitstream.closeFrame();
+            convert(out.getBuffer(), out.getBufferLength(), out.getChannelCount(), out.getSampleFrequency());
+            return true;
+        } catch (BitstreamException | DecoderException | ArrayIndexOutOfBoundsException e) {
+            // JLayer runs off its frame buffer on damaged frames instead of reporting them
+            throw new IOException("Cannot decode " + path, e);
+        }
+    }
+
+    // Interleaved source samples -> stereo at the output rate, into frame[0..frameLen)
+    private void convert(short[] src, int samples, int channels, int rate) {
+        int frames = samples / channels;
+        framePos = frameLen = 0;
+        if (frames == 0) return;
+        if (rate == BGM_Pomodoro.RATE) {
+            ensure(frames * 2);
+            for (int i = 0; i < frames; i++) {
+                frame[2 * i] = src[i * channels];
+                frame[2 * i + 1] = src[i * channels + channels - 1];
+            }
+            frameLen = frames * 2;
+        } else {
+            double step = rate / (double) BGM_Pomodoro.RATE;
+            ensure((int) (frames / step + 2) * 2);
+            int n = 0;
+            // resamplePos runs from -1 (the previous block's last frame) to frames - 1
+            while (resamplePos < frames - 1) {
+                int i = (int) Math.floor(resamplePos);
+                double t = resamplePos - i;
+                short l0 = i < 0 ? prevLeft : src[i * channels];
+                short r0 = i < 0 ? prevRight : src[i * channels + channels - 1];
+                short l1 = src[(i + 1) * channels], r1 = src[(i + 1) * channels + channels - 1];
+                frame[n++] = (short) Math.round(l0 + (l1 - l0) * t);
+                frame[n++] = (short) Math.round(r0 + (r1 - r0) * t);
+                resamplePos += step;
+            }
+            resamplePos -= frames;
+            prevLeft = src[(frames - 1) * channels];
+            prevRight = src[(frames - 1) * channels + channels - 1];
+            frameLen = n;
+        }
+    }
+
+    private void ensure(int size) {
+        if (frame.length < size) frame = new short[size];
+    }
+}
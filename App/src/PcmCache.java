@@ -0,0 +1,297 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decoded BGM tracks, so looping and switching between known songs cost no MP3 decoding.
+ *
+ * Every decoded track is written once to Group67/bgm-cache as raw little-endian PCM, named
+ * after a hash of the MP3's bytes and its mtime, so an edited file is decoded again. The
+ * most recently used tracks are also kept on the heap up to a budget (-Dgroup67.bgm.cacheMB,
+ * default 64); older ones are played straight from the memory-mapped cache file instead.
+ *
+ * A track that is not cached yet plays from the MP3 while a background decode fills the
+ * cache, and switches over at its next loop.
+ */
+final class PcmCache {
+    private static final Log LOG = Log.get(PcmCache.class);
+
+    static final String BUDGET_PROPERTY = "group67.bgm.cacheMB";
+    private static final long DEFAULT_BUDGET_MB = 64;
+    private static final long DISK_LIMIT = 512L << 20;
+    private static final String DIR_NAME = "bgm-cache";
+
+    private static final LongAdder HITS = Metrics.counter("bgm.cacheHits");
+    private static final LongAdder MAPPED = Metrics.counter("bgm.cacheMapped");
+    private static final LongAdder MISSES = Metrics.counter("bgm.cacheMisses");
+    private static final LongAdder EVICTIONS = Metrics.counter("bgm.cacheEvictions");
+    private static final LatencyHistogram DECODE = Metrics.histogram("bgm.decode");
+
+    // Decodes take seconds of CPU; they get their own thread so saves never queue behind them
+    private static final ExecutorService DECODER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "bgm-cache-decoder");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final File dir;
+    private final long budgetBytes;
+
+    // Guarded by this
+    private final LinkedHashMap<String, short[]> heap = new LinkedHashMap<>(16, 0.75f, true);
+    private long heapBytes;
+    private final Map<String, String> keys = new HashMap<>(); // path|length|mtime -> cache file name
+    private final Set<String> loading = new HashSet<>();
+
+    PcmCache() {
+        this(new File(AppConfig.getProjectDirectory(), DIR_NAME), budgetFromProperty());
+    }
+
+    PcmCache(File dir, long budgetBytes) {
+        this.dir = dir;
+        this.budgetBytes = budgetBytes;
+    }
+
+    private static long budgetFromProperty() {
+        String setting = System.getProperty(BUDGET_PROPERTY);
+        try {
+            if (setting != null) return Math.max(0, Long.parseLong(setting.trim())) << 20;
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring {}={}", BUDGET_PROPERTY, setting);
+        }
+        return DEFAULT_BUDGET_MB << 20;
+    }
+
+    /** The track from the cache, or from the MP3 while it is being cached. */
+    PcmSource open(String path) throws IOException {
+        String name = keyFor(new File(path));
+        ShortBuffer cached = cached(name);
+        if (cached != null) return new Cached(cached);
+        MISSES.increment();
+        prefetch(path);
+        return new Decoding(name, new Mp3Source(path));
+    }
+
+    /** Decodes the track into the cache in the background, unless it is there already. */
+    void prefetch(String path) {
+        if (path == null || path.isEmpty()) return;
+        synchronized (this) {
+            if (!loading.add(path)) return;
+        }
+        DECODER.execute(() -> {
+            try {
+                load(path);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Cannot cache {}", path, e);
+            } finally {
+                synchronized (this) {
+                    loading.remove(path);
+                }
+            }
+        });
+    }
+
+    // Makes sure the cache file exists and, if it fits the budget, that the track is on the heap
+    private void load(String path) throws IOException {
+        String name = keyFor(new File(path));
+        synchronized (this) {
+            if (heap.containsKey(name)) return;
+        }
+        File file = new File(dir, name);
+        if (!file.isFile()) decodeTo(path, file);
+        if (file.length() > budgetBytes) return; // too big for the heap; played mapped
+
+        ShortBuffer mapped = map(file);
+        short[] pcm = new short[mapped.remaining()];
+        mapped.get(pcm);
+        remember(name, pcm);
+    }
+
+    // Streams the whole track into the cache file; a .part file until it is complete
+    private void decodeTo(String path, File file) throws IOException {
+        long t0 = System.nanoTime();
+        Files.createDirectories(dir.toPath());
+        File part = new File(dir, file.getName() + ".part");
+        short[] block = new short[1 << 14];
+        ByteBuffer bytes = ByteBuffer.allocate(block.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        try (Mp3Source source = new Mp3Source(path);
+             FileChannel out = FileChannel.open(part.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int n;
+            while ((n = source.read(block, 0, block.length)) > 0) {
+                bytes.clear();
+                bytes.asShortBuffer().put(block, 0, n);
+                bytes.limit(n * 2);
+                while (bytes.hasRemaining()) out.write(bytes);
+            }
+        } catch (IOException e) {
+            part.delete();
+            throw e;
+        }
+        Files.move(part.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        DECODE.recordSince(t0);
+        LOG.info("Cached {} ({} KB)", path, file.length() >> 10);
+        pruneDisk(file);
+    }
+
+    /* ---------- lookup ---------- */
+    private ShortBuffer cached(String name) throws IOException {
+        synchronized (this) {
+            short[] pcm = heap.get(name);
+            if (pcm != null) {
+                HITS.increment();
+                return ShortBuffer.wrap(pcm);
+            }
+        }
+        File file = new File(dir, name);
+        if (!file.isFile()) return null;
+        MAPPED.increment();
+        file.setLastModified(System.currentTimeMillis()); // recently used, for pruneDisk
+        return map(file);
+    }
+
+    private static ShortBuffer map(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size() / 2 * 2);
+            return mapped.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer(); // stays valid after close
+        }
+    }
+
+    private synchronized void remember(String name, short[] pcm) {
+        if (heap.put(name, pcm) == null) heapBytes += pcm.length * 2L;
+        var it = heap.entrySet().iterator();
+        while (heapBytes > budgetBytes && it.hasNext()) {
+            var eldest = it.next();
+            if (eldest.getKey().equals(name)) continue;
+            heapBytes -= eldest.getValue().length * 2L;
+            it.remove(); // still on disk
+            EVICTIONS.increment();
+        }
+    }
+
+    // Cache file name for the MP3 as it is now: content hash plus mtime
+    private String keyFor(File mp3) throws IOException {
+        long length = mp3.length(), mtime = mp3.lastModified();
+        if (mtime == 0) throw new IOException("Cannot read " + mp3);
+        String id = mp3.getAbsolutePath() + "|" + length + "|" + mtime;
+        synchronized (this) {
+            String name = keys.get(id);
+            if (name != null) return name;
+        }
+        String name = hash(mp3) + "-" + mtime + ".pcm";
+        synchronized (this) {
+            keys.put(id, name);
+        }
+        return name;
+    }
+
+    private static String hash(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[1 << 16];
+            int n;
+            while ((n = in.read(buf)) > 0) sha.update(buf, 0, n);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : Arrays.copyOf(sha.digest(), 12)) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE has SHA-256
+        }
+    }
+
+    // Least recently used cache files go first once the folder is over DISK_LIMIT
+    private void pruneDisk(File keep) {
+        File[] files = dir.listFiles((d, n) -> n.endsWith(".pcm"));
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long total = 0;
+        for (File f : files) total += f.length();
+        for (File f : files) {
+            if (total <= DISK_LIMIT) break;
+            if (f.equals(keep)) continue;
+            long size = f.length();
+            if (f.delete()) total -= size; // a file still mapped may refuse on Windows
+        }
+    }
+
+    /* ---------- sources ---------- */
+    /** Plays decoded samples; on the heap or memory-mapped. */
+    private static final class Cached implements PcmSource {
+        private final ShortBuffer pcm;
+
+        Cached(ShortBuffer pcm) {
+            this.pcm = pcm.duplicate();
+        }
+
+        @Override
+        public int read(short[] buf, int off, int len) {
+            int n = Math.min(len & ~1, pcm.remaining());
+            if (n == 0) return pcm.hasRemaining() ? 0 : -1;
+            pcm.get(buf, off, n);
+            return n;
+        }
+
+        @Override
+        public void rewind() {
+            pcm.rewind();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** Plays from the MP3 and moves to the cached copy at the first loop after it is ready. */
+    private final class Decoding implements PcmSource {
+        private final String name;
+        private PcmSource source;
+
+        Decoding(String name, Mp3Source source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        @Override
+        public int read(short[] buf, int off, int len) throws IOException {
+            return source.read(buf, off, len);
+        }
+
+        @Override
+        public void rewind() throws IOException {
+            if (source instanceof Mp3Source) {
+                ShortBuffer cached = cached(name);
+                if (cached != null) {
+                    source.close();
+                    source = new Cached(cached);
+                    return;
+                }
+            }
+            source.rewind();
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
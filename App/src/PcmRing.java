@@ -0,0 +1,50 @@
+/**
+ * Single-producer, single-consumer ring of 16-bit samples between the BGM decoder thread and
+ * the audio output thread. Lock-free: each side only advances its own position, and the
+ * positions are volatile, so the reader always sees the samples a position covers.
+ */
+final class PcmRing {
+    private final short[] buf;
+    private final int mask;
+    private volatile long written; // advanced only by the producer
+    private volatile long read;    // advanced only by the consumer
+
+    /** capacity is rounded up to a power of two. */
+    PcmRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        buf = new short[size];
+        mask = size - 1;
+    }
+
+    int capacity() { return buf.length; }
+
+    int available() { return (int) (written - read); }
+
+    /* ---------- producer ---------- */
+    /** Copies in as many samples as fit; returns how many. */
+    int offer(short[] src, int off, int len) {
+        long w = written;
+        int n = Math.min(len, buf.length - (int) (w - read));
+        if (n <= 0) return 0;
+        int at = (int) (w & mask);
+        int first = Math.min(n, buf.length - at);
+        System.arraycopy(src, off, buf, at, first);
+        System.arraycopy(src, off + first, buf, 0, n - first);
+        written = w + n; // publishes the samples
+        return n;
+    }
+
+    /* ---------- consumer ---------- */
+    /** Copies out up to len samples; returns how many, 0 when empty. */
+    int poll(short[] dst, int off, int len) {
+        long r = read;
+        int n = Math.min(len, (int) (written - r));
+        if (n <= 0) return 0;
+        int at = (int) (r & mask);
+        int first = Math.min(n, buf.length - at);
+        System.arraycopy(buf, at, dst, off, first);
+        System.arraycopy(buf, 0, dst, off + first, n - first);
+        read = r + n; // hands the space back
+        return n;
+    }
+}
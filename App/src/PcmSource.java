@@ -0,0 +1,11 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/** A track as interleaved 16-bit stereo samples at the BGM output rate. */
+interface PcmSource extends Closeable {
+    /** Reads up to len samples (whole frames); -1 at the end of the track. */
+    int read(short[] buf, int off, int len) throws IOException;
+
+    /** Back to the first sample, for looping. */
+    void rewind() throws IOException;
+}
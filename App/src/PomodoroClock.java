@@ -0,0 +1,206 @@
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Pomodoro countdown. The current period ends at a System.nanoTime() deadline and the
+ * time left is always deadline - now, so late or dropped wake-ups never add up to drift.
+ * A single daemon thread wakes exactly when the displayed second changes or the period
+ * ends; the EDT only receives what to show.
+ *
+ * When the deadline has passed, each missed period end is replayed against its own deadline
+ * (the next period runs from the old deadline, not from "now"), so the cycle count and the
+ * phase are right even after a long stall. nanoTime may stand still while the machine
+ * sleeps; a wall-clock jump much larger than the monotonic one is taken as suspended time
+ * and counted as elapsed.
+ */
+final class PomodoroClock {
+    private static final long SECOND = 1_000_000_000L;
+    private static final long SUSPEND_SLACK = 2 * SECOND;
+    private static final LatencyHistogram LATENESS = Metrics.histogram("pomodoro.wakeLateness");
+
+    enum Phase { WORK, SHORT_BREAK, LONG_BREAK }
+
+    /** Period lengths in minutes; the first period after every N work periods is long. */
+    record Schedule(int workMinutes, int shortBreakMinutes, int longBreakMinutes, int cyclesBeforeLongBreak) {
+        long nanos(Phase phase) {
+            int minutes = switch (phase) {
+                case WORK -> workMinutes;
+                case SHORT_BREAK -> shortBreakMinutes;
+                case LONG_BREAK -> longBreakMinutes;
+            };
+            return Math.max(1, minutes) * 60 * SECOND;
+        }
+
+        Phase after(Phase ended, int cyclesCompleted) {
+            if (ended != Phase.WORK) return Phase.WORK;
+            return cyclesCompleted % Math.max(1, cyclesBeforeLongBreak) == 0 ? Phase.LONG_BREAK : Phase.SHORT_BREAK;
+        }
+    }
+
+    /** One period end; endedAtMillis is when it was due by the wall clock. */
+    record Transition(Phase ended, Phase next, int cyclesCompleted, long endedAtMillis) {}
+
+    interface Listener {
+        /**
+         * Periods that ended since the last call, oldest first. Always delivered, even if
+         * the clock was paused or stopped in the meantime, so the listener never misses one.
+         */
+        void periodsEnded(List<Transition> transitions);
+
+        /** The whole seconds left (rounded up) changed; dropped if it is already stale. */
+        void tick(int remainingSeconds);
+    }
+
+    private final Listener listener;
+    private final Executor deliver;
+    private final ScheduledExecutorService timer;
+
+    // Guarded by this
+    private Schedule schedule;
+    private Phase phase = Phase.WORK;
+    private int cyclesCompleted;
+    private long deadline;
+    private long pausedRemaining = -1; // nanos left while paused
+    private boolean running;
+    private ScheduledFuture<?> wake;
+    private long wakeDue, lastNanos, lastWallMillis;
+    private int shownSeconds = -1;
+    // Bumped by every start, pause and stop; ticks from an older run are dropped on delivery
+    private volatile int generation;
+
+    /** Delivers to the listener on the EDT. */
+    PomodoroClock(Listener listener) {
+        this(listener, SwingUtilities::invokeLater);
+    }
+
+    PomodoroClock(Listener listener, Executor deliver) {
+        this.listener = listener;
+        this.deliver = deliver;
+        ScheduledThreadPoolExecutor t = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "pomodoro-clock");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        t.setRemoveOnCancelPolicy(true);
+        timer = t;
+    }
+
+    /** Starts a period of the given phase from now. */
+    synchronized void start(Schedule schedule, Phase phase, int cyclesCompleted) {
+        this.schedule = schedule;
+        this.phase = phase;
+        this.cyclesCompleted = cyclesCompleted;
+        run(schedule.nanos(phase));
+    }
+
+    /** Stops the countdown and returns the nanos left in the period. */
+    synchronized long pause() {
+        if (!running) return Math.max(0, pausedRemaining);
+        pausedRemaining = Math.max(0, deadline - System.nanoTime());
+        halt();
+        return pausedRemaining;
+    }
+
+    /** Carries on from where pause() stopped, with the schedule as it is now. */
+    synchronized void resume(Schedule schedule) {
+        if (running || pausedRemaining < 0) return;
+        this.schedule = schedule;
+        run(pausedRemaining);
+    }
+
+    synchronized void stop() {
+        halt();
+        pausedRemaining = -1;
+    }
+
+    /** Takes effect from the next period on. */
+    synchronized void setSchedule(Schedule schedule) {
+        this.schedule = schedule;
+    }
+
+    synchronized Phase phase() { return phase; }
+
+    synchronized boolean isRunning() { return running; }
+
+    /** Nanos left in the current period, counting while running. */
+    synchronized long remainingNanos() {
+        if (running) return Math.max(0, deadline - System.nanoTime());
+        return Math.max(0, pausedRemaining);
+    }
+
+    static int ceilSeconds(long nanos) {
+        return (int) ((Math.max(0, nanos) + SECOND - 1) / SECOND);
+    }
+
+    /* ---------- internals (callers hold the lock) ---------- */
+    private void run(long remaining) {
+        halt();
+        long now = System.nanoTime();
+        deadline = now + remaining;
+        pausedRemaining = -1;
+        running = true;
+        lastNanos = now;
+        lastWallMillis = System.currentTimeMillis();
+        shownSeconds = -1;
+        wakeAt(now, now);
+    }
+
+    private void halt() {
+        running = false;
+        generation++;
+        if (wake != null) wake.cancel(false);
+        wake = null;
+    }
+
+    // On the clock thread
+    private synchronized void wake(int scheduledIn) {
+        if (!running || scheduledIn != generation) return; // cancelled after it had started
+        long now = System.nanoTime();
+        long wallMillis = System.currentTimeMillis();
+        LATENESS.record(Math.max(0, now - wakeDue));
+
+        // Suspended: the wall clock moved on while nanoTime stood still
+        long slept = (wallMillis - lastWallMillis) * 1_000_000L - (now - lastNanos);
+        if (slept > SUSPEND_SLACK) deadline -= slept;
+        lastNanos = now;
+        lastWallMillis = wallMillis;
+
+        List<Transition> ended = null;
+        while (deadline <= now) {
+            if (phase == Phase.WORK) cyclesCompleted++;
+            Phase next = schedule.after(phase, cyclesCompleted);
+            if (ended == null) ended = new ArrayList<>();
+            ended.add(new Transition(phase, next, cyclesCompleted, wallMillis - (now - deadline) / 1_000_000L));
+            phase = next;
+            deadline += schedule.nanos(next);
+        }
+        if (ended != null) {
+            List<Transition> batch = List.copyOf(ended);
+            deliver.execute(() -> listener.periodsEnded(batch));
+        }
+
+        long remaining = deadline - now;
+        int seconds = ceilSeconds(remaining);
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            int gen = generation;
+            deliver.execute(() -> {
+                if (gen == generation) listener.tick(seconds);
+            });
+        }
+        wakeAt(now, now + remaining - (long) (seconds - 1) * SECOND); // when the display next changes
+    }
+
+    private void wakeAt(long now, long due) {
+        wakeDue = due;
+        int gen = generation;
+        wake = timer.schedule(() -> wake(gen), Math.max(0, due - now), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,407 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * History of Pomodoro periods. Every stretch the timer ran (to the end of its period, up to
+ * a pause, or until a reset) is appended to pomodoro-sessions.bin as a 16-byte record and
+ * folded straight into day, week and month totals. Only the day totals are stored, in
+ * pomodoro-rollups.bin; the statistics view reads nothing else, so it opens at once however
+ * long the history is.
+ *
+ * All file work runs in order on the I/O executor. Raw records older than RETAIN_DAYS are
+ * compacted out of the session log there too; their time stays in the rollups.
+ */
+final class PomodoroLog {
+    private static final Log LOG = Log.get(PomodoroLog.class);
+
+    static final String LOG_FILE = "pomodoro-sessions.bin";
+    static final String ROLLUP_FILE = "pomodoro-rollups.bin";
+    private static final int LOG_MAGIC = 0x47363750;    // "G67P"
+    private static final int ROLLUP_MAGIC = 0x47363752; // "G67R"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16; // magic, version, log id
+    private static final int RECORD = 16; // start, duration, phase, outcome, padding
+    private static final int DAY = 32;    // epoch day, focus, break, completed, interrupted, pauses
+    private static final int RETAIN_DAYS = 90;
+    private static final long COMPACT_BYTES = 64 << 10;
+
+    /** How a stretch ended: its period finished, the user paused, or the user reset. */
+    enum Outcome { COMPLETED, PAUSED, INTERRUPTED }
+
+    record Segment(long startMillis, long endMillis, PomodoroClock.Phase phase, Outcome outcome) {}
+
+    /** Totals for one day, week or month. */
+    static final class Rollup {
+        long focusMillis, breakMillis;
+        int completed, interrupted, pauses;
+
+        /** Completed work periods out of all that ended; NaN when none did. */
+        double completionRate() {
+            int ended = completed + interrupted;
+            return ended == 0 ? Double.NaN : completed / (double) ended;
+        }
+
+        private Rollup copy() {
+            Rollup r = new Rollup();
+            r.focusMillis = focusMillis;
+            r.breakMillis = breakMillis;
+            r.completed = completed;
+            r.interrupted = interrupted;
+            r.pauses = pauses;
+            return r;
+        }
+    }
+
+    /** A copy of the totals, safe to hand to the EDT. Weeks start on Monday. */
+    record Stats(SortedMap<LocalDate, Rollup> days, SortedMap<LocalDate, Rollup> weeks,
+                 SortedMap<YearMonth, Rollup> months, int currentStreak, int longestStreak) {}
+
+    private final File logFile, rollupFile;
+    private final ZoneId zone;
+
+    // Only touched by operations queued on logFile, which run one at a time
+    private boolean loaded;
+    private long logId, covered; // rollups include the log up to byte `covered`
+    private LocalDate compactDue; // first day the oldest raw record is past RETAIN_DAYS; null = not read yet
+    private final TreeMap<LocalDate, Rollup> days = new TreeMap<>();
+    private final TreeMap<LocalDate, Rollup> weeks = new TreeMap<>();
+    private final TreeMap<YearMonth, Rollup> months = new TreeMap<>();
+    private LocalDate streakEnd; // last day of the latest run of days with a completed work period
+    private int streak, longestStreak;
+
+    PomodoroLog(File dir) {
+        this(dir, ZoneId.systemDefault());
+    }
+
+    PomodoroLog(File dir, ZoneId zone) {
+        this.logFile = new File(dir, LOG_FILE);
+        this.rollupFile = new File(dir, ROLLUP_FILE);
+        this.zone = zone;
+    }
+
+    /** Records a stretch in the background; any thread. */
+    void append(Segment segment) {
+        AsyncIO.reportErrors(AsyncIO.runOnFile(logFile, () -> {
+            ensureLoaded();
+            ByteBuffer rec = ByteBuffer.allocate(RECORD);
+            encode(segment, rec);
+            rec.flip();
+            try (FileChannel ch = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (rec.hasRemaining()) ch.write(rec);
+            }
+            apply(segment);
+            covered += RECORD;
+            saveRollups();
+            if (covered > COMPACT_BYTES) compact();
+        }), "Could not save the Pomodoro history");
+    }
+
+    /** The totals, after every append queued so far. */
+    CompletableFuture<Stats> stats() {
+        CompletableFuture<Stats> result = new CompletableFuture<>();
+        AsyncIO.runOnFile(logFile, () -> {
+            ensureLoaded();
+            result.complete(snapshot());
+        }).whenComplete((v, ex) -> {
+            if (ex != null) result.completeExceptionally(ex);
+        });
+        return result;
+    }
+
+    /** Drops raw records past RETAIN_DAYS in the background; any thread. */
+    void compactSoon() {
+        AsyncIO.reportErrors(AsyncIO.runOnFile(logFile, () -> {
+            ensureLoaded();
+            compact();
+        }), "Could not compact the Pomodoro history");
+    }
+
+    /* ---------- totals ---------- */
+    // Time goes to the days it was spent on; the outcome counts on the day the stretch ended
+    private void apply(Segment s) {
+        long from = s.startMillis(), to = Math.max(from, s.endMillis());
+        boolean work = s.phase() == PomodoroClock.Phase.WORK;
+        while (from < to) {
+            LocalDate day = dayOf(from);
+            long next = Math.min(to, day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            long millis = next - from;
+            forEachBucket(day, r -> {
+                if (work) r.focusMillis += millis;
+                else r.breakMillis += millis;
+            });
+            from = next;
+        }
+
+        LocalDate endDay = dayOf(to);
+        switch (s.outcome()) {
+            case PAUSED -> forEachBucket(endDay, r -> r.pauses++);
+            case INTERRUPTED -> {
+                if (work) forEachBucket(endDay, r -> r.interrupted++);
+            }
+            case COMPLETED -> {
+                if (!work) break;
+                boolean first = rollup(days, endDay).completed == 0;
+                forEachBucket(endDay, r -> r.completed++);
+                if (first) extendStreak(endDay);
+            }
+        }
+    }
+
+    private void forEachBucket(LocalDate day, Consumer<Rollup> update) {
+        update.accept(rollup(days, day));
+        update.accept(rollup(weeks, day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))));
+        update.accept(rollup(months, YearMonth.from(day)));
+    }
+
+    private static <K> Rollup rollup(Map<K, Rollup> map, K key) {
+        return map.computeIfAbsent(key, k -> new Rollup());
+    }
+
+    private void extendStreak(LocalDate day) {
+        if (streakEnd == null || day.isAfter(streakEnd.plusDays(1))) {
+            streak = 1;
+        } else if (day.equals(streakEnd.plusDays(1))) {
+            streak++;
+        } else {
+            rebuildStreaks(); // an older day; rare, only when the clock was set back
+            return;
+        }
+        streakEnd = day;
+        longestStreak = Math.max(longestStreak, streak);
+    }
+
+    private void rebuildStreaks() {
+        streakEnd = null;
+        streak = longestStreak = 0;
+        for (Map.Entry<LocalDate, Rollup> e : days.entrySet()) {
+            if (e.getValue().completed > 0) extendStreak(e.getKey());
+        }
+    }
+
+    // Weeks and months are sums of days, so only days are stored
+    private void rebuildFromDays() {
+        weeks.clear();
+        months.clear();
+        for (Map.Entry<LocalDate, Rollup> e : days.entrySet()) {
+            Rollup d = e.getValue();
+            for (Rollup r : new Rollup[]{
+                    rollup(weeks, e.getKey().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))),
+                    rollup(months, YearMonth.from(e.getKey()))}) {
+                r.focusMillis += d.focusMillis;
+                r.breakMillis += d.breakMillis;
+                r.completed += d.completed;
+                r.interrupted += d.interrupted;
+                r.pauses += d.pauses;
+            }
+        }
+        rebuildStreaks();
+    }
+
+    private Stats snapshot() {
+        LocalDate today = LocalDate.now(zone);
+        boolean alive = streakEnd != null && !streakEnd.isBefore(today.minusDays(1)); // today may still come
+        return new Stats(copy(days), copy(weeks), copy(months), alive ? streak : 0, longestStreak);
+    }
+
+    private static <K> SortedMap<K, Rollup> copy(TreeMap<K, Rollup> map) {
+        TreeMap<K, Rollup> out = new TreeMap<>();
+        map.forEach((k, v) -> out.put(k, v.copy()));
+        return out;
+    }
+
+    private LocalDate dayOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+    }
+
+    /* ---------- files ---------- */
+    private void ensureLoaded() throws IOException {
+        if (loaded) return;
+        long t0 = System.nanoTime();
+        long length = openLog();
+        long id = readLogId();
+        boolean haveRollups = readRollups();
+        if (!haveRollups) {
+            covered = HEADER; // lost or damaged: rebuild from what the log still has
+        } else if (logId != id) {
+            covered = length; // compacted after the rollups were saved; they include every record left
+        } else {
+            covered = Math.min(covered, length);
+        }
+        logId = id;
+
+        int caughtUp = 0;
+        if (covered < length) {
+            for (Segment s : readRecords(covered, length)) {
+                apply(s);
+                caughtUp++;
+            }
+            covered = length;
+        }
+        rebuildFromDays();
+        loaded = true;
+        if (caughtUp > 0 || !haveRollups) saveRollups();
+        LOG.info("Pomodoro history: {} days, loaded in {} ms", days.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // Creates the log if needed and cuts off a record half-written by a crash; returns its length
+    private long openLog() throws IOException {
+        if (!logFile.isFile() || logFile.length() < HEADER) {
+            writeLog(logFile, List.of());
+        }
+        long length = logFile.length();
+        long whole = HEADER + (length - HEADER) / RECORD * RECORD;
+        if (whole != length) {
+            try (FileChannel ch = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE)) {
+                ch.truncate(whole);
+            }
+        }
+        return whole;
+    }
+
+    private long readLogId() throws IOException {
+        try (FileChannel ch = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && ch.read(header) > 0) { }
+            header.flip();
+            if (header.remaining() < HEADER || header.getInt() != LOG_MAGIC || header.getInt() != VERSION) {
+                throw new IOException(logFile + " is not a Pomodoro history file");
+            }
+            return header.getLong();
+        }
+    }
+
+    private List<Segment> readRecords(long from, long to) throws IOException {
+        List<Segment> out = new ArrayList<>();
+        try (FileChannel ch = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) (to - from));
+            while (buf.hasRemaining() && ch.read(buf, from + buf.position()) > 0) { }
+            buf.flip();
+            while (buf.remaining() >= RECORD) {
+                Segment s = decode(buf);
+                if (s != null) out.add(s);
+            }
+        }
+        return out;
+    }
+
+    // Writes a fresh log with a new id; an existing file is replaced atomically
+    private long writeLog(File file, List<Segment> records) throws IOException {
+        long id = ThreadLocalRandom.current().nextLong();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + records.size() * RECORD);
+        buf.putInt(LOG_MAGIC).putInt(VERSION).putLong(id);
+        for (Segment s : records) encode(s, buf);
+        File dir = file.getParentFile();
+        if (!dir.isDirectory()) dir.mkdirs();
+        File tmp = new File(dir, file.getName() + ".tmp");
+        Files.write(tmp.toPath(), buf.array());
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return id;
+    }
+
+    // Reads the log only once its oldest record can actually be dropped
+    private void compact() throws IOException {
+        LocalDate today = LocalDate.now(zone);
+        if (compactDue != null && today.isBefore(compactDue)) return;
+        long length = logFile.length();
+        long cutoff = today.minusDays(RETAIN_DAYS).atStartOfDay(zone).toInstant().toEpochMilli();
+        List<Segment> all = readRecords(HEADER, length);
+        if (all.isEmpty() || all.get(0).endMillis() >= cutoff) { // nothing old enough yet
+            compactDue = dueDate(all, today);
+            return;
+        }
+        List<Segment> kept = all.stream().filter(s -> s.endMillis() >= cutoff).toList();
+        logId = writeLog(logFile, kept);
+        covered = HEADER + (long) kept.size() * RECORD;
+        compactDue = dueDate(kept, today);
+        saveRollups();
+        LOG.info("Compacted Pomodoro history: {} of {} sessions kept", kept.size(), all.size());
+    }
+
+    // The day the first of these records falls out of RETAIN_DAYS; later records follow it
+    private LocalDate dueDate(List<Segment> records, LocalDate today) {
+        LocalDate oldest = records.isEmpty() ? today
+                : Instant.ofEpochMilli(records.get(0).endMillis()).atZone(zone).toLocalDate();
+        return oldest.plusDays(RETAIN_DAYS + 1);
+    }
+
+    private static void encode(Segment s, ByteBuffer buf) {
+        long duration = Math.max(0, s.endMillis() - s.startMillis());
+        buf.putLong(s.startMillis())
+                .putInt((int) Math.min(Integer.MAX_VALUE, duration))
+                .put((byte) s.phase().ordinal())
+                .put((byte) s.outcome().ordinal())
+                .putShort((short) 0);
+    }
+
+    // Null for a record this version does not understand
+    private static Segment decode(ByteBuffer buf) {
+        long start = buf.getLong();
+        int duration = buf.getInt();
+        int phase = buf.get(), outcome = buf.get();
+        buf.getShort();
+        if (phase < 0 || phase >= PomodoroClock.Phase.values().length
+                || outcome < 0 || outcome >= Outcome.values().length) return null;
+        return new Segment(start, start + duration, PomodoroClock.Phase.values()[phase], Outcome.values()[outcome]);
+    }
+
+    private boolean readRollups() {
+        days.clear();
+        if (!rollupFile.isFile()) return false;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(rollupFile.toPath()));
+            if (buf.getInt() != ROLLUP_MAGIC || buf.getInt() != VERSION) throw new IOException("bad header");
+            logId = buf.getLong();
+            covered = buf.getLong();
+            int count = buf.getInt();
+            for (int i = 0; i < count; i++) {
+                Rollup r = new Rollup();
+                LocalDate day = LocalDate.ofEpochDay(buf.getInt());
+                r.focusMillis = buf.getLong();
+                r.breakMillis = buf.getLong();
+                r.completed = buf.getInt();
+                r.interrupted = buf.getInt();
+                r.pauses = buf.getInt();
+                days.put(day, r);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Rebuilding Pomodoro statistics; {} is unreadable", rollupFile, e);
+            days.clear();
+            return false;
+        }
+    }
+
+    private void saveRollups() {
+        ByteBuffer buf = ByteBuffer.allocate(28 + days.size() * DAY);
+        buf.putInt(ROLLUP_MAGIC).putInt(VERSION).putLong(logId).putLong(covered).putInt(days.size());
+        for (Map.Entry<LocalDate, Rollup> e : days.entrySet()) {
+            Rollup r = e.getValue();
+            buf.putInt((int) e.getKey().toEpochDay())
+                    .putLong(r.focusMillis)
+                    .putLong(r.breakMillis)
+                    .putInt(r.completed)
+                    .putInt(r.interrupted)
+                    .putInt(r.pauses);
+        }
+        AsyncIO.reportErrors(AsyncIO.writeFile(rollupFile, buf.array()), "Could not save the Pomodoro statistics");
+    }
+}
@@ -1,11 +1,16 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 import java.awt.*;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.io.*;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 // PomodoroPanel must implement Serializable to save its state.
 class PomodoroPanel extends JPanel implements Serializable {
@@ -13,9 +18,11 @@ class PomodoroPanel extends JPanel implements Serializable {
     // --- SERIALIZATION & FILE HANDLING ---
     private static final long serialVersionUID = 1L;
     private static final String DATA_FILE_NAME = "pomodoro.dat";
+    private static final LatencyHistogram TICK = Metrics.histogram("pomodoro.tick");
+    private static final Log LOG = Log.get(PomodoroPanel.class);
 
     // Inner class to hold all mutable settings and state for serialization
-    private static class Settings implements Serializable {
+    static class Settings implements Serializable {
         private static final long serialVersionUID = 3L;
         String workMinutes = "25";
         String shortBreakMinutes = "5";
@@ -23,6 +30,7 @@ class PomodoroPanel extends JPanel implements Serializable {
         String cyclesBeforeLongBreak = "4";
         int songSelectorIndex = 0;
         String customSongPath = ""; // Path if "Custom..." is chosen
+        String activeTaskId = ""; // Task credited with work periods; null in older files
 
     }
 
@@ -31,7 +39,22 @@ class PomodoroPanel extends JPanel implements Serializable {
 //    PomodoroState state = PomodoroState.IDLE;
 //    int cyclesCompleted = 0;
 
+    /** Where finished work periods go; the Projects tab, wired up by MainFrame. */
+    interface TaskTracker {
+        List<Project> projects();
+
+        void workCompleted(Project project, Task task, long millis);
+    }
+
+    // An entry in the task picker; NO_TASK credits nobody
+    private record TaskChoice(Project project, Task task, String label) {
+        @Override
+        public String toString() { return label; }
+    }
+    private static final TaskChoice NO_TASK = new TaskChoice(null, null, "(no task)");
+
     private final BGM_Pomodoro player = new BGM_Pomodoro();
+    private final PomodoroLog history = new PomodoroLog(AppConfig.getProjectDirectory());
     private final String[] songs = {"None", "Mondstadt", "Liyue", "Inazuma", "Sumeru", "Fontaine", "Custom..."};
     private final String[] songFiles = {
             "",
@@ -43,6 +66,10 @@ class PomodoroPanel extends JPanel implements Serializable {
             ""
     };
     private final JComboBox<String> songSelector = new JComboBox<>(songs);
+    private final JComboBox<TaskChoice> taskSelector = new JComboBox<>(new TaskChoice[]{NO_TASK});
+    private TaskTracker tracker;
+    private String activeTaskId = "";
+    private boolean reloadingTasks;
     private String currentSongPath = songFiles[1];
 
     private final JTextField workField = new JTextField("25", 3);
@@ -52,23 +79,33 @@ class PomodoroPanel extends JPanel implements Serializable {
 
     private final JButton startBtn = new JButton("Start");
     private final JButton resetBtn = new JButton("Reset");
+    private final JButton statsBtn = new JButton("Stats");
 
     private final JLabel timerLabel = new JLabel("25:00", SwingConstants.CENTER);
     private final JLabel statusLabel = new JLabel("Idle", SwingConstants.CENTER);
     private final JLabel cycleCounterLabel = new JLabel("", SwingConstants.CENTER);
 
-    private final javax.swing.Timer swingTimer;
+    private final PomodoroClock clock;
     private int remainingSeconds = 0;
     private PomodoroState state = PomodoroState.IDLE;
     private int cyclesCompleted = 0;
     private PomodoroState previousStateBeforePause = null;
     private Date workStartTime;
+    // The stretch the timer is running now, for the history; -1 when stopped or paused
+    private long segmentStart = -1;
+    private PomodoroClock.Phase segmentPhase;
+    private long periodFocusMillis; // work time in the current work period, across pauses
 
     enum PomodoroState { IDLE, WORK, SHORT_BREAK, LONG_BREAK, PAUSED }
 
     PomodoroPanel() {
-        // --- 1. Load settings immediately on startup ---
-        loadSettings();
+        this(readSettings());
+    }
+
+    // Settings are read off the EDT at startup (see MainFrame) and handed in here
+    PomodoroPanel(Settings loadedSettings) {
+        // --- 1. Apply saved settings immediately on startup ---
+        applySettings(loadedSettings);
 
         updateCycleLabel();
 
@@ -85,6 +122,7 @@ class PomodoroPanel extends JPanel implements Serializable {
             @Override
             public void focusLost(FocusEvent e) {
                 saveSettings(); // Save settings when a text field loses focus
+                clock.setSchedule(currentSchedule()); // from the next period on
             }
         };
 
@@ -138,9 +176,18 @@ class PomodoroPanel extends JPanel implements Serializable {
         resetBtn.setFocusable(false);
         bottomPanel.add(resetBtn);
 
+        statsBtn.setPreferredSize(new Dimension(100, 40));
+        statsBtn.setFont(new Font("SansSerif", Font.BOLD, 14));
+        statsBtn.setFocusable(false);
+        bottomPanel.add(statsBtn);
+
         bottomPanel.add(new JLabel("Music:"));
         bottomPanel.add(songSelector);
 
+        bottomPanel.add(new JLabel("Task:"));
+        taskSelector.setPrototypeDisplayValue(new TaskChoice(null, null, "A project name › a task name"));
+        bottomPanel.add(taskSelector);
+
         add(bottomPanel, BorderLayout.SOUTH);
 
         // Listeners
@@ -153,6 +200,24 @@ class PomodoroPanel extends JPanel implements Serializable {
         });
 
         resetBtn.addActionListener(e -> resetPomodoro());
+        taskSelector.addActionListener(e -> {
+            if (reloadingTasks) return;
+            TaskChoice c = (TaskChoice) taskSelector.getSelectedItem();
+            activeTaskId = c == null || c.task() == null ? "" : c.task().getId().toString();
+            saveSettings();
+        });
+        // Open tasks change all the time; the list is rebuilt whenever it is opened
+        taskSelector.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) { reloadTaskChoices(); }
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) { }
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) { }
+        });
+        // Projects arrive after this tab may have been built
+        ModelBus.subscribe(ModelEvent.ProjectSelected.class, batch -> reloadTaskChoices());
+        statsBtn.addActionListener(e -> new PomodoroStatsDialog(this, history).setVisible(true));
 
         songSelector.addActionListener(e -> {
             updateSongPath(songSelector.getSelectedIndex());
@@ -160,18 +225,28 @@ class PomodoroPanel extends JPanel implements Serializable {
             saveSettings();
 
             if (state == PomodoroState.WORK && !startBtn.getText().equals("Resume")) {
-                player.stop();
-                player.play(currentSongPath, true);
+                player.play(currentSongPath, true); // crossfades from the old song
+            } else {
+                player.prefetch(currentSongPath);
             }
         });
 
-        swingTimer = new javax.swing.Timer(1000, e -> tick());
+        // Counts down on its own thread against nanoTime deadlines; we only draw what it sends
+        clock = new PomodoroClock(new PomodoroClock.Listener() {
+            @Override
+            public void periodsEnded(List<PomodoroClock.Transition> transitions) { handlePeriodsEnded(transitions); }
+
+            @Override
+            public void tick(int seconds) { PomodoroPanel.this.tick(seconds); }
+        });
         updateTimerDisplay();
         updateStatusDisplay(); // Initialize status and cycle labels correctly after loading
+        player.prefetch(currentSongPath); // decoded in the background, so Start plays from the cache
+        history.compactSoon();
     }
 
     // --- NEW: Use AppConfig for File Path ---
-    private File getStorageFile() {
+    private static File getStorageFile() {
         // Get the base directory from the centralized AppConfig class
         File appDir = AppConfig.getProjectDirectory();
         // Return the full path: %APPDATA%/Group67/pomodoro.dat
@@ -179,50 +254,60 @@ class PomodoroPanel extends JPanel implements Serializable {
     }
 
     // --- NEW: Load Settings Method ---
-    private void loadSettings() {
+    // Only touches the file, so it can run on a background thread. Returns null when there is nothing to load.
+    static Settings readSettings() {
         File dataFile = getStorageFile();
         if (!dataFile.exists()) {
             // If no file exists, use defaults (which are set in the JTextFields by default)
 //            System.out.println("No saved settings found. Using defaults.");
-            return;
+            return null;
         }
 
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(dataFile))) {
-            Settings loadedSettings = (Settings) ois.readObject();
+            return (Settings) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            LOG.warn("Error loading settings from {}", dataFile, e);
+            // Optionally delete corrupt file
+            dataFile.delete();
+            return null;
+        }
+    }
+
+    static java.util.concurrent.CompletableFuture<Settings> readSettingsAsync() {
+        return AsyncIO.submit(PomodoroPanel::readSettings);
+    }
 
-            // Load Timer Settings
-            workField.setText(loadedSettings.workMinutes);
-            shortBreakField.setText(loadedSettings.shortBreakMinutes);
-            longBreakField.setText(loadedSettings.longBreakMinutes);
-            cyclesBeforeLongBreakField.setText(loadedSettings.cyclesBeforeLongBreak);
+    private void applySettings(Settings loadedSettings) {
+        if (loadedSettings == null) return;
 
-            // Load Song Settings
-            songSelector.setSelectedIndex(loadedSettings.songSelectorIndex);
-            updateSongPath(loadedSettings.songSelectorIndex, loadedSettings.customSongPath);
+        // Load Timer Settings
+        workField.setText(loadedSettings.workMinutes);
+        shortBreakField.setText(loadedSettings.shortBreakMinutes);
+        longBreakField.setText(loadedSettings.longBreakMinutes);
+        cyclesBeforeLongBreakField.setText(loadedSettings.cyclesBeforeLongBreak);
 
-            // Load Timer State
+        // Load Song Settings
+        songSelector.setSelectedIndex(loadedSettings.songSelectorIndex);
+        updateSongPath(loadedSettings.songSelectorIndex, loadedSettings.customSongPath);
+        if (loadedSettings.activeTaskId != null) activeTaskId = loadedSettings.activeTaskId;
+
+        // Load Timer State
 //            remainingSeconds = loadedSettings.remainingSeconds;
 //            cyclesCompleted = loadedSettings.cyclesCompleted;
 //            state = loadedSettings.state;
 
-            // If the timer was running when saved, restart it immediately (optional)
-            if (state == PomodoroState.WORK || state == PomodoroState.SHORT_BREAK || state == PomodoroState.LONG_BREAK) {
-                // If loaded in a running state, set to PAUSED to allow the user to click Resume
-                state = PomodoroState.PAUSED;
-                startBtn.setText("Resume");
-            } else {
-                state = PomodoroState.IDLE;
-                startBtn.setText("Start");
-                remainingSeconds = parseIntOrDefault(workField.getText().trim(), 25) * 60; // Set initial time
-            }
+        // If the timer was running when saved, restart it immediately (optional)
+        if (state == PomodoroState.WORK || state == PomodoroState.SHORT_BREAK || state == PomodoroState.LONG_BREAK) {
+            // If loaded in a running state, set to PAUSED to allow the user to click Resume
+            setState(PomodoroState.PAUSED);
+            startBtn.setText("Resume");
+        } else {
+            setState(PomodoroState.IDLE);
+            startBtn.setText("Start");
+            remainingSeconds = parseIntOrDefault(workField.getText().trim(), 25) * 60; // Set initial time
+        }
 
 //            System.out.println("Settings loaded successfully.");
-
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading settings: " + e.getMessage());
-            // Optionally delete corrupt file
-            dataFile.delete();
-        }
     }
 
     // --- NEW: Save Settings Method ---
@@ -240,6 +325,7 @@ class PomodoroPanel extends JPanel implements Serializable {
         settingsToSave.customSongPath = (settingsToSave.songSelectorIndex == songs.length - 1)
                 ? currentSongPath
                 : "";
+        settingsToSave.activeTaskId = activeTaskId;
 
         // Save Timer State
         // Only save state if not IDLE (or if PAUSED, keep remaining time)
@@ -255,12 +341,13 @@ class PomodoroPanel extends JPanel implements Serializable {
 //        }
 
 
-        File dataFile = getStorageFile();
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(dataFile))) {
-            oos.writeObject(settingsToSave);
+        // Written on the I/O executor; repeated saves in a burst collapse into one write
+        try {
+            byte[] bytes = ProjectFileHandler.toBytes(settingsToSave);
+            AsyncIO.reportErrors(AsyncIO.writeFile(getStorageFile(), bytes), "Error saving settings");
             // System.out.println("Settings saved."); // Silent save
         } catch (IOException e) {
-            System.err.println("Error saving settings: " + e.getMessage());
+            LOG.error("Error saving settings", e);
         }
     }
 
@@ -300,11 +387,14 @@ class PomodoroPanel extends JPanel implements Serializable {
 
     private void startPomodoro() {
         if (state == PomodoroState.PAUSED) {
-            swingTimer.start();
-            state = previousStateBeforePause != null ? previousStateBeforePause : PomodoroState.WORK;
+            clock.resume(currentSchedule());
+            setState(previousStateBeforePause != null ? previousStateBeforePause : PomodoroState.WORK);
+            beginSegment(phaseOf(state), System.currentTimeMillis());
 
             if (state == PomodoroState.WORK) {
-                player.play(currentSongPath, true);
+                player.play(currentSongPath, true); // picks up where pause left it
+            } else {
+                player.stop(); // a break began while paused
             }
             updateStatusDisplay();
             startBtn.setText("Pause");
@@ -314,12 +404,14 @@ class PomodoroPanel extends JPanel implements Serializable {
         if (state == PomodoroState.IDLE) {
             int workMin = parseIntOrDefault(workField.getText().trim(), 25);
             remainingSeconds = workMin * 60;
-            state = PomodoroState.WORK;
+            setState(PomodoroState.WORK);
             updateStatusDisplay();
 
             updateCycleLabel();
-            swingTimer.start();
+            clock.start(currentSchedule(), PomodoroClock.Phase.WORK, cyclesCompleted);
             workStartTime = new Date();
+            periodFocusMillis = 0;
+            beginSegment(PomodoroClock.Phase.WORK, workStartTime.getTime());
             player.play(currentSongPath, true);
             startBtn.setText("Pause");
 
@@ -335,9 +427,11 @@ class PomodoroPanel extends JPanel implements Serializable {
         if (state != PomodoroState.PAUSED) {
             startBtn.setText("Resume");
             previousStateBeforePause = state;
-            state = PomodoroState.PAUSED;
-            swingTimer.stop();
-            player.stop();
+            setState(PomodoroState.PAUSED);
+            remainingSeconds = PomodoroClock.ceilSeconds(clock.pause());
+            endSegment(PomodoroLog.Outcome.PAUSED, System.currentTimeMillis());
+            updateTimerDisplay();
+            player.pause();
 
             updateStatusDisplay();
 
@@ -350,9 +444,17 @@ class PomodoroPanel extends JPanel implements Serializable {
     }
 
     private void resetPomodoro() {
-        swingTimer.stop();
+        clock.stop();
+        long now = System.currentTimeMillis();
+        if (segmentStart >= 0) {
+            endSegment(PomodoroLog.Outcome.INTERRUPTED, now);
+        } else if (state == PomodoroState.PAUSED && previousStateBeforePause != null) {
+            // Abandoned while paused: its time is logged already, only the outcome is left
+            history.append(new PomodoroLog.Segment(now, now, phaseOf(previousStateBeforePause), PomodoroLog.Outcome.INTERRUPTED));
+        }
+        periodFocusMillis = 0; // only finished work periods are credited to the task
         player.stop();
-        state = PomodoroState.IDLE;
+        setState(PomodoroState.IDLE);
         remainingSeconds = 0;
         cyclesCompleted = 0;
         updateStatusDisplay();
@@ -364,58 +466,138 @@ class PomodoroPanel extends JPanel implements Serializable {
         saveSettings();
     }
 
-    private void tick() {
-        if (remainingSeconds > 0) {
-            remainingSeconds--;
-            updateTimerDisplay();
-            // Note: Saving every second is too much. Save only on state change.
-        } else {
-            swingTimer.stop();
-            handlePeriodEnd();
-            // --- AUTO SAVE AFTER PERIOD END ---
-            saveSettings();
+    private void tick(int seconds) {
+        long t0 = System.nanoTime();
+        remainingSeconds = seconds;
+        updateTimerDisplay();
+        TICK.recordSince(t0);
+    }
+
+    // Usually one period end; several if the app was stalled or the machine slept through them
+    private void handlePeriodsEnded(List<PomodoroClock.Transition> transitions) {
+        if (state == PomodoroState.IDLE) return; // reset while they were on their way
+        boolean paused = state == PomodoroState.PAUSED;
+        for (PomodoroClock.Transition t : transitions) {
+            cyclesCompleted = t.cyclesCompleted();
+            PomodoroState next = switch (t.next()) {
+                case WORK -> PomodoroState.WORK;
+                case SHORT_BREAK -> PomodoroState.SHORT_BREAK;
+                case LONG_BREAK -> PomodoroState.LONG_BREAK;
+            };
+            if (paused) {
+                // Ended before the pause; the time is in the paused stretch already
+                previousStateBeforePause = next;
+                history.append(new PomodoroLog.Segment(t.endedAtMillis(), t.endedAtMillis(), t.ended(), PomodoroLog.Outcome.COMPLETED));
+            } else {
+                setState(next);
+                endSegment(PomodoroLog.Outcome.COMPLETED, t.endedAtMillis());
+                beginSegment(t.next(), t.endedAtMillis());
+            }
+            if (t.ended() == PomodoroClock.Phase.WORK) creditWork();
+            if (next == PomodoroState.WORK) workStartTime = new Date(t.endedAtMillis());
         }
+
+        if (state == PomodoroState.WORK) player.play(currentSongPath, true);
+        else player.stop();
+        updateStatusDisplay();
+        updateCycleLabel();
+        // --- AUTO SAVE AFTER PERIOD END ---
+        saveSettings();
     }
 
-    private void handlePeriodEnd() {
-        player.stop();
+    private void beginSegment(PomodoroClock.Phase phase, long startMillis) {
+        segmentPhase = phase;
+        segmentStart = startMillis;
+    }
+
+    private void endSegment(PomodoroLog.Outcome outcome, long endMillis) {
+        if (segmentStart < 0) return;
+        history.append(new PomodoroLog.Segment(segmentStart, endMillis, segmentPhase, outcome));
+        if (segmentPhase == PomodoroClock.Phase.WORK) periodFocusMillis += Math.max(0, endMillis - segmentStart);
+        segmentStart = -1;
+    }
 
-        if (state == PomodoroState.WORK) {
-            cyclesCompleted++;
-            int target = parseIntOrDefault(cyclesBeforeLongBreakField.getText().trim(), 4);
+    /* ---------- task tracking ---------- */
+    void setTaskTracker(TaskTracker tracker) {
+        this.tracker = tracker;
+        reloadTaskChoices();
+    }
 
-            if (cyclesCompleted % target == 0) {
-                int longMin = parseIntOrDefault(longBreakField.getText().trim(), 15);
-                remainingSeconds = longMin * 60;
-                state = PomodoroState.LONG_BREAK;
-                updateStatusDisplay();
-            } else {
-                int shortMin = parseIntOrDefault(shortBreakField.getText().trim(), 5);
-                remainingSeconds = shortMin * 60;
-                state = PomodoroState.SHORT_BREAK;
-                updateStatusDisplay();
+    // The finished work period's time goes to the chosen task, if it still exists
+    private void creditWork() {
+        long millis = periodFocusMillis;
+        periodFocusMillis = 0;
+        if (tracker == null || activeTaskId.isEmpty() || millis <= 0) return;
+        UUID id = UUID.fromString(activeTaskId);
+        for (Project p : tracker.projects()) {
+            Task t = p.findTask(id);
+            if (t != null) {
+                tracker.workCompleted(p, t, millis);
+                return;
             }
-            swingTimer.start();
-            updateCycleLabel();
         }
-        else if (state == PomodoroState.SHORT_BREAK || state == PomodoroState.LONG_BREAK) {
-            int workMin = parseIntOrDefault(workField.getText().trim(), 25);
-            remainingSeconds = workMin * 60;
-            state = PomodoroState.WORK;
-            updateStatusDisplay();
+    }
 
-            swingTimer.start();
-            workStartTime = new Date();
-            updateCycleLabel();
-            player.play(currentSongPath, true);
+    // Open tasks of every project, subtasks as "Parent › Child"
+    private void reloadTaskChoices() {
+        if (tracker == null) return;
+        List<TaskChoice> choices = new ArrayList<>();
+        choices.add(NO_TASK);
+        for (Project p : tracker.projects()) addChoices(choices, p, p.tasks, p.getName());
+
+        reloadingTasks = true;
+        try {
+            taskSelector.removeAllItems();
+            TaskChoice selected = NO_TASK;
+            for (TaskChoice c : choices) {
+                taskSelector.addItem(c);
+                if (c.task() != null && c.task().getId().toString().equals(activeTaskId)) selected = c;
+            }
+            taskSelector.setSelectedItem(selected);
+        } finally {
+            reloadingTasks = false;
         }
-        else {
-            state = PomodoroState.IDLE;
-            updateStatusDisplay();
-            updateCycleLabel();
+    }
+
+    private static void addChoices(List<TaskChoice> out, Project p, List<Task> tasks, String path) {
+        for (Task t : tasks) {
+            if (t.isCompleted()) continue;
+            String label = path + " › " + t.getName();
+            out.add(new TaskChoice(p, t, label));
+            addChoices(out, p, t.getSubtasks(), label);
+        }
+    }
+
+    private static PomodoroClock.Phase phaseOf(PomodoroState state) {
+        return switch (state) {
+            case SHORT_BREAK -> PomodoroClock.Phase.SHORT_BREAK;
+            case LONG_BREAK -> PomodoroClock.Phase.LONG_BREAK;
+            default -> PomodoroClock.Phase.WORK;
+        };
+    }
+
+    private PomodoroClock.Schedule currentSchedule() {
+        return new PomodoroClock.Schedule(
+                parseIntOrDefault(workField.getText().trim(), 25),
+                parseIntOrDefault(shortBreakField.getText().trim(), 5),
+                parseIntOrDefault(longBreakField.getText().trim(), 15),
+                parseIntOrDefault(cyclesBeforeLongBreakField.getText().trim(), 4));
+    }
+
+    // Every state change goes through here so it shows up in JFR recordings
+    private void setState(PomodoroState next) {
+        PomodoroState from = state;
+        state = next;
+        if (from == next) return;
+        ModelBus.publish(new ModelEvent.PomodoroChanged(next.name(), remainingSeconds, cyclesCompleted));
+        AppEvents.PomodoroTransition ev = new AppEvents.PomodoroTransition();
+        if (ev.shouldCommit()) {
+            ev.from = from.name();
+            ev.to = next.name();
+            ev.cyclesCompleted = cyclesCompleted;
+            ev.remainingSeconds = remainingSeconds;
+            ev.commit();
         }
-        updateTimerDisplay();
-        updateStatusDisplay();
     }
 
     private void updateStatusDisplay() {
@@ -449,6 +631,7 @@ class PomodoroPanel extends JPanel implements Serializable {
 
     private void updateTimerDisplay() {
         timerLabel.setText(formatSec(remainingSeconds));
+        ModelBus.publish(new ModelEvent.PomodoroChanged(state.name(), remainingSeconds, cyclesCompleted));
     }
 
     private void updateCycleLabel() {
@@ -456,6 +639,27 @@ class PomodoroPanel extends JPanel implements Serializable {
         cycleCounterLabel.setText("Cycle: " + ((cyclesCompleted%target)+1) + "/" + target + " - Completed: "+cyclesCompleted);
     }
 
+    // Work/break lengths as the task scheduler sees them
+    TaskScheduler.Capacity getSchedulerCapacity(int focusMinutesPerDay) {
+        return new TaskScheduler.Capacity(
+                parseIntOrDefault(workField.getText().trim(), 25),
+                parseIntOrDefault(shortBreakField.getText().trim(), 5),
+                parseIntOrDefault(longBreakField.getText().trim(), 15),
+                parseIntOrDefault(cyclesBeforeLongBreakField.getText().trim(), 4),
+                focusMinutesPerDay);
+    }
+
+    // Capacity straight from saved settings, for when the Pomodoro tab has not been built yet
+    static TaskScheduler.Capacity capacityOf(Settings settings, int focusMinutesPerDay) {
+        if (settings == null) return new TaskScheduler.Capacity(25, 5, 15, 4, focusMinutesPerDay);
+        return new TaskScheduler.Capacity(
+                parseIntOrDefault(settings.workMinutes, 25),
+                parseIntOrDefault(settings.shortBreakMinutes, 5),
+                parseIntOrDefault(settings.longBreakMinutes, 15),
+                parseIntOrDefault(settings.cyclesBeforeLongBreak, 4),
+                focusMinutesPerDay);
+    }
+
     private String getTimeStamp() {
         return new SimpleDateFormat("HH:mm:ss").format(new Date());
     }
@@ -0,0 +1,81 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Function;
+
+// Pomodoro > Stats: focus time, completion rate and streaks per day, week or month
+class PomodoroStatsDialog extends JDialog {
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("EEE yyyy-MM-dd");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("MMMM yyyy");
+
+    private final JComboBox<String> period = new JComboBox<>(new String[]{"Daily", "Weekly", "Monthly"});
+    private final JLabel summary = new JLabel("Loading...", SwingConstants.CENTER);
+    private final DefaultTableModel model = new DefaultTableModel(
+            new Object[]{"Period", "Focus (min)", "Breaks (min)", "Completed", "Interrupted", "Completion", "Pauses"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) { return false; }
+    };
+    private PomodoroLog.Stats stats;
+
+    PomodoroStatsDialog(Component parent, PomodoroLog log) {
+        super(SwingUtilities.getWindowAncestor(parent), "Pomodoro Statistics", ModalityType.MODELESS);
+        setSize(760, 480);
+        setLocationRelativeTo(parent);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        JPanel top = new JPanel(new BorderLayout(10, 0));
+        top.setBorder(new EmptyBorder(8, 10, 8, 10));
+        summary.setFont(new Font("SansSerif", Font.BOLD, 14));
+        top.add(summary, BorderLayout.CENTER);
+        top.add(period, BorderLayout.EAST);
+        add(top, BorderLayout.NORTH);
+        add(new JScrollPane(new JTable(model)), BorderLayout.CENTER);
+
+        period.addActionListener(e -> fill());
+        AsyncIO.onEdt(log.stats(), s -> {
+            stats = s;
+            fill();
+        }, "Could not load the Pomodoro statistics");
+    }
+
+    private void fill() {
+        if (stats == null) return;
+        model.setRowCount(0);
+        switch (period.getSelectedIndex()) {
+            case 0 -> addRows(stats.days(), DAY::format);
+            case 1 -> addRows(stats.weeks(), d -> "Week of " + DAY.format(d));
+            default -> addRows(stats.months(), MONTH::format);
+        }
+
+        PomodoroLog.Rollup today = stats.days().get(LocalDate.now());
+        long todayMinutes = today == null ? 0 : today.focusMillis / 60_000;
+        int completed = 0, interrupted = 0;
+        for (PomodoroLog.Rollup r : stats.months().values()) {
+            completed += r.completed;
+            interrupted += r.interrupted;
+        }
+        int ended = completed + interrupted;
+        summary.setText(String.format("Today: %d min   Streak: %d days (best %d)   Completion: %s",
+                todayMinutes, stats.currentStreak(), stats.longestStreak(),
+                ended == 0 ? "-" : Math.round(100.0 * completed / ended) + "%"));
+    }
+
+    // Newest first
+    private <K> void addRows(SortedMap<K, PomodoroLog.Rollup> rollups, Function<K, String> label) {
+        List<Map.Entry<K, PomodoroLog.Rollup>> rows = new ArrayList<>(rollups.entrySet());
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            PomodoroLog.Rollup r = rows.get(i).getValue();
+            double rate = r.completionRate();
+            model.addRow(new Object[]{label.apply(rows.get(i).getKey()),
+                    r.focusMillis / 60_000, r.breakMillis / 60_000, r.completed, r.interrupted,
+                    Double.isNaN(rate) ? "-" : Math.round(rate * 100) + "%", r.pauses});
+        }
+    }
+}
@@ -0,0 +1,12 @@
+// Anything a task can hang under (a Project or a parent Task).
+// Children report the change in their subtree's progress so ancestors never re-walk the tree.
+interface ProgressNode {
+    void childProgressChanged(int dCount, int dDone, int dWeight, int dDoneWeight);
+
+    // Focus time tracked somewhere in the child's subtree
+    void childTimeTracked(long dMillis);
+
+    // New tasks (counting their subtasks) added somewhere in the child's subtree.
+    // Reported separately because a first subtask adds a task without adding a leaf.
+    void childTasksCreated(int count);
+}
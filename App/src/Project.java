@@ -1,23 +1,37 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.time.Instant;
 
-public class Project implements Serializable {
+public class Project implements Serializable, ProgressNode {
     private static final long serialVersionUID = 3L;
 
+    // Top-level tasks; add and remove through addTask/removeTask so progress stays in sync
     List<Task> tasks = new ArrayList<>();
     private String name;
     private final UUID id;
     private final Instant creationDate;
 
+    // Progress over every leaf task in the project, maintained by the task tree
+    private transient int leafCount, doneCount, leafWeight, doneWeight;
+    private transient long trackedMillis; // Pomodoro focus time over every task
+
+    // Creation/completion history for burndown charts; null in files saved before it existed
+    private ProjectTimeline timeline = new ProjectTimeline();
+
     Project(String name){
         this.name = name;
         this.creationDate = Instant.now();
         this.id = UUID.randomUUID();
     }
 
+    public UUID getId() {
+        return id;
+    }
+
     public String getFileName() {
         return this.id.toString() + ".dat";
     }
@@ -34,4 +48,98 @@ public class Project implements Serializable {
     public Instant getCreationDate() {
         return creationDate;
     }
+
+    public void addTask(Task t) {
+        tasks.add(t);
+        t.link(this);
+        childProgressChanged(t.getLeafCount(), t.getDoneCount(), t.getLeafWeight(), t.getDoneWeight());
+        trackedMillis += t.getTrackedMillis();
+        childTasksCreated(t.taskCount());
+    }
+
+    /** Removes a task (top-level or nested) together with its subtasks. */
+    public void removeTask(Task t) {
+        Task parent = t.getParentTask();
+        if (parent != null) {
+            parent.removeSubtask(t);
+        } else if (tasks.remove(t)) {
+            childProgressChanged(-t.getLeafCount(), -t.getDoneCount(), -t.getLeafWeight(), -t.getDoneWeight());
+            trackedMillis -= t.getTrackedMillis();
+            t.unlink();
+        }
+    }
+
+    /** The task with this id anywhere in the tree, or null. */
+    public Task findTask(UUID taskId) {
+        return findTask(tasks, taskId);
+    }
+
+    private static Task findTask(List<Task> list, UUID taskId) {
+        for (Task t : list) {
+            if (t.getId().equals(taskId)) return t;
+            Task found = findTask(t.getSubtasks(), taskId);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    @Override
+    public void childProgressChanged(int dCount, int dDone, int dWeight, int dDoneWeight) {
+        addTotals(dCount, dDone, dWeight, dDoneWeight);
+        timeline.record(dCount, dDone);
+    }
+
+    @Override
+    public void childTimeTracked(long dMillis) {
+        trackedMillis += dMillis;
+    }
+
+    @Override
+    public void childTasksCreated(int count) {
+        timeline.recordCreated(count);
+    }
+
+    public long getTrackedMillis() {
+        return trackedMillis;
+    }
+
+    public ProjectTimeline getTimeline() {
+        return timeline;
+    }
+
+    /** Completion percentage over all leaf tasks, optionally weighted by difficulty. */
+    public int getProgressPercent(boolean weightByDifficulty) {
+        int total = weightByDifficulty ? leafWeight : leafCount;
+        int done = weightByDifficulty ? doneWeight : doneCount;
+        return total == 0 ? 0 : (int) ((done / (double) total) * 100);
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    public int getDoneCount() {
+        return doneCount;
+    }
+
+    private void addTotals(int dCount, int dDone, int dWeight, int dDoneWeight) {
+        leafCount += dCount;
+        doneCount += dDone;
+        leafWeight += dWeight;
+        doneWeight += dDoneWeight;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        for (Task t : tasks) {
+            t.link(this);
+            addTotals(t.getLeafCount(), t.getDoneCount(), t.getLeafWeight(), t.getDoneWeight());
+            trackedMillis += t.getTrackedMillis();
+        }
+        if (timeline == null) {
+            timeline = new ProjectTimeline();
+            long created = creationDate.atZone(java.time.ZoneId.systemDefault()).toLocalDate().toEpochDay();
+            timeline.seed(created, leafCount, doneCount);
+        }
+    }
 }
\ No newline at end of file
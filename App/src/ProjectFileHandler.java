@@ -1,55 +1,144 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 public class ProjectFileHandler {
+    private static final Log LOG = Log.get(ProjectFileHandler.class);
+    private static final LatencyHistogram LOAD_ALL = Metrics.histogram("project.loadAll");
+    private static final LatencyHistogram SAVE = Metrics.histogram("project.save");
+    private static final LatencyHistogram SERIALIZE = Metrics.histogram("project.serialize");
+    private static final LatencyHistogram DELETE = Metrics.histogram("project.delete");
+    private static final LongAdder BYTES_READ = Metrics.counter("project.bytesRead");
+    private static final LongAdder BYTES_WRITTEN = Metrics.counter("project.bytesWritten");
+
+    // null means the app's data folder, resolved on each call like before
+    private final File directory;
+
+    public ProjectFileHandler() {
+        this(null);
+    }
+
+    /** Reads and writes project files in the given folder instead of the app's data folder. */
+    ProjectFileHandler(File directory) {
+        this.directory = directory;
+    }
+
+    private File directory() {
+        return directory != null ? directory : AppConfig.getProjectDirectory();
+    }
+
     /**
      * Scans %APPDATA%/Group67/ for all .dat files and loads them.
      * @return List of Project objects sorted by Creation Date (Newest first).
      */
     public List<Project> loadAllProjects() {
+        long t0 = System.nanoTime();
         List<Project> projects = new ArrayList<>();
-        File dir = AppConfig.getProjectDirectory();
-
-        // 1. Filter for .dat files only
-        File[] files = dir.listFiles((d, name) -> name.endsWith(".dat"));
-
-        if (files != null) {
-            for (File file : files) {
-                try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-                    // 2. Deserialize the ENTIRE object (Name, ID, Date, Tasks)
-                    Project p = (Project) in.readObject();
-                    projects.add(p);
-                } catch (ClassCastException cce) {
-                    // ignore
-                } catch (Exception e) {
-                    System.err.println("Failed to load file: " + file.getName());
-                    e.printStackTrace(); // Skip corrupted files
-                }
-            }
-        }
+        forEachProject(projects::add);
 
         // 3. Sort by creation date (Newest on top)
         projects.sort(Comparator.comparing(Project::getCreationDate).reversed());
 
+        LOAD_ALL.recordSince(t0);
         return projects;
     }
 
+    /**
+     * Reads project files one at a time and hands each to the consumer, so callers
+     * that only scan (the CLI, exports) never hold every project in memory.
+     * Corrupted files are logged and skipped.
+     */
+    public void forEachProject(Consumer<Project> consumer) {
+        File dir = directory();
+
+        // 1. Only <UUID>.dat files are projects; subjects.dat and pomodoro.dat are skipped unread
+        File[] files = dir.listFiles((d, name) -> isProjectFileName(name));
+
+        if (files == null) return;
+        for (File file : files) {
+            AppEvents.ProjectLoad event = new AppEvents.ProjectLoad();
+            event.begin();
+            Project p;
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                // 2. Deserialize the ENTIRE object (Name, ID, Date, Tasks)
+                p = (Project) in.readObject();
+                BYTES_READ.add(file.length());
+                event.end();
+                if (event.shouldCommit()) {
+                    fill(event, p, file.length());
+                    event.commit();
+                }
+            } catch (ClassCastException cce) {
+                continue; // ignore
+            } catch (Exception e) {
+                LOG.error("Failed to load file: {}", file.getName(), e); // Skip corrupted files
+                continue;
+            }
+            consumer.accept(p);
+        }
+    }
+
+    static boolean isProjectFileName(String name) {
+        if (!name.endsWith(".dat")) return false;
+        try {
+            UUID.fromString(name.substring(0, name.length() - 4));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Saves a specific project to [UUID].dat
      */
     public void saveProject(Project p) {
-        File dir = AppConfig.getProjectDirectory();
+        try {
+            saveProjectOrThrow(p);
+//            System.out.println("Saved project: " + p.getName());
+        } catch (IOException e) {
+            LOG.error("Error saving project: {}", p.getName(), e);
+        }
+    }
+
+    /** Like saveProject, but a failed save is thrown instead of logged; for the CLI. */
+    public void saveProjectOrThrow(Project p) throws IOException {
+        long t0 = System.nanoTime();
+        AppEvents.ProjectSave event = new AppEvents.ProjectSave();
+        event.begin();
+        File dir = directory();
         // Use the Project's UUID for the filename
         File file = new File(dir, p.getFileName()); // e.g., "550e8400-e29b....dat"
+        writeProject(p, dir, file);
 
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+        // Only a save that reached the disk is counted
+        BYTES_WRITTEN.add(file.length());
+        SAVE.recordSince(t0);
+        event.end();
+        if (event.shouldCommit()) {
+            fill(event, p, file.length(), false);
+            event.commit();
+        }
+    }
+
+    // Written beside the target and renamed over it, so a crash never leaves half a file
+    private static void writeProject(Project p, File dir, File file) throws IOException {
+        File tmp = new File(dir, p.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
             out.writeObject(p);
-//            System.out.println("Saved project: " + p.getName());
-        } catch (IOException e) {
-            System.err.println("Error saving project: " + p.getName());
-            e.printStackTrace();
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException atomicFailed) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -57,15 +146,107 @@ public class ProjectFileHandler {
      * Deletes the specific [UUID].dat file
      */
     public void deleteProject(Project p) {
-        File dir = AppConfig.getProjectDirectory();
+        long t0 = System.nanoTime();
+        File dir = directory();
         File file = new File(dir, p.getFileName());
 
         if (file.exists()) {
             if (file.delete()) {
 //                System.out.println("Deleted file: " + file.getName());
             } else {
-                System.err.println("Failed to delete file: " + file.getName());
+                LOG.warn("Failed to delete file: {}", file.getName());
             }
         }
+        DELETE.recordSince(t0);
+    }
+
+    /* ---------- Async API (safe to call from the EDT) ---------- */
+
+    public CompletableFuture<List<Project>> loadAllProjectsAsync() {
+        return AsyncIO.submit(this::loadAllProjects);
+    }
+
+    /**
+     * Serializes the project on the calling thread, so the snapshot is consistent
+     * with the UI, then writes it on the I/O executor.
+     */
+    public CompletableFuture<Void> saveProjectAsync(Project p) {
+        long t0 = System.nanoTime();
+        AppEvents.ProjectSave event = new AppEvents.ProjectSave();
+        event.begin();
+        byte[] bytes;
+        try {
+            bytes = toBytes(p);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        SERIALIZE.recordSince(t0);
+        // Event fields are read now, on the caller's thread, while the project is consistent
+        if (event.isEnabled()) fill(event, p, bytes.length, true);
+        // Counted once per physical write: a save merged into a later one is not reported
+        return AsyncIO.writeFile(new File(directory(), p.getFileName()), bytes, () -> {
+            BYTES_WRITTEN.add(bytes.length);
+            SAVE.recordSince(t0);
+            event.end();
+            if (event.shouldCommit()) event.commit(); // duration spans serialization through the write
+        });
+    }
+
+    /**
+     * Keeps the folder in sync with ModelBus events: one save per changed project per
+     * batch, however many of its tasks changed, and a delete for removed projects. EDT.
+     */
+    void saveOnChange() {
+        ModelBus.subscribe(ModelEvent.class, batch -> {
+            Set<Project> changed = new LinkedHashSet<>();
+            Set<Project> removed = new LinkedHashSet<>();
+            for (ModelEvent e : batch) {
+                switch (e) {
+                    case ModelEvent.ProjectAdded a -> changed.add(a.project());
+                    case ModelEvent.ProjectRenamed r -> changed.add(r.project());
+                    case ModelEvent.TaskChanged t -> changed.add(t.project());
+                    case ModelEvent.ProjectRemoved r -> removed.add(r.project());
+                    default -> { }
+                }
+            }
+            for (Project p : changed) {
+                if (!removed.contains(p)) AsyncIO.reportErrors(saveProjectAsync(p), "Error saving project");
+            }
+            for (Project p : removed) AsyncIO.reportErrors(deleteProjectAsync(p), "Error deleting project");
+        });
+    }
+
+    /** Deletes the project file after any save still queued for it. */
+    public CompletableFuture<Void> deleteProjectAsync(Project p) {
+        File file = new File(directory(), p.getFileName());
+        return AsyncIO.runOnFile(file, () -> {
+            long t0 = System.nanoTime();
+            Files.deleteIfExists(file.toPath());
+            DELETE.recordSince(t0);
+        });
+    }
+
+    /* ---------- JFR ---------- */
+    private static void fill(AppEvents.ProjectLoad event, Project p, long bytes) {
+        event.projectId = AppEvents.projectId(p);
+        event.projectName = p.getName();
+        event.taskCount = p.getLeafCount();
+        event.bytes = bytes;
+    }
+
+    private static void fill(AppEvents.ProjectSave event, Project p, long bytes, boolean async) {
+        event.projectId = AppEvents.projectId(p);
+        event.projectName = p.getName();
+        event.taskCount = p.getLeafCount();
+        event.bytes = bytes;
+        event.async = async;
+    }
+
+    static byte[] toBytes(Serializable obj) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(obj);
+        }
+        return bytes.toByteArray();
     }
-}
\ No newline at end of file
+}
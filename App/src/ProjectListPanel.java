@@ -1,46 +1,58 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
 
 //Left panel: Projects list
 class ProjectListPanel extends JPanel {
     private final DefaultListModel<Project> model = new DefaultListModel<>();
     private final JList<Project> list = new JList<>(model);
-    private final MainFrame parent;
 
-    ProjectListPanel(MainFrame parent) {
-        this.parent = parent;
+    // Projects are loaded off the EDT by MainFrame and handed in here.
+    // Selecting and changing projects is announced on the ModelBus; saving is done there too.
+    ProjectListPanel(List<Project> loadedProjects) {
         setLayout(new BorderLayout());
         setPreferredSize(new Dimension(260, 600));
         setBorder(BorderFactory.createTitledBorder("Projects"));
 
-
-        // 1. INITIALIZE: Load all projects from disk
-        ProjectFileHandler pm = new ProjectFileHandler();
-        java.util.List<Project> loadedProjects = pm.loadAllProjects();
-
         // 2. Populate the model
         for (Project p : loadedProjects) {
             addProject(p);
         }
+        ApiSnapshot.publishProjects(model);
 
 
+        // Counts read on demand by the metrics registry
+        Metrics.gauge("projects.count", model::getSize);
+        Metrics.gauge("tasks.count", () -> {
+            long n = 0;
+            for (int i = 0; i < model.getSize(); i++) n += model.getElementAt(i).getLeafCount();
+            return n;
+        });
+
         list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
         list.setCellRenderer(new DefaultListCellRenderer() {
             @Override
             public Component getListCellRendererComponent(JList<?> lst, Object value, int idx, boolean sel, boolean focus) {
                 super.getListCellRendererComponent(lst, value, idx, sel, focus);
-                if (value instanceof Project p) setText(p.getName());
+                if (value instanceof Project p) {
+                    long tracked = p.getTrackedMillis();
+                    setText(tracked == 0 ? p.getName() : p.getName() + "  (" + Task.formatTracked(tracked) + ")");
+                }
                 return this;
             }
         });
 
 
+        // Tracked time shows next to the name; tasks change under the selected project
+        ModelBus.subscribe(ModelEvent.TaskChanged.class, batch -> list.repaint());
+
         list.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 Project p = list.getSelectedValue();
-                if (p != null) parent.loadProject(p);
+                if (p != null) ModelBus.publish(new ModelEvent.ProjectSelected(p));
             }
         });
 
@@ -54,13 +66,7 @@ class ProjectListPanel extends JPanel {
         add.addActionListener(e -> {
             String name = JOptionPane.showInputDialog(null, "Project name:");
             if (name != null && !name.trim().isEmpty()) {
-                Project p = new Project(name.trim());
-
-                // Save to disk immediately
-                pm.saveProject(p);
-
-                model.add(0, p); // Add to top since it's newest
-                selectProject(p);
+                selectProject(createProject(name.trim()));
             }
         });
 
@@ -71,7 +77,7 @@ class ProjectListPanel extends JPanel {
             String name = JOptionPane.showInputDialog(null, "New name:", p.getName());
             if (name != null && !name.trim().isEmpty()) {
                 p.setName(name.trim());
-                pm.saveProject(p);
+                ModelBus.publish(new ModelEvent.ProjectRenamed(p));
                 list.repaint();
             }
         });
@@ -82,9 +88,8 @@ class ProjectListPanel extends JPanel {
             if (p == null) { JOptionPane.showMessageDialog(null, "Select a project first."); return; }
             int ok = JOptionPane.showConfirmDialog(null, "Remove project \"" + p.getName() + "\"?","Confirm",JOptionPane.YES_NO_OPTION);
             if (ok == JOptionPane.YES_OPTION) {
-                pm.deleteProject(p);
                 model.removeElement(p);
-                parent.loadProject(null);
+                ModelBus.publish(new ModelEvent.ProjectRemoved(p));
             }
         });
 
@@ -98,6 +103,28 @@ class ProjectListPanel extends JPanel {
     }
 
     public void addProject(Project p) { model.addElement(p); }
+
+    // Used by the Add button and the local API; does not change the selection
+    Project createProject(String name) {
+        Project p = new Project(name);
+        model.add(0, p); // Add to top since it's newest
+        ModelBus.publish(new ModelEvent.ProjectAdded(p));
+        return p;
+    }
+
+    Project findById(java.util.UUID id) {
+        for (int i = 0; i < model.getSize(); i++) {
+            if (model.getElementAt(i).getId().equals(id)) return model.getElementAt(i);
+        }
+        return null;
+    }
+
+    List<Project> projects() {
+        List<Project> out = new ArrayList<>(model.getSize());
+        for (int i = 0; i < model.getSize(); i++) out.add(model.getElementAt(i));
+        return out;
+    }
+
     public void selectProject(Project p) { list.setSelectedValue(p, true); }
     public void selectFirstProject() {
         if (list.isSelectionEmpty() && list.getModel().getSize() > 0) {
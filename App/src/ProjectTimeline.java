@@ -0,0 +1,129 @@
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Per-project history of task creation and completion, stored as day and week buckets.
+ * Events always land on "today", which is the newest bucket, so every rollup is
+ * updated in O(1) and charts read the buckets directly instead of raw events.
+ */
+class ProjectTimeline implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Daily buckets, index 0 = firstDay. scope/done are end-of-day totals (leaf tasks),
+    // created is the number of tasks added that day and completed the net completions.
+    private long firstDay;
+    private int days = 0;
+    private int[] scope = new int[16];
+    private int[] done = new int[16];
+    private int[] created = new int[16];
+    private int[] completed = new int[16];
+
+    // Weekly buckets (Monday-based), index 0 = firstWeek
+    private long firstWeek;
+    private int weeks = 0;
+    private int[] weekCreated = new int[4];
+    private int[] weekCompleted = new int[4];
+
+    // Bumped on every change so cached charts know when to redraw
+    private transient int version;
+
+    /** Records a change in the project's leaf totals that happened today. */
+    void record(int dScope, int dDone) {
+        record(LocalDate.now().toEpochDay(), dScope, dDone);
+    }
+
+    void record(long day, int dScope, int dDone) {
+        int i = dayIndex(day);
+        scope[i] += dScope;
+        done[i] += dDone;
+        int w = weekIndex(day);
+        // Completions are net, so un-ticking a task takes its completion back. Deleted
+        // leaves take their done state with them without rewriting past velocity.
+        if (dDone > 0 || (dDone < 0 && dScope >= 0)) { completed[i] += dDone; weekCompleted[w] += dDone; }
+        version++;
+    }
+
+    /** Records tasks created today, subtasks included. */
+    void recordCreated(int count) {
+        recordCreated(LocalDate.now().toEpochDay(), count);
+    }
+
+    void recordCreated(long day, int count) {
+        int i = dayIndex(day);
+        int w = weekIndex(day);
+        created[i] += count;
+        weekCreated[w] += count;
+        version++;
+    }
+
+    /**
+     * Back-fills a project saved before timelines existed: its current totals are
+     * booked on the creation day, since the real dates were never recorded.
+     */
+    void seed(long day, int scopeTotal, int doneTotal) {
+        record(day, scopeTotal, doneTotal);
+        recordCreated(day, scopeTotal);
+    }
+
+    int getVersion() { return version; }
+    boolean isEmpty() { return days == 0; }
+    int getDayCount() { return days; }
+    LocalDate getFirstDay() { return LocalDate.ofEpochDay(firstDay); }
+    int getWeekCount() { return weeks; }
+    LocalDate getFirstWeek() { return LocalDate.ofEpochDay(firstWeek * 7 - 3); }
+
+    /** Open tasks at the end of the i-th recorded day. */
+    int remainingAt(int i) { return scope[i] - done[i]; }
+    int scopeAt(int i) { return scope[i]; }
+    int createdOn(int i) { return created[i]; }
+    int completedOn(int i) { return completed[i]; }
+    int completedInWeek(int w) { return weekCompleted[w]; }
+    int createdInWeek(int w) { return weekCreated[w]; }
+
+    /* ---------- internals ---------- */
+    // Returns the bucket for day, carrying the running totals forward to it
+    private int dayIndex(long day) {
+        if (days == 0) {
+            firstDay = day;
+            days = 1;
+            return 0;
+        }
+        long last = firstDay + days - 1;
+        if (day <= last) {
+            // Clock moved backwards: book it on the newest day rather than rewriting history
+            return days - 1;
+        }
+        int target = (int) (day - firstDay);
+        if (target >= scope.length) {
+            int cap = Math.max(target + 1, scope.length * 2);
+            scope = Arrays.copyOf(scope, cap);
+            done = Arrays.copyOf(done, cap);
+            created = Arrays.copyOf(created, cap);
+            completed = Arrays.copyOf(completed, cap);
+        }
+        for (int i = days; i <= target; i++) {
+            scope[i] = scope[days - 1];
+            done[i] = done[days - 1];
+        }
+        days = target + 1;
+        return target;
+    }
+
+    private int weekIndex(long day) {
+        long week = Math.floorDiv(day + 3, 7); // epoch day 0 was a Thursday
+        if (weeks == 0) {
+            firstWeek = week;
+            weeks = 1;
+            return 0;
+        }
+        int target = (int) Math.max(week - firstWeek, weeks - 1);
+        if (target >= weekCreated.length) {
+            int cap = Math.max(target + 1, weekCreated.length * 2);
+            weekCreated = Arrays.copyOf(weekCreated, cap);
+            weekCompleted = Arrays.copyOf(weekCompleted, cap);
+        }
+        weeks = Math.max(weeks, target + 1);
+        return target;
+    }
+}
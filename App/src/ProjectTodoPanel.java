@@ -2,44 +2,58 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.Cursor;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
 // TODO: ADD DEPENDENCY, WE MIGHT NEED TO LOOK INTO MAVEN
 import com.toedter.calendar.JDateChooser;
 
 class ProjectTodoPanel extends JPanel {
     static final SafeDateFormat DATE_FMT = new SafeDateFormat("MM/dd/yyyy");
+    private static final LatencyHistogram REFRESH = Metrics.histogram("ui.refreshTasks");
+    private static final LongAdder ROWS_BUILT = Metrics.counter("ui.taskRowsBuilt");
 
     private Project currentProject = null;
-    private final ProjectFileHandler pm = new ProjectFileHandler();
 
     // UI pieces
     private final JProgressBar progressBar = new JProgressBar();
     private final JComboBox<String> sortMode = new JComboBox<>(new String[]{"Sort: Deadline", "Sort: Difficulty", "Sort: Name"});
     private final JButton addTaskButton = new JButton("Add Task");
+    private final JButton planButton = new JButton("Plan");
+    private final JCheckBox weightedProgress = new JCheckBox("Weight by difficulty");
+
+    // Tasks whose subtasks are shown; collapsed subtrees get no rows at all
+    private final Set<Task> expanded = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Auto-scheduler: built on first use, then kept in sync with every task change
+    private IntFunction<TaskScheduler.Capacity> capacitySource = minutes ->
+            new TaskScheduler.Capacity(25, 5, 15, 4, minutes);
+    private int focusMinutesPerDay = TaskScheduler.DEFAULT_FOCUS_MINUTES_PER_DAY;
+    private TaskScheduler scheduler = null;
 
     // Separate containers for Unfinished and Finished tasks
     private final JPanel unfinishedTaskListPanel = new JPanel();
     private final JPanel finishedTaskListPanel = new JPanel();
+    private final BurndownChart burndownChart = new BurndownChart();
 
     //Layout to switch between the two categories
     private final JTabbedPane tabbedPane = new JTabbedPane(); // contains rows, scrollable
 
 
-    private static ImageIcon loadIcon(String filename, int w, int h) {
-        String path = "App/assets/" + filename;
-        ImageIcon raw = new ImageIcon(path);
-        Image img = raw.getImage().getScaledInstance(w, h, Image.SCALE_SMOOTH);
-        return new ImageIcon(img);
-    }
-
-    private static final ImageIcon ICON_DONE   = loadIcon("check.png", 24, 24);
-    private static final ImageIcon ICON_UNDO   = loadIcon("undo.png", 24, 24);
-    private static final ImageIcon ICON_EDIT   = loadIcon("pencil.png", 24, 24);
-    private static final ImageIcon ICON_DELETE = loadIcon("trash.png", 24, 24);
+    // Shared, pre-scaled icons; decoding happens on the asset loader thread
+    private static final Icon ICON_DONE   = Assets.icon("check.png", 24, 24);
+    private static final Icon ICON_UNDO   = Assets.icon("undo.png", 24, 24);
+    private static final Icon ICON_EDIT   = Assets.icon("pencil.png", 24, 24);
+    private static final Icon ICON_DELETE = Assets.icon("trash.png", 24, 24);
 
     ProjectTodoPanel() {
         setLayout(new BorderLayout());
@@ -54,6 +68,8 @@ class ProjectTodoPanel extends JPanel {
         JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
         controls.add(addTaskButton);
         controls.add(sortMode);
+        controls.add(planButton);
+        controls.add(weightedProgress);
 
         topContainer.add(progressBar);
         topContainer.add(controls);
@@ -72,18 +88,39 @@ class ProjectTodoPanel extends JPanel {
         JScrollPane finishedScroll = new JScrollPane(finishedTaskListPanel);
         tabbedPane.addTab("Unfinished", unfinishedScroll);
         tabbedPane.addTab("Finished", finishedScroll);
+        tabbedPane.addTab("Burndown", burndownChart);
         add(tabbedPane, BorderLayout.CENTER);
 
         // handlers
-        addTaskButton.addActionListener(e -> openAddTaskDialog());
+        addTaskButton.addActionListener(e -> openAddTaskDialog(null));
+        weightedProgress.addActionListener(e -> updateProgress());
         sortMode.addActionListener(e -> refreshTasks());
+        sortMode.setName("task.sort");
+        planButton.addActionListener(e -> openPlanDialog());
+
+        ModelBus.subscribe(ModelEvent.ProjectSelected.class, batch -> loadProject(ModelBus.last(batch).project()));
+        ModelBus.subscribe(ModelEvent.ProjectRemoved.class, batch -> {
+            for (ModelEvent.ProjectRemoved e : batch) {
+                if (e.project() == currentProject) loadProject(null);
+            }
+        });
+        ModelBus.subscribe(ModelEvent.TaskChanged.class, this::tasksChanged);
     }
 
+    /** Shows a project; its tasks are sorted on the EDT by refreshTasks like any redraw. */
     public void loadProject(Project p) {
         currentProject = p;
+        scheduler = null;
+        expanded.clear();
         refreshTasks();
     }
 
+    // Daily capacity comes from the Pomodoro tab's work/break settings
+    public void setCapacitySource(IntFunction<TaskScheduler.Capacity> source) {
+        this.capacitySource = source;
+        scheduler = null;
+    }
+
     /* ---------- UI builders ---------- */
     private JPanel createHeaderRow() {
 //        JPanel row = new JPanel(new GridLayout(1,4,4,4));
@@ -111,6 +148,10 @@ class ProjectTodoPanel extends JPanel {
         dl.setHorizontalAlignment(SwingConstants.CENTER);
         dl.setVerticalAlignment(SwingConstants.TOP);
 
+        JLabel tr = new JLabel("Tracked");
+        tr.setHorizontalAlignment(SwingConstants.CENTER);
+        tr.setVerticalAlignment(SwingConstants.TOP);
+
         JLabel ac = new JLabel("Actions");
         ac.setHorizontalAlignment(SwingConstants.RIGHT);
         ac.setVerticalAlignment(SwingConstants.TOP);
@@ -118,6 +159,7 @@ class ProjectTodoPanel extends JPanel {
         row.add(name);
         row.add(diff);
         row.add(dl);
+        row.add(tr);
         row.add(ac);
 
         return row;
@@ -129,13 +171,28 @@ class ProjectTodoPanel extends JPanel {
 //        return l;
 //    }
 
-    private JPanel createTaskRow(Task t) {
-        JPanel row = new JPanel(new GridLayout(1,4,4,4));
+    private JPanel createTaskRow(Task t, int depth) {
+        JPanel row = new JPanel(new GridLayout(1,5,4,4));
         row.setBorder(new EmptyBorder(6,6,6,6));
 
-        JLabel name = new JLabel(t.getName());
+        String label = t.getName();
+        if (t.hasSubtasks()) {
+            label = (expanded.contains(t) ? "▾ " : "▸ ") + label
+                    + "  (" + t.getDoneCount() + "/" + t.getLeafCount() + ")";
+        }
+        JLabel name = new JLabel(label);
         name.setMaximumSize(new Dimension(1000,0));
-        name.setBorder(new EmptyBorder(20,0,0,0));
+        name.setBorder(new EmptyBorder(20,depth * 24,0,0));
+        if (t.hasSubtasks()) {
+            name.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+            name.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (!expanded.remove(t)) expanded.add(t);
+                    refreshTasks();
+                }
+            });
+        }
         name.setFont(new Font("Default", Font.PLAIN, 14));
         name.setToolTipText(t.getName());
         name.setVerticalAlignment(SwingConstants.TOP);
@@ -152,10 +209,18 @@ class ProjectTodoPanel extends JPanel {
         dl.setHorizontalAlignment(SwingConstants.CENTER);
         dl.setVerticalAlignment(SwingConstants.TOP);
 
+        JLabel tracked = new JLabel(t.getTrackedString());
+        tracked.setBorder(new EmptyBorder(20,0,0,0));
+        tracked.setFont(new Font("Default", Font.PLAIN, 14));
+        tracked.setHorizontalAlignment(SwingConstants.CENTER);
+        tracked.setVerticalAlignment(SwingConstants.TOP);
+        tracked.setToolTipText("Pomodoro focus time, subtasks included");
+
 //        JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 2));
         JPanel actions = new JPanel(new GridLayout(1,0,5,0));
 
         JButton finish = new JButton();
+        finish.setName("task.finish");
         finish.setIcon(t.isCompleted() ? ICON_UNDO : ICON_DONE);
         finish.setHorizontalAlignment(SwingConstants.CENTER);
 
@@ -168,7 +233,12 @@ class ProjectTodoPanel extends JPanel {
         remove.setIcon(ICON_DELETE);
         remove.setHorizontalAlignment(SwingConstants.CENTER);
 
-        for (JButton b : new JButton[]{finish, edit, remove}) {
+        JButton subtask = new JButton("+");
+        subtask.setToolTipText("Add subtask");
+        subtask.setFont(new Font("Default", Font.BOLD, 16));
+        subtask.setHorizontalAlignment(SwingConstants.CENTER);
+
+        for (JButton b : new JButton[]{finish, edit, remove, subtask}) {
             b.setFocusPainted(false);
             b.setContentAreaFilled(false);      // no background by default
             b.setOpaque(false);
@@ -193,36 +263,28 @@ class ProjectTodoPanel extends JPanel {
             });
         }
 
-        finish.addActionListener(e -> {
-            boolean newState = !t.isCompleted();
-            t.setCompleted(newState);
-
-            saveCurrentProject();
-
-            refreshTasks();
-        });
+        finish.addActionListener(e -> toggleCompleted(t));
 
 
         edit.addActionListener(e -> openEditTaskDialog(t));
+        subtask.addActionListener(e -> openAddTaskDialog(t));
 
         remove.addActionListener(e -> {
             int ok = JOptionPane.showConfirmDialog(null, "Delete task \""+t.getName()+"\"?","Confirm",JOptionPane.YES_NO_OPTION);
-            if (ok == JOptionPane.YES_OPTION) {
-                currentProject.tasks.remove(t);
-                saveCurrentProject();
-                refreshTasks();
-            }
+            if (ok == JOptionPane.YES_OPTION) removeTask(currentProject, t);
         });
 
 
 //        actions.setMinimumSize(new Dimension(500, 50));
         actions.add(finish);
         if (!t.isCompleted()) actions.add(edit);
+        if (!t.isCompleted()) actions.add(subtask);
         actions.add(remove);
         actions.setAlignmentY((float)0.0);
         row.add(name);
         row.add(diff);
         row.add(dl);
+        row.add(tracked);
         row.add(actions);
 
         return row;
@@ -239,7 +301,8 @@ class ProjectTodoPanel extends JPanel {
     }
 
     /* ---------- Dialogs ---------- */
-    private void openAddTaskDialog() {
+    // parent == null adds a top-level task, otherwise a subtask of parent
+    private void openAddTaskDialog(Task parent) {
         if (currentProject == null) { JOptionPane.showMessageDialog(null, "Select a project first."); return; }
 
         JTextField nameField = new JTextField(18);
@@ -262,7 +325,8 @@ class ProjectTodoPanel extends JPanel {
 
         panel.add(new JLabel("Difficulty (0-3):")); panel.add(difficultyBox);
 
-        int res = JOptionPane.showConfirmDialog(null, panel, "Add Task", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        String title = parent == null ? "Add Task" : "Add Subtask to \"" + parent.getName() + "\"";
+        int res = JOptionPane.showConfirmDialog(null, panel, title, JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         if (res != JOptionPane.OK_OPTION) return;
 
         String name = nameField.getText().trim();
@@ -271,11 +335,66 @@ class ProjectTodoPanel extends JPanel {
 
         if (name.isEmpty()) { JOptionPane.showMessageDialog(null, "Task name cannot be empty."); return; }
 
-        currentProject.tasks.add(new Task(name, diff, deadline));
+        addTask(parent, new Task(name, diff, deadline));
+    }
 
-        saveCurrentProject();
+    /* ---------- Task actions (EDT) ---------- */
+    // Shared by the dialogs, the row buttons and the local API. The project does not have
+    // to be the one on screen. Each action only changes the model and publishes a
+    // TaskChanged; saving, rescheduling and redrawing happen once per batch.
+    void addTask(Task parent, Task added) {
+        addTask(currentProject, parent, added);
+    }
 
-        refreshTasks();
+    void addTask(Project project, Task parent, Task added) {
+        if (parent == null) {
+            project.addTask(added);
+            taskChanged(project, added, ModelEvent.Change.ADDED);
+        } else {
+            parent.addSubtask(added);
+            if (project == currentProject) expanded.add(parent);
+            taskChanged(project, rootOf(parent), ModelEvent.Change.UPDATED);
+        }
+    }
+
+    void toggleCompleted(Task t) {
+        setCompleted(currentProject, t, !t.isCompleted());
+    }
+
+    void setCompleted(Project project, Task t, boolean completed) {
+        t.setCompleted(completed);
+        taskChanged(project, rootOf(t), ModelEvent.Change.UPDATED);
+    }
+
+    // A finished Pomodoro work period, from the Pomodoro tab
+    void addTrackedTime(Project project, Task t, long millis) {
+        t.addTrackedTime(millis);
+        taskChanged(project, rootOf(t), ModelEvent.Change.UPDATED);
+    }
+
+    void removeTask(Project project, Task t) {
+        Task parentTask = t.getParentTask();
+        project.removeTask(t);
+        if (project == currentProject) expanded.remove(t);
+        if (parentTask == null) taskChanged(project, t, ModelEvent.Change.REMOVED);
+        else taskChanged(project, rootOf(parentTask), ModelEvent.Change.UPDATED);
+    }
+
+    private static void taskChanged(Project project, Task root, ModelEvent.Change change) {
+        ModelBus.publish(new ModelEvent.TaskChanged(project, root, change));
+    }
+
+    // One reschedule per changed task and one redraw per batch, for the open project only
+    private void tasksChanged(List<ModelEvent.TaskChanged> batch) {
+        boolean redraw = false;
+        for (ModelEvent.TaskChanged e : batch) {
+            if (e.project() != currentProject) continue;
+            redraw = true;
+            if (scheduler == null) continue;
+            if (e.change() == ModelEvent.Change.REMOVED) scheduler.remove(e.task());
+            else scheduler.update(e.task());
+        }
+        if (redraw) refreshTasks();
     }
 
     private void openEditTaskDialog(Task t) {
@@ -316,16 +435,79 @@ class ProjectTodoPanel extends JPanel {
         t.setDifficulty(diff);
         t.setDeadline(deadline);
 
-        saveCurrentProject();
+        taskChanged(currentProject, rootOf(t), ModelEvent.Change.UPDATED);
+    }
 
-        refreshTasks();
+    private void openPlanDialog() {
+        if (currentProject == null) { JOptionPane.showMessageDialog(null, "Select a project first."); return; }
+
+        JSpinner hoursBox = new JSpinner(new SpinnerNumberModel(focusMinutesPerDay / 60.0, 0.5, 16.0, 0.5));
+        JPanel ask = new JPanel(new GridLayout(1,2,8,8));
+        ask.add(new JLabel("Focus hours per day:")); ask.add(hoursBox);
+        int res = JOptionPane.showConfirmDialog(null, ask, "Plan Tasks", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (res != JOptionPane.OK_OPTION) return;
+
+        int minutes = (int) Math.round(((Number) hoursBox.getValue()).doubleValue() * 60);
+        TaskScheduler.Capacity capacity = capacitySource.apply(minutes);
+        // Rebuilt when the settings, the day or the learned pace changed since the last plan
+        if (scheduler == null || minutes != focusMinutesPerDay || !capacity.equals(scheduler.getCapacity())
+                || !scheduler.getDay().equals(LocalDate.now())
+                || Double.compare(scheduler.getPace(), TaskScheduler.trackedPace(currentProject.tasks, capacity.workMinutes())) != 0) {
+            focusMinutesPerDay = minutes;
+            scheduler = new TaskScheduler(capacity);
+            scheduler.planAll(currentProject.tasks);
+        }
+
+        JTextArea text = new JTextArea(describePlan(scheduler), 20, 48);
+        text.setEditable(false);
+        text.setFont(new Font("Monospaced", Font.PLAIN, 13));
+        text.setCaretPosition(0);
+        JOptionPane.showMessageDialog(null, new JScrollPane(text), "Plan: " + currentProject.getName(), JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static String describePlan(TaskScheduler s) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(s.getPomodorosPerDay()).append(" Pomodoros per day\n");
+        if (!Double.isNaN(s.getPace())) {
+            sb.append(String.format("Estimates from tracked time: %.1f Pomodoros per difficulty point%n", s.getPace()));
+        }
+
+        List<TaskScheduler.Warning> warnings = s.warnings();
+        if (!warnings.isEmpty()) {
+            sb.append("\nOVERLOADED - ").append(warnings.size()).append(" task(s) will miss their deadline:\n");
+            for (TaskScheduler.Warning w : warnings) sb.append("  ! ").append(w).append('\n');
+        }
+
+        java.time.LocalDate day = java.time.LocalDate.now();
+        int horizon = s.horizonDays();
+        for (int d = 0; d < horizon; d++, day = day.plusDays(1)) {
+            sb.append('\n').append(day).append('\n');
+            for (TaskScheduler.Slot slot : s.day(d)) {
+                sb.append(slot.late() ? "  ! " : "    ")
+                  .append(slot.pomodoros()).append(" x  ")
+                  .append(slot.task().getName()).append('\n');
+            }
+        }
+        if (horizon == 0) sb.append("\nNothing left to plan.\n");
+        return sb.toString();
+    }
+
+    // The scheduler plans top-level tasks only
+    private static Task rootOf(Task t) {
+        while (t.getParentTask() != null) t = t.getParentTask();
+        return t;
     }
 
     /* ---------- Refresh & Sorting ---------- */
     private void refreshTasks() {
+        long t0 = System.nanoTime();
+        AppEvents.TaskRefresh refreshEvent = new AppEvents.TaskRefresh();
+        refreshEvent.begin();
         unfinishedTaskListPanel.removeAll();
         finishedTaskListPanel.removeAll();
 
+        burndownChart.setTimeline(currentProject == null ? null : currentProject.getTimeline());
+
         if (currentProject == null) {
             progressBar.setValue(0);
             progressBar.setString("No project selected");
@@ -334,38 +516,67 @@ class ProjectTodoPanel extends JPanel {
         }
 
         // sorting
-        switch (sortMode.getSelectedIndex()) {
-            case 1 -> currentProject.tasks.sort(Comparator.comparingInt(task -> task.getDifficulty()));
-            case 2 -> currentProject.tasks.sort(Comparator.comparing(task -> task.getName().toLowerCase()));
-            default -> currentProject.tasks.sort(Comparator.comparing(task -> task.getDeadline(), Comparator.nullsLast(Comparator.naturalOrder())));
+        Comparator<Task> order = taskOrder();
+        AppEvents.TaskSort sortEvent = new AppEvents.TaskSort();
+        sortEvent.begin();
+        currentProject.tasks.sort(order);
+        sortEvent.end();
+        if (sortEvent.shouldCommit()) {
+            sortEvent.sortMode = sortModeName();
+            sortEvent.taskCount = currentProject.tasks.size();
+            sortEvent.commit();
         }
 
-        // add rows
-        int completedTasks = 0;
+        // add rows; subtasks follow their parent only while it is expanded
         for(Task t : currentProject.tasks){
-            JPanel row = createTaskRow(t);
-            if(t.isCompleted()){
-                finishedTaskListPanel.add(wrapFixedHeight(row));
-                completedTasks++;
-            }else{
-                unfinishedTaskListPanel.add(wrapFixedHeight(row));
-            }
+            JPanel target = t.isCompleted() ? finishedTaskListPanel : unfinishedTaskListPanel;
+            addTaskRows(target, t, 0, order);
         }
 
-        int totalTasks = currentProject.tasks.size();
-        int pct = totalTasks == 0 ? 0 : (int)((completedTasks / (double) totalTasks) * 100);
-        progressBar.setValue(pct);
-        progressBar.setString(pct + "% completed");
+        updateProgress();
 
         revalidate(); repaint();
+        REFRESH.recordSince(t0);
+        refreshEvent.end();
+        if (refreshEvent.shouldCommit()) {
+            refreshEvent.sortMode = sortModeName();
+            refreshEvent.rowCount = unfinishedTaskListPanel.getComponentCount()
+                    + finishedTaskListPanel.getComponentCount();
+            refreshEvent.projectId = AppEvents.projectId(currentProject);
+            refreshEvent.commit();
+        }
     }
 
-
-    // Save tasks in the project file
-    public void saveCurrentProject(){
-        if (currentProject != null){
-            pm.saveProject(currentProject);
+    private void addTaskRows(JPanel target, Task t, int depth, Comparator<Task> order) {
+        target.add(wrapFixedHeight(createTaskRow(t, depth)));
+        ROWS_BUILT.increment();
+        if (t.hasSubtasks() && expanded.contains(t)) {
+            t.subtaskList().sort(order);
+            for (Task child : t.subtaskList()) {
+                addTaskRows(target, child, depth + 1, order);
+            }
         }
     }
 
+    private String sortModeName() {
+        return switch (sortMode.getSelectedIndex()) {
+            case 1 -> "difficulty";
+            case 2 -> "name";
+            default -> "deadline";
+        };
+    }
+
+    // Combo box indices match Task.order modes
+    private Comparator<Task> taskOrder() {
+        return Task.order(sortMode.getSelectedIndex());
+    }
+
+    // Reads the project's rolled-up totals, no tree walk
+    private void updateProgress() {
+        if (currentProject == null) return;
+        int pct = currentProject.getProgressPercent(weightedProgress.isSelected());
+        progressBar.setValue(pct);
+        progressBar.setString(pct + "% completed");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+// GWA tab > Roster: ranked GWA for a whole section from a CSV, for advisers. The work runs
+// on its own thread; the dialog polls its progress and can cancel it.
+class RosterDialog extends JDialog {
+    private static final Log LOG = Log.get(RosterDialog.class);
+
+    private final JTextField inputField = new JTextField(28);
+    private final JTextField outputField = new JTextField(28);
+    private final JButton runButton = new JButton("Run");
+    private final JProgressBar progress = new JProgressBar(0, 1000);
+    private final JTextArea summary = new JTextArea(8, 50);
+    private final javax.swing.Timer pollTimer = new javax.swing.Timer(100, e -> refresh());
+
+    private RosterGwa job;
+
+    RosterDialog(Frame owner) {
+        super(owner, "Roster GWA", false);
+
+        JPanel files = new JPanel(new GridBagLayout());
+        files.setBorder(new EmptyBorder(10, 10, 5, 10));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(3, 3, 3, 3);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        addFileRow(files, gbc, 0, "Roster CSV (student,subject,units,grade):", inputField, false);
+        addFileRow(files, gbc, 1, "Ranked results:", outputField, true);
+        add(files, BorderLayout.NORTH);
+
+        summary.setEditable(false);
+        summary.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane summaryPane = new JScrollPane(summary);
+        summaryPane.setBorder(BorderFactory.createTitledBorder("Summary"));
+        add(summaryPane, BorderLayout.CENTER);
+
+        progress.setStringPainted(true);
+        progress.setString("Not started");
+        JPanel bottom = new JPanel(new BorderLayout(5, 5));
+        bottom.setBorder(new EmptyBorder(5, 10, 10, 10));
+        bottom.add(progress, BorderLayout.CENTER);
+        bottom.add(runButton, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+
+        runButton.addActionListener(e -> {
+            if (job != null) job.cancel();
+            else start();
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                if (job != null) job.cancel();
+            }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private void addFileRow(JPanel panel, GridBagConstraints gbc, int row, String label, JTextField field, boolean save) {
+        JButton browse = new JButton("Browse…");
+        browse.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(field.getText().isBlank() ? null : new File(field.getText()));
+            int result = save ? chooser.showSaveDialog(this) : chooser.showOpenDialog(this);
+            if (result != JFileChooser.APPROVE_OPTION) return;
+            String path = chooser.getSelectedFile().getAbsolutePath();
+            field.setText(path);
+            // Suggest an output file next to the roster
+            if (!save && outputField.getText().isBlank()) {
+                outputField.setText(path.replaceFirst("(\\.csv)?$", "-ranked.csv"));
+            }
+        });
+        gbc.gridy = row;
+        gbc.gridx = 0; gbc.weightx = 0;
+        panel.add(new JLabel(label), gbc);
+        gbc.gridx = 1; gbc.weightx = 1;
+        panel.add(field, gbc);
+        gbc.gridx = 2; gbc.weightx = 0;
+        panel.add(browse, gbc);
+    }
+
+    private void start() {
+        File input = new File(inputField.getText().trim());
+        File output = new File(outputField.getText().trim());
+        if (!input.isFile() || !input.canRead()) {
+            JOptionPane.showMessageDialog(this, "Choose a roster file to read");
+            return;
+        }
+        if (outputField.getText().isBlank() || output.getAbsoluteFile().equals(input.getAbsoluteFile())) {
+            JOptionPane.showMessageDialog(this, "Choose a different file for the ranked results");
+            return;
+        }
+
+        RosterGwa roster = new RosterGwa(input.toPath());
+        job = roster;
+        summary.setText("");
+        runButton.setText("Cancel");
+        Thread worker = new Thread(() -> {
+            String text;
+            try (Writer w = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+                text = String.join("\n", roster.run(w).lines());
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Roster GWA failed: {}", input, e);
+                text = "Failed: " + e.getMessage();
+            }
+            String result = text;
+            SwingUtilities.invokeLater(() -> finished(roster, result));
+        }, "roster-reader");
+        worker.setDaemon(true);
+        worker.start();
+        pollTimer.start();
+    }
+
+    private void finished(RosterGwa roster, String text) {
+        if (job != roster) return;
+        refresh();
+        pollTimer.stop();
+        job = null;
+        runButton.setText("Run");
+        summary.setText(text);
+        summary.setCaretPosition(0);
+    }
+
+    private void refresh() {
+        RosterGwa roster = job;
+        if (roster == null) return;
+        long total = Math.max(1, roster.totalBytes());
+        // Reading is most of the work; ranking and writing take the last tenth of the bar
+        int value = switch (roster.phase()) {
+            case "Reading" -> (int) (900 * roster.bytesRead() / total);
+            case "Ranking" -> 900;
+            case "Writing" -> 950;
+            case "Done" -> 1000;
+            default -> progress.getValue();
+        };
+        progress.setValue(value);
+        progress.setString(roster.phase() + (roster.phase().equals("Writing")
+                ? String.format(" (%,d students)", roster.written())
+                : String.format(" (%,d of %,d KB)", roster.bytesRead() >> 10, total >> 10)));
+    }
+}
@@ -0,0 +1,470 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch GWA for a whole section: streams a roster CSV with one "student,subject,units,grade"
+ * row per line and writes every student's GWA, best first, using the same fixed-point sums
+ * and rounding as the GWA tab. The headless CLI and the GWA tab both run it.
+ *
+ * Lines are parsed in blocks on a small pool while the next block is read, with only a few
+ * blocks in flight. Rosters over PARTITION_BYTES are split by student into temporary
+ * partition files that are totalled and sorted one at a time per thread and then merged,
+ * so memory is bounded by a partition rather than the roster. Ranked rows are written as
+ * the merge produces them.
+ */
+final class RosterGwa {
+    static final String HEADER = "rank,student,subjects,units,gwa";
+    private static final int BLOCK_LINES = 8192;
+    private static final long PARTITION_BYTES = 32L << 20;
+    private static final int MAX_PROBLEMS = 20;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    /** One student's totals in the same units as Subject.Totals. */
+    record Standing(String student, int subjects, long unitCents, long weightedScaled) {
+        long gwaCents() { return (2 * weightedScaled + unitCents) / (2 * unitCents); }
+
+        Standing plus(Standing o) {
+            return new Standing(student, subjects + o.subjects, unitCents + o.unitCents, weightedScaled + o.weightedScaled);
+        }
+    }
+
+    /** Best GWA first (higher is better); ties in name order so reruns match. */
+    static final Comparator<Standing> RANKING = Comparator.comparingLong(Standing::gwaCents).reversed()
+            .thenComparing(Standing::student);
+
+    record Summary(long rows, long skipped, long students, long bestCents, long medianCents, long worstCents,
+                   double mean, List<String> problems, boolean cancelled) {
+        List<String> lines() {
+            List<String> out = new ArrayList<>();
+            out.add((cancelled ? "Cancelled after " : "") + String.format("%,d students from %,d rows", students, rows)
+                    + (skipped > 0 ? String.format(" (%,d rows skipped)", skipped) : ""));
+            if (students > 0) {
+                out.add(String.format("Best %s, median %s, worst %s, mean %.2f", Subject.centsText(bestCents),
+                        Subject.centsText(medianCents), Subject.centsText(worstCents), mean));
+            }
+            out.addAll(problems);
+            if (skipped > problems.size()) out.add(String.format("... and %,d more", skipped - problems.size()));
+            return out;
+        }
+    }
+
+    private final Path input;
+    private final int threads;
+    private final LongAdder rows = new LongAdder(), skipped = new LongAdder();
+    private final List<String> problems = new ArrayList<>(); // guarded by itself
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Progress, read by the GUI while run() works
+    private volatile long bytesRead, totalBytes, written;
+    private volatile String phase = "Waiting";
+    private volatile boolean cancelled;
+
+    RosterGwa(Path input) {
+        this.input = input;
+        this.threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    void cancel() { cancelled = true; }
+
+    long bytesRead() { return bytesRead; }
+
+    long totalBytes() { return totalBytes; }
+
+    long written() { return written; }
+
+    String phase() { return phase; }
+
+    /** Reads the roster and writes the ranked CSV to out. Blocking; cancel() stops it early. */
+    Summary run(Writer out) throws IOException {
+        totalBytes = Files.size(input);
+        int partitions = (int) Math.max(1, Math.min(256, (totalBytes + PARTITION_BYTES - 1) / PARTITION_BYTES));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "roster-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Path spillDir = partitions > 1 ? Files.createTempDirectory("group67-roster") : null;
+        try (Partitions parts = new Partitions(partitions, spillDir)) {
+            phase = "Reading";
+            read(pool, parts);
+            rethrow();
+            phase = "Ranking";
+            List<Cursor> runs = parts.sortedRuns(pool);
+            rethrow();
+            phase = "Writing";
+            Summary summary = merge(runs, out);
+            phase = cancelled ? "Cancelled" : "Done";
+            return summary;
+        } finally {
+            pool.shutdownNow();
+            if (spillDir != null) deleteTree(spillDir);
+        }
+    }
+
+    /* ---------- reading ---------- */
+    private void read(ExecutorService pool, Partitions parts) throws IOException {
+        Semaphore inFlight = new Semaphore(threads * 2); // bounds the lines held in memory
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CountingStream(Files.newInputStream(input)), StandardCharsets.UTF_8), 1 << 16)) {
+            List<String> block = new ArrayList<>(BLOCK_LINES);
+            long lineNo = 0, blockStart = 1;
+            String line;
+            while (!cancelled && failure.get() == null && (line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo == 1 && isHeader(line)) { blockStart = 2; continue; }
+                block.add(line);
+                if (block.size() == BLOCK_LINES) {
+                    submit(pool, inFlight, block, blockStart, parts);
+                    block = new ArrayList<>(BLOCK_LINES);
+                    blockStart = lineNo + 1;
+                }
+            }
+            if (!block.isEmpty() && !cancelled) submit(pool, inFlight, block, blockStart, parts);
+            inFlight.acquireUninterruptibly(threads * 2); // every block is in
+        }
+    }
+
+    private void submit(ExecutorService pool, Semaphore inFlight, List<String> block, long firstLine, Partitions parts) {
+        inFlight.acquireUninterruptibly();
+        pool.execute(() -> {
+            try {
+                parts.add(totalBlock(block, firstLine));
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // Sums a block per student first, so each student is handed on once per block
+    private Map<String, Standing> totalBlock(List<String> lines, long firstLine) {
+        Map<String, Standing> totals = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) continue;
+            String[] f = fields(line);
+            String problem;
+            if (f.length != 4) {
+                problem = "expected student,subject,units,grade";
+            } else if (f[0].isEmpty()) {
+                problem = "missing student";
+            } else {
+                try {
+                    double units = Double.parseDouble(f[2]), grade = Double.parseDouble(f[3]);
+                    problem = Subject.check(f[1], units, grade);
+                    long u = Subject.cents(units);
+                    if (problem == null && u == 0) problem = "Units must be at least 0.01";
+                    if (problem == null) {
+                        totals.merge(f[0], new Standing(f[0], 1, u, Subject.cents(grade) * u), Standing::plus);
+                        rows.increment();
+                        continue;
+                    }
+                } catch (NumberFormatException e) {
+                    problem = "units and grade must be numbers";
+                }
+            }
+            skipped.increment();
+            synchronized (problems) {
+                if (problems.size() < MAX_PROBLEMS) problems.add("line " + (firstLine + i) + ": " + problem);
+            }
+        }
+        return totals;
+    }
+
+    private static boolean isHeader(String line) {
+        String[] f = fields(line);
+        if (f.length != 4) return false;
+        try {
+            Double.parseDouble(f[2]);
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /** Splits one CSV line; double quotes may wrap a field and "" inside them is a quote. */
+    static String[] fields(String line) {
+        List<String> out = new ArrayList<>(4);
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') sb.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') { sb.append('"'); i++; }
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(sb.toString().trim());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        out.add(sb.toString().trim());
+        return out.toArray(new String[0]);
+    }
+
+    /* ---------- partitions ---------- */
+    /** Student totals, in memory for one partition or in spill files by student hash. */
+    private final class Partitions implements Closeable {
+        private final int count;
+        private final Path dir;
+        private final ConcurrentHashMap<String, Standing> memory;
+        private final DataOutputStream[] spills;
+
+        Partitions(int count, Path dir) throws IOException {
+            this.count = count;
+            this.dir = dir;
+            memory = count == 1 ? new ConcurrentHashMap<>() : null;
+            spills = new DataOutputStream[count == 1 ? 0 : count];
+            for (int p = 0; p < spills.length; p++) {
+                spills[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile(p)), 1 << 16));
+            }
+        }
+
+        void add(Map<String, Standing> block) throws IOException {
+            if (memory != null) {
+                block.forEach((student, s) -> memory.merge(student, s, Standing::plus));
+                return;
+            }
+            // Encode outside the locks, then one append per partition
+            ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[count];
+            DataOutputStream[] encoders = new DataOutputStream[count];
+            for (Standing s : block.values()) {
+                int p = Math.floorMod(s.student().hashCode(), count);
+                if (encoders[p] == null) encoders[p] = new DataOutputStream(buffers[p] = new ByteArrayOutputStream(4096));
+                writeStanding(encoders[p], s);
+            }
+            for (int p = 0; p < count; p++) {
+                if (buffers[p] == null) continue;
+                synchronized (spills[p]) {
+                    buffers[p].writeTo(spills[p]);
+                }
+            }
+        }
+
+        /** Each partition totalled and sorted; spilled ones go back to disk as sorted runs. */
+        List<Cursor> sortedRuns(ExecutorService pool) throws IOException {
+            if (memory != null) {
+                List<Standing> all = new ArrayList<>(memory.values());
+                all.sort(RANKING);
+                return List.of(new Cursor(all.iterator()));
+            }
+            for (DataOutputStream spill : spills) spill.close();
+            List<Future<Path>> runs = new ArrayList<>(count);
+            for (int p = 0; p < count; p++) {
+                int partition = p;
+                runs.add(pool.submit(() -> sortPartition(partition)));
+            }
+            List<Cursor> cursors = new ArrayList<>(count);
+            try {
+                for (Future<Path> run : runs) {
+                    Path file = run.get();
+                    if (file != null) cursors.add(new Cursor(file));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while ranking", e);
+            } catch (java.util.concurrent.ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+            return cursors;
+        }
+
+        private Path sortPartition(int p) throws IOException {
+            if (cancelled) return null;
+            Map<String, Standing> totals = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile(p)), 1 << 16))) {
+                Standing s;
+                while ((s = readStanding(in)) != null) totals.merge(s.student(), s, Standing::plus);
+            }
+            List<Standing> sorted = new ArrayList<>(totals.values());
+            sorted.sort(RANKING);
+            Path run = dir.resolve("run-" + p);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                for (Standing s : sorted) writeStanding(out, s);
+            }
+            Files.delete(spillFile(p));
+            return run;
+        }
+
+        private Path spillFile(int p) {
+            return dir.resolve("part-" + p);
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (DataOutputStream spill : spills) spill.close();
+        }
+    }
+
+    private static void writeStanding(DataOutputStream out, Standing s) throws IOException {
+        out.writeUTF(s.student());
+        out.writeInt(s.subjects());
+        out.writeLong(s.unitCents());
+        out.writeLong(s.weightedScaled());
+    }
+
+    private static Standing readStanding(DataInputStream in) throws IOException {
+        String student;
+        try {
+            student = in.readUTF();
+        } catch (EOFException e) {
+            return null;
+        }
+        return new Standing(student, in.readInt(), in.readLong(), in.readLong());
+    }
+
+    /* ---------- ranking ---------- */
+    /** The head of one sorted run, in memory or on disk. */
+    private static final class Cursor implements Closeable {
+        private final Iterator<Standing> memory;
+        private final DataInputStream file;
+        Standing head;
+
+        Cursor(Iterator<Standing> memory) {
+            this.memory = memory;
+            this.file = null;
+        }
+
+        Cursor(Path run) throws IOException {
+            this.memory = null;
+            this.file = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            if (memory != null) head = memory.hasNext() ? memory.next() : null;
+            else head = readStanding(file);
+            return head != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) file.close();
+        }
+    }
+
+    // k-way merge of the sorted runs; ties share a rank (1, 2, 2, 4)
+    private Summary merge(List<Cursor> runs, Writer out) throws IOException {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> RANKING.compare(a.head, b.head));
+        long[] histogram = new long[GwaSimulation.BINS];
+        long students = 0, rank = 0, previous = -1, best = 0, worst = 0, sum = 0;
+        try {
+            for (Cursor c : runs) if (c.advance()) heads.add(c);
+            out.write(HEADER);
+            out.write('\n');
+            StringBuilder sb = new StringBuilder(128);
+            while (!heads.isEmpty() && !cancelled) {
+                Cursor c = heads.poll();
+                Standing s = c.head;
+                long gwa = s.gwaCents();
+                students++;
+                if (gwa != previous) rank = students;
+                if (students == 1) best = gwa;
+                previous = worst = gwa;
+                sum += gwa;
+                histogram[(int) Math.min(histogram.length - 1, Math.max(0, gwa - Subject.MIN_GRADE_CENTS))]++;
+
+                sb.setLength(0);
+                sb.append(rank).append(',').append(csv(s.student())).append(',').append(s.subjects()).append(',')
+                  .append(Subject.centsText(s.unitCents())).append(',').append(Subject.centsText(gwa)).append('\n');
+                out.append(sb);
+                if ((students & 1023) == 0) written = students;
+                if (c.advance()) heads.add(c);
+            }
+            out.flush();
+            written = students;
+        } finally {
+            for (Cursor c : runs) c.close();
+        }
+        GwaSimulation.Result spread = new GwaSimulation.Result(histogram, students, students);
+        return new Summary(rows.sum(), skipped.sum(), students, best, spread.percentileCents(0.5), worst,
+                students == 0 ? 0 : sum / (double) students / 100.0, problemsSoFar(), cancelled);
+    }
+
+    private List<String> problemsSoFar() {
+        synchronized (problems) {
+            return List.copyOf(problems);
+        }
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    private void rethrow() throws IOException {
+        Throwable t = failure.get();
+        if (t == null) return;
+        if (t instanceof IOException io) throw io;
+        if (t instanceof UncheckedIOException io) throw io.getCause();
+        if (t instanceof RuntimeException r) throw r;
+        throw new IOException(t);
+    }
+
+    private static void deleteTree(Path dir) {
+        try (var files = Files.list(dir)) {
+            files.forEach(f -> f.toFile().delete());
+        } catch (IOException ignored) {
+            // best effort; the folder is only temporary
+        }
+        dir.toFile().delete();
+    }
+
+    /** Counts bytes as the reader pulls them, for the progress bar. */
+    private final class CountingStream extends FilterInputStream {
+        private long count;
+
+        CountingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) bytesRead = ++count;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) bytesRead = count += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how long each startup phase takes, relative to App.main.
+ * Phases may be marked from any thread; the report is printed once the app is interactive.
+ */
+final class StartupTimer {
+    record Phase(String name, String thread, long startNanos, long endNanos) {
+        double startMs() { return (startNanos - origin) / 1e6; }
+        double durationMs() { return (endNanos - startNanos) / 1e6; }
+    }
+
+    private static final long origin = System.nanoTime();
+    private static final List<Phase> phases = new ArrayList<>();
+    private static boolean reported = false;
+
+    private StartupTimer() {}
+
+    /** Times a piece of startup work. */
+    static <T> T time(String name, java.util.function.Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(name, start, System.nanoTime());
+        }
+    }
+
+    static void time(String name, Runnable work) {
+        time(name, () -> { work.run(); return null; });
+    }
+
+    /** Marks a milestone (zero-length phase), e.g. "first paint". */
+    static void mark(String name) {
+        long now = System.nanoTime();
+        record(name, now, now);
+    }
+
+    static synchronized List<Phase> phases() {
+        return new ArrayList<>(phases);
+    }
+
+    /** Prints all phases once; later calls do nothing. */
+    static void report() {
+        List<Phase> snapshot;
+        synchronized (StartupTimer.class) {
+            if (reported) return;
+            reported = true;
+            snapshot = new ArrayList<>(phases);
+        }
+        // JVM start to App.main, measured after the fact so it costs nothing at startup
+        long jvmToMain = ManagementFactory.getRuntimeMXBean().getUptime() - (System.nanoTime() - origin) / 1_000_000;
+
+        StringBuilder sb = new StringBuilder("Startup timing (ms since App.main, JVM start to main: ")
+                .append(jvmToMain).append(" ms)\n");
+        for (Phase p : snapshot) {
+            sb.append(String.format("  %8.1f  %8.1f  %-28s [%s]%n", p.startMs(), p.durationMs(), p.name(), p.thread()));
+        }
+        Log.get(StartupTimer.class).info("{}", sb);
+    }
+
+    private static synchronized void record(String name, long start, long end) {
+        phases.add(new Phase(name, Thread.currentThread().getName(), start, end));
+    }
+}
@@ -1,4 +1,7 @@
+import javax.swing.ListModel;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.DecimalFormat;
 
 public class Subject implements Serializable {
@@ -8,14 +11,33 @@ public class Subject implements Serializable {
     // Using a static final DecimalFormat for efficiency in toString
     private static final DecimalFormat df = new DecimalFormat("#.##");
 
+    /** Term for subjects saved before terms existed, or added without one. */
+    static final String DEFAULT_TERM = "Term 1";
+    static final long MIN_GRADE_CENTS = 100, MAX_GRADE_CENTS = 500;
+
     String name;
     double units;
     double grade;
+    String term; // null in files saved before terms existed
+
+    // What-if: a pending subject has no final grade yet. grade is then the most likely
+    // grade and low..high the range it may land in; it is left out of the GWA itself.
+    boolean pending;
+    double low, high;
+
+    // Optional breakdown into quizzes, exams and so on; once anything in it is scored,
+    // grade follows its transmuted result. null when the grade is entered directly.
+    GradeBook gradeBook;
 
     public Subject(String name, double units, double grade) {
+        this(name, units, grade, null);
+    }
+
+    public Subject(String name, double units, double grade, String term) {
         this.name = name;
         this.units = units;
         this.grade = grade;
+        this.term = term;
     }
 
     // Getters and Setters (Good practice for encapsulated data)
@@ -25,9 +47,129 @@ public class Subject implements Serializable {
     public void setUnits(double units) { this.units = units; }
     public double getGrade() { return grade; }
     public void setGrade(double grade) { this.grade = grade; }
+    public String getTerm() { return term == null || term.isBlank() ? DEFAULT_TERM : term; }
+    public void setTerm(String term) { this.term = term; }
+    public boolean isPending() { return pending; }
+    public void setPending(boolean pending) { this.pending = pending; }
+    public double getLow() { return pending ? low : grade; }
+    public double getHigh() { return pending ? high : grade; }
+    public void setRange(double low, double high) { this.low = low; this.high = high; }
+    public GradeBook getGradeBook() { return gradeBook; }
+    public void setGradeBook(GradeBook gradeBook) { this.gradeBook = gradeBook; }
+
+    /** True if the components decide the grade rather than the grade field. */
+    boolean isGradedByComponents() {
+        return gradeBook != null && gradeBook.gradeCents() >= 0;
+    }
+
+    /** Takes the grade from the components; true if it changed. */
+    boolean applyGradeBook() {
+        if (!isGradedByComponents()) return false;
+        double next = gradeBook.gradeCents() / 100.0;
+        if (cents(next) == cents(grade)) return false;
+        grade = next;
+        return true;
+    }
 
     @Override
     public String toString() {
+        if (pending) {
+            return name + " (" + df.format(units) + " units, pending " + df.format(low) + "-" + df.format(high) + ")";
+        }
         return name + " (" + df.format(units) + " units, " + df.format(grade) + ")";
     }
-}
\ No newline at end of file
+
+    /* ---------- exact GWA arithmetic ---------- */
+    // Units and grades are taken to two decimals (half up), the precision the registrar
+    // works in, and summed as scaled longs so no binary rounding error builds up.
+
+    /** v in hundredths, rounded half up from its decimal form (so 1.005 gives 101). */
+    static long cents(double v) {
+        // Values already in hundredths land within rounding noise of an integer
+        double scaled = v * 100;
+        long rounded = Math.round(scaled);
+        if (Math.abs(scaled - rounded) < 1e-6) return rounded;
+        return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Pending subjects count for nothing until they have a grade
+    long unitCents() { return pending ? 0 : cents(units); }
+
+    /** grade × units in ten-thousandths. */
+    long weightedScaled() { return pending ? 0 : cents(grade) * cents(units); }
+
+    /** ∑units (hundredths) and ∑(grade×units) (ten-thousandths) over a subject list. */
+    record Totals(long unitCents, long weightedScaled) {
+        static final Totals EMPTY = new Totals(0, 0);
+
+        double units() { return unitCents / 100.0; }
+
+        double weightedGrade() { return weightedScaled / 10_000.0; }
+
+        /** The GWA in hundredths, rounded half up as on the official form; 0 without units. */
+        long gwaCents() {
+            if (unitCents <= 0) return 0;
+            return (2 * weightedScaled + unitCents) / (2 * unitCents);
+        }
+
+        double gwa() { return gwaCents() / 100.0; }
+
+        /** The GWA with exactly two decimals, e.g. "1.50". */
+        String gwaText() { return centsText(gwaCents()); }
+
+        Totals plus(Totals o) { return new Totals(unitCents + o.unitCents, weightedScaled + o.weightedScaled); }
+
+        Totals minus(Totals o) { return new Totals(unitCents - o.unitCents, weightedScaled - o.weightedScaled); }
+
+        /**
+         * The lowest average grade (hundredths) over remainingUnitCents more units that
+         * brings the rounded GWA up to targetCents. Higher grades are better here (5.00 best).
+         * Above MAX_GRADE_CENTS the target is out of reach; at or below MIN_GRADE_CENTS it
+         * is reached whatever the grades. Exact, and O(1). remainingUnitCents must be positive.
+         */
+        long requiredCents(long remainingUnitCents, long targetCents) {
+            if (remainingUnitCents <= 0) throw new IllegalArgumentException("Units must be at least 0.01");
+            // rounded(W'/U') >= t  <=>  2W' >= U'(2t - 1), with W' = W + x*N and U' = U + N
+            long finalUnits = unitCents + remainingUnitCents;
+            return Math.ceilDiv(finalUnits * (2 * targetCents - 1) - 2 * weightedScaled, 2 * remainingUnitCents);
+        }
+
+        /** requiredCents as a sentence, for the GWA tab and the CLI. */
+        String describeTarget(double remainingUnits, double target) {
+            long need = requiredCents(cents(remainingUnits), cents(target));
+            String goal = centsText(cents(target)) + " over " + df.format(units() + remainingUnits) + " units";
+            if (need > MAX_GRADE_CENTS) {
+                return "A GWA of " + goal + " is out of reach: even straight 5.00s would not be enough.";
+            }
+            if (need <= MIN_GRADE_CENTS) {
+                return "A GWA of " + goal + " is already secured, whatever the remaining grades.";
+            }
+            return "For a GWA of " + goal + ", average at least " + centsText(need)
+                    + " in the remaining " + df.format(remainingUnits) + " units.";
+        }
+    }
+
+    /** Why a subject would be rejected, or null if it is fine. */
+    static String check(String name, double units, double grade) {
+        if (name.isEmpty()) return "Please enter a subject name";
+        if (!(units > 0)) return "Units must be positive";
+        if (!(grade >= 1.0 && grade <= 5.0)) return "Grade must be between 1.0 and 5.0";
+        return null;
+    }
+
+    static String centsText(long cents) {
+        return cents / 100 + "." + (cents % 100 < 10 ? "0" : "") + cents % 100;
+    }
+
+    // Kept out of GWACalculator so headless tools can use it without loading AWT
+    static Totals totals(ListModel<Subject> subjects) {
+        long units = 0;
+        long weighted = 0;
+        for (int i = 0; i < subjects.getSize(); i++) {
+            Subject subject = subjects.getElementAt(i);
+            units += subject.unitCents();
+            weighted += subject.weightedScaled();
+        }
+        return new Totals(units, weighted);
+    }
+}
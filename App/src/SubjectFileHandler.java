@@ -1,9 +1,15 @@
 import javax.swing.DefaultListModel;
 import java.io.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SubjectFileHandler {
 
     private static final String SUBJECTS_FILE_NAME = "subjects.dat";
+    private static final Log LOG = Log.get(SubjectFileHandler.class);
+    private static final LatencyHistogram LOAD = Metrics.histogram("subjects.load");
+    private static final LatencyHistogram SAVE = Metrics.histogram("subjects.save");
+    private static final LongAdder BYTES_WRITTEN = Metrics.counter("subjects.bytesWritten");
 
     /**
      * Determines the full path to the subjects.dat file inside the Group67 directory 
@@ -24,11 +30,14 @@ public class SubjectFileHandler {
      * @throws IOException If there is an error writing the file.
      */
     public void saveSubjects(DefaultListModel<Subject> model) throws IOException {
+        long t0 = System.nanoTime();
         File dataFile = getStorageFile();
         // Use try-with-resources for automatic closing of streams
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(dataFile))) {
             oos.writeObject(model);
         }
+        BYTES_WRITTEN.add(dataFile.length());
+        SAVE.recordSince(t0);
     }
 
     /**
@@ -47,14 +56,39 @@ public class SubjectFileHandler {
             return new DefaultListModel<>(); // Return empty model
         }
 
+        long t0 = System.nanoTime();
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(dataFile))) {
             // Read the whole serialized DefaultListModel object
-            return (DefaultListModel<Subject>) ois.readObject();
+            DefaultListModel<Subject> model = (DefaultListModel<Subject>) ois.readObject();
+            LOAD.recordSince(t0);
+            return model;
         } catch (InvalidClassException | StreamCorruptedException e) {
             // Handle cases where the class structure changed or the file is corrupted
-            System.err.println("Warning: Corrupt or incompatible data file found. Creating new file.");
+            LOG.warn("Corrupt or incompatible data file found ({}). Creating new file.", e.toString());
             dataFile.delete(); // Delete the corrupt file
             throw e; // Re-throw to signal a load failure to the caller (GWACalculator)
         }
     }
-}
\ No newline at end of file
+
+    /* ---------- Async API (safe to call from the EDT) ---------- */
+
+    public CompletableFuture<DefaultListModel<Subject>> loadSubjectsAsync() {
+        return AsyncIO.submit(this::loadSubjects);
+    }
+
+    /**
+     * Serializes the model on the calling thread (the EDT owns it) and writes
+     * the bytes on the I/O executor.
+     */
+    public CompletableFuture<Void> saveSubjectsAsync(DefaultListModel<Subject> model) {
+        long t0 = System.nanoTime();
+        byte[] bytes;
+        try {
+            bytes = ProjectFileHandler.toBytes(model);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        BYTES_WRITTEN.add(bytes.length);
+        return AsyncIO.writeFile(getStorageFile(), bytes).whenComplete((v, ex) -> SAVE.recordSince(t0));
+    }
+}
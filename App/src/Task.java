@@ -1,9 +1,17 @@
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.IllformedLocaleException;
+import java.util.List;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
 
-class Task implements Serializable { // <--- THIS IS CRITICAL
+class Task implements Serializable, ProgressNode { // <--- THIS IS CRITICAL
     private static final long serialVersionUID = 4L;
 
     static final SafeDateFormat DATE_FMT = new SafeDateFormat("MM/dd/yyyy");
@@ -11,6 +19,17 @@ class Task implements Serializable { // <--- THIS IS CRITICAL
     private int difficulty; // 0-3
     private Date deadline;
     private boolean completed = false;
+    private final Instant createdAt = Instant.now(); // null in files saved before it existed
+    private Instant completedAt;
+    private List<Task> subtasks = new ArrayList<>(); // null in files saved before subtasks existed
+    private UUID id = UUID.randomUUID(); // stable handle for the local API; assigned on load for old files
+    private long trackedMillis; // Pomodoro focus time on this task itself; 0 in files saved before tracking
+
+    // Progress of this subtree: leaves count, parents only aggregate their children.
+    // Rebuilt on load by link(), then kept up to date along the ancestor path.
+    private transient ProgressNode parent;
+    private transient int leafCount, doneCount, leafWeight, doneWeight;
+    private transient long subtreeTrackedMillis; // trackedMillis plus every subtask's
 
     Task(String name, int difficulty, Date deadline) {
         setName(name);
@@ -24,6 +43,7 @@ class Task implements Serializable { // <--- THIS IS CRITICAL
 
     public void setDifficulty(int difficulty){
         this.difficulty = Math.max(0, Math.min(3, difficulty));
+        if (isLeaf()) updateLeaf();
     }
 
     public void setName(String name){
@@ -39,7 +59,16 @@ class Task implements Serializable { // <--- THIS IS CRITICAL
     }
 
     public void setCompleted(boolean completed) {
-        this.completed = completed;
+        if (isLeaf()) {
+            if (completed != this.completed) completedAt = completed ? Instant.now() : null;
+            this.completed = completed;
+            updateLeaf();
+        } else if (completed != this.completed) {
+            // Checking off a parent checks off (or reopens) its whole checklist
+            int oc = leafCount, od = doneCount, ow = leafWeight, odw = doneWeight;
+            markSubtree(completed);
+            propagate(oc, od, ow, odw);
+        }
     }
 
     public String getName() {
@@ -58,13 +87,226 @@ class Task implements Serializable { // <--- THIS IS CRITICAL
         return completed;
     }
 
+    public UUID getId() {
+        return id;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
     public String stars(){
         return "★".repeat(difficulty) + "☆".repeat(3-difficulty);
     }
 
+    /** Focus time on this task and its subtasks. */
+    public long getTrackedMillis() {
+        return subtreeTrackedMillis;
+    }
+
+    public String getTrackedString() {
+        return subtreeTrackedMillis == 0 ? "-" : formatTracked(subtreeTrackedMillis);
+    }
+
+    static String formatTracked(long millis) {
+        long minutes = millis / 60_000;
+        return minutes < 60 ? minutes + "m" : String.format("%dh %02dm", minutes / 60, minutes % 60);
+    }
+
+    /** Adds a finished work period; the ancestors' totals follow in O(depth). */
+    public void addTrackedTime(long millis) {
+        if (millis <= 0) return;
+        trackedMillis += millis;
+        childTimeTracked(millis);
+    }
+
+    @Override
+    public void childTimeTracked(long dMillis) {
+        subtreeTrackedMillis += dMillis;
+        if (parent != null) parent.childTimeTracked(dMillis);
+    }
+
     public String getDeadlineString() {
         if (deadline == null) return "No deadline";
         return DATE_FMT.format(deadline);
     }
 
+    // Sort orders used by the todo panel: 0 = deadline (none last), 1 = difficulty, 2 = name
+    static Comparator<Task> order(int mode) {
+        return switch (mode) {
+            case 1 -> Comparator.comparingInt(task -> task.getDifficulty());
+            case 2 -> Comparator.comparing(task -> task.getName().toLowerCase());
+            default -> Comparator.comparing(task -> task.getDeadline(), Comparator.nullsLast(Comparator.naturalOrder()));
+        };
+    }
+
+    /* ---------- Subtasks ---------- */
+    public List<Task> getSubtasks() {
+        return Collections.unmodifiableList(subtasks);
+    }
+
+    // Sorting is done in place by the todo panel, like Project.tasks
+    List<Task> subtaskList() {
+        return subtasks;
+    }
+
+    public boolean hasSubtasks() {
+        return !subtasks.isEmpty();
+    }
+
+    public Task getParentTask() {
+        return parent instanceof Task t ? t : null;
+    }
+
+    public void addSubtask(Task child) {
+        int oc = leafCount, od = doneCount, ow = leafWeight, odw = doneWeight;
+        if (subtasks.isEmpty()) {
+            // First child: this task stops counting as a leaf
+            leafCount = doneCount = leafWeight = doneWeight = 0;
+        }
+        subtasks.add(child);
+        child.parent = this;
+        if (child.subtreeTrackedMillis != 0) childTimeTracked(child.subtreeTrackedMillis);
+        leafCount += child.leafCount;
+        doneCount += child.doneCount;
+        leafWeight += child.leafWeight;
+        doneWeight += child.doneWeight;
+        setDerivedCompleted(doneCount == leafCount);
+        propagate(oc, od, ow, odw);
+        childTasksCreated(child.taskCount());
+    }
+
+    public void removeSubtask(Task child) {
+        if (!subtasks.remove(child)) return;
+        int oc = leafCount, od = doneCount, ow = leafWeight, odw = doneWeight;
+        child.parent = null;
+        if (child.subtreeTrackedMillis != 0) childTimeTracked(-child.subtreeTrackedMillis);
+        if (subtasks.isEmpty()) {
+            computeLeaf();
+        } else {
+            leafCount -= child.leafCount;
+            doneCount -= child.doneCount;
+            leafWeight -= child.leafWeight;
+            doneWeight -= child.doneWeight;
+            setDerivedCompleted(doneCount == leafCount);
+        }
+        propagate(oc, od, ow, odw);
+    }
+
+    /* ---------- Progress roll-up ---------- */
+    int getLeafCount() { return leafCount; }
+
+    // This task and all of its subtasks
+    int taskCount() {
+        int n = 1;
+        for (Task child : subtasks) n += child.taskCount();
+        return n;
+    }
+    int getDoneCount() { return doneCount; }
+    int getLeafWeight() { return leafWeight; }
+    int getDoneWeight() { return doneWeight; }
+
+    @Override
+    public void childProgressChanged(int dCount, int dDone, int dWeight, int dDoneWeight) {
+        int oc = leafCount, od = doneCount, ow = leafWeight, odw = doneWeight;
+        leafCount += dCount;
+        doneCount += dDone;
+        leafWeight += dWeight;
+        doneWeight += dDoneWeight;
+        setDerivedCompleted(doneCount == leafCount);
+        propagate(oc, od, ow, odw);
+    }
+
+    @Override
+    public void childTasksCreated(int count) {
+        if (parent != null) parent.childTasksCreated(count);
+    }
+
+    // Attaches a freshly loaded subtree under p, rebuilding the aggregates bottom-up
+    void link(ProgressNode p) {
+        parent = p;
+        subtreeTrackedMillis = trackedMillis;
+        if (isLeaf()) {
+            computeLeaf();
+            return;
+        }
+        leafCount = doneCount = leafWeight = doneWeight = 0;
+        for (Task child : subtasks) {
+            child.link(this);
+            subtreeTrackedMillis += child.subtreeTrackedMillis;
+            leafCount += child.leafCount;
+            doneCount += child.doneCount;
+            leafWeight += child.leafWeight;
+            doneWeight += child.doneWeight;
+        }
+        completed = doneCount == leafCount;
+    }
+
+    void unlink() {
+        parent = null;
+    }
+
+    ProgressNode getProgressParent() {
+        return parent;
+    }
+
+    private boolean isLeaf() {
+        return subtasks.isEmpty();
+    }
+
+    private void computeLeaf() {
+        int w = difficulty + 1; // 0-star tasks still count
+        leafCount = 1;
+        doneCount = completed ? 1 : 0;
+        leafWeight = w;
+        doneWeight = completed ? w : 0;
+    }
+
+    private void updateLeaf() {
+        int oc = leafCount, od = doneCount, ow = leafWeight, odw = doneWeight;
+        computeLeaf();
+        propagate(oc, od, ow, odw);
+    }
+
+    private void markSubtree(boolean done) {
+        if (isLeaf()) {
+            if (done != completed) completedAt = done ? Instant.now() : null;
+            completed = done;
+            computeLeaf();
+            return;
+        }
+        doneCount = doneWeight = 0;
+        for (Task child : subtasks) {
+            child.markSubtree(done);
+            doneCount += child.doneCount;
+            doneWeight += child.doneWeight;
+        }
+        setDerivedCompleted(done);
+    }
+
+    // A parent is complete once its whole checklist is
+    private void setDerivedCompleted(boolean done) {
+        if (done != completed) completedAt = done ? Instant.now() : null;
+        completed = done;
+    }
+
+    // Walks the ancestor path once with the difference, O(depth)
+    private void propagate(int oc, int od, int ow, int odw) {
+        if (parent == null) return;
+        int dc = leafCount - oc, dd = doneCount - od, dw = leafWeight - ow, ddw = doneWeight - odw;
+        if (dc != 0 || dd != 0 || dw != 0 || ddw != 0) {
+            parent.childProgressChanged(dc, dd, dw, ddw);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (subtasks == null) subtasks = new ArrayList<>();
+        if (id == null) id = UUID.randomUUID();
+    }
+
 }
\ No newline at end of file
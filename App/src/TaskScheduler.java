@@ -0,0 +1,312 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs open tasks into Pomodoro slots, earliest deadline first.
+ * Every day holds the same number of slots, so a task's place in the plan is
+ * just the prefix sum of the efforts queued before it. Changing one task only
+ * re-sorts that task and recomputes the prefix sums behind it.
+ *
+ * Efforts come from the difficulty table until enough finished tasks have tracked
+ * Pomodoro time; then from the project's own pace per difficulty point. Time already
+ * tracked on an open task comes off its effort.
+ */
+class TaskScheduler {
+    // Work sessions needed per difficulty level (0-3 stars)
+    static final int[] POMODOROS_PER_DIFFICULTY = {1, 2, 4, 6};
+    static final int DEFAULT_FOCUS_MINUTES_PER_DAY = 240;
+    // Finished tasks with tracked time needed before their pace replaces the table
+    static final int MIN_PACE_SAMPLES = 3;
+
+    /** Daily capacity derived from the Pomodoro settings. */
+    record Capacity(int workMinutes, int shortBreakMinutes, int longBreakMinutes,
+                    int cyclesBeforeLongBreak, int focusMinutesPerDay) {
+
+        /** How many work sessions (plus the breaks between them) fit in one day. */
+        int pomodorosPerDay() {
+            int work = Math.max(1, workMinutes);
+            int cycles = Math.max(1, cyclesBeforeLongBreak);
+            int used = 0;
+            int count = 0;
+            while (true) {
+                if (used + work > focusMinutesPerDay) break;
+                used += work;
+                count++;
+                used += (count % cycles == 0) ? longBreakMinutes : shortBreakMinutes;
+            }
+            return Math.max(1, count);
+        }
+    }
+
+    /** One task's share of a single day. */
+    record Slot(Task task, int pomodoros, boolean late) {}
+
+    /** A task that cannot be finished before its deadline with the current capacity. */
+    record Warning(Task task, LocalDate deadline, LocalDate finishDay) {
+        @Override
+        public String toString() {
+            return task.getName() + " is due " + Task.DATE_FMT.format(toDate(deadline))
+                    + " but finishes " + Task.DATE_FMT.format(toDate(finishDay));
+        }
+    }
+
+    // Plan entry; the sort key (deadlineDay, seq) is fixed while the entry sits in the queue
+    private static final class Entry {
+        final Task task;
+        long deadlineDay;
+        long seq;
+        int effort;
+        long start; // first slot, counted from the start of today
+        boolean late;
+
+        Entry(Task task) {
+            this.task = task;
+        }
+    }
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final Comparator<Entry> ORDER =
+            Comparator.<Entry>comparingLong(e -> e.deadlineDay).thenComparingLong(e -> e.seq);
+
+    private final Capacity capacity;
+    private final int perDay;
+    private final long today;
+    private final List<Entry> queue = new ArrayList<>();
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+    private long nextSeq = 0;
+    private int lateCount = 0;
+    private double pace = Double.NaN; // Pomodoros per difficulty point, NaN until learned
+
+    TaskScheduler(Capacity capacity) {
+        this(capacity, LocalDate.now());
+    }
+
+    TaskScheduler(Capacity capacity, LocalDate today) {
+        this.capacity = capacity;
+        this.perDay = capacity.pomodorosPerDay();
+        this.today = today.toEpochDay();
+    }
+
+    Capacity getCapacity() {
+        return capacity;
+    }
+
+    /** Day 0 of the plan; a plan from yesterday is off by a day. */
+    LocalDate getDay() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    int getPomodorosPerDay() {
+        return perDay;
+    }
+
+    /** Estimated number of work sessions for a task, by the difficulty table. */
+    static int estimatePomodoros(Task t) {
+        return POMODOROS_PER_DIFFICULTY[t.getDifficulty()];
+    }
+
+    /** Work sessions still needed: the estimate less what was already tracked, at least one. */
+    int remainingPomodoros(Task t) {
+        double estimate = Double.isNaN(pace)
+                ? estimatePomodoros(t)
+                : Math.max(1, Math.round(pace * (t.getDifficulty() + 1)));
+        long workMillis = Math.max(1, capacity.workMinutes()) * 60_000L;
+        return (int) Math.max(1, Math.round(estimate - t.getTrackedMillis() / (double) workMillis));
+    }
+
+    /** Pomodoros per difficulty point over finished tasks with tracked time; NaN if too few. */
+    static double trackedPace(Collection<Task> tasks, int workMinutes) {
+        long[] sums = new long[3]; // tracked millis, difficulty points, samples
+        for (Task t : tasks) addPace(t, sums);
+        if (sums[2] < MIN_PACE_SAMPLES) return Double.NaN;
+        return sums[0] / (Math.max(1, workMinutes) * 60_000.0) / sums[1];
+    }
+
+    private static void addPace(Task t, long[] sums) {
+        if (t.hasSubtasks()) {
+            for (Task child : t.getSubtasks()) addPace(child, sums);
+        } else if (t.isCompleted() && t.getTrackedMillis() > 0) {
+            sums[0] += t.getTrackedMillis();
+            sums[1] += t.getDifficulty() + 1;
+            sums[2]++;
+        }
+    }
+
+    double getPace() {
+        return pace;
+    }
+
+    /**
+     * Rebuilds the whole plan from scratch. Completed tasks are ignored, except that they
+     * set the pace used until the next full plan.
+     */
+    void planAll(Collection<Task> tasks) {
+        pace = trackedPace(tasks, capacity.workMinutes());
+        queue.clear();
+        entries.clear();
+        lateCount = 0;
+        for (Task t : tasks) {
+            if (t.isCompleted()) continue;
+            Entry e = newEntry(t);
+            queue.add(e);
+            entries.put(t, e);
+        }
+        queue.sort(ORDER);
+        recomputeFrom(0);
+    }
+
+    /** Re-plans after a task was added, edited or toggled. */
+    void update(Task t) {
+        Entry e = entries.get(t);
+        if (t.isCompleted()) {
+            if (e != null) remove(t);
+            return;
+        }
+
+        int from;
+        if (e == null) {
+            e = newEntry(t);
+            entries.put(t, e);
+            from = insert(e);
+        } else {
+            long deadlineDay = deadlineDay(t);
+            int effort = remainingPomodoros(t);
+            if (deadlineDay == e.deadlineDay && effort == e.effort) return;
+
+            int oldPos = indexOf(e);
+            queue.remove(oldPos);
+            e.deadlineDay = deadlineDay;
+            e.effort = effort;
+            from = Math.min(oldPos, insert(e));
+        }
+        recomputeFrom(from);
+    }
+
+    /** Drops a task (deleted or completed) from the plan. */
+    void remove(Task t) {
+        Entry e = entries.remove(t);
+        if (e == null) return;
+        if (e.late) lateCount--;
+        int pos = indexOf(e);
+        queue.remove(pos);
+        recomputeFrom(pos);
+    }
+
+    /** Number of days from today until the last queued session. */
+    int horizonDays() {
+        if (queue.isEmpty()) return 0;
+        Entry last = queue.get(queue.size() - 1);
+        return (int) ((last.start + last.effort - 1) / perDay) + 1;
+    }
+
+    /** The tasks worked on during the given day (0 = today). */
+    List<Slot> day(int offset) {
+        List<Slot> slots = new ArrayList<>();
+        long dayStart = (long) offset * perDay;
+        long dayEnd = dayStart + perDay;
+
+        // First entry still running at the start of the day
+        int lo = 0, hi = queue.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Entry m = queue.get(mid);
+            if (m.start + m.effort <= dayStart) lo = mid + 1; else hi = mid;
+        }
+
+        for (int i = lo; i < queue.size(); i++) {
+            Entry e = queue.get(i);
+            if (e.start >= dayEnd) break;
+            long from = Math.max(e.start, dayStart);
+            long to = Math.min(e.start + e.effort, dayEnd);
+            slots.add(new Slot(e.task, (int) (to - from), e.late));
+        }
+        return slots;
+    }
+
+    /** Tasks that miss their deadline, in plan order. */
+    List<Warning> warnings() {
+        List<Warning> warnings = new ArrayList<>(lateCount);
+        if (lateCount == 0) return warnings;
+        for (Entry e : queue) {
+            if (e.late) {
+                warnings.add(new Warning(e.task, LocalDate.ofEpochDay(e.deadlineDay),
+                        LocalDate.ofEpochDay(today + finishOffset(e))));
+            }
+        }
+        return warnings;
+    }
+
+    boolean isOverloaded() {
+        return lateCount > 0;
+    }
+
+    /* ---------- internals ---------- */
+    private Entry newEntry(Task t) {
+        Entry e = new Entry(t);
+        e.deadlineDay = deadlineDay(t);
+        e.seq = nextSeq++;
+        e.effort = remainingPomodoros(t);
+        return e;
+    }
+
+    private int insert(Entry e) {
+        int pos = binarySearch(e);
+        queue.add(pos, e);
+        return pos;
+    }
+
+    private int indexOf(Entry e) {
+        return binarySearch(e);
+    }
+
+    // Lower bound of e's key; keys are unique because seq is
+    private int binarySearch(Entry e) {
+        int lo = 0, hi = queue.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ORDER.compare(queue.get(mid), e) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private void recomputeFrom(int from) {
+        long slot = 0;
+        if (from > 0) {
+            Entry prev = queue.get(from - 1);
+            slot = prev.start + prev.effort;
+        }
+        for (int i = from; i < queue.size(); i++) {
+            Entry e = queue.get(i);
+            if (e.late) lateCount--;
+            e.start = slot;
+            slot += e.effort;
+            e.late = isLate(e);
+            if (e.late) lateCount++;
+        }
+    }
+
+    private long finishOffset(Entry e) {
+        return (e.start + e.effort - 1) / perDay;
+    }
+
+    private boolean isLate(Entry e) {
+        return e.deadlineDay != NO_DEADLINE && today + finishOffset(e) > e.deadlineDay;
+    }
+
+    private static long deadlineDay(Task t) {
+        Date d = t.getDeadline();
+        if (d == null) return NO_DEADLINE;
+        return d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    private static Date toDate(LocalDate d) {
+        return Date.from(d.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,78 @@
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Percent-to-grade table: each row is the lowest percentage that earns a grade, and a
+ * percentage below every row gets 1.00. Percentages are basis points and grades hundredths,
+ * so a lookup is one binary search with no rounding surprises at the boundaries.
+ */
+final class Transmutation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final Transmutation DEFAULT = parse("95=5.00, 90=4.50, 85=4.00, 80=3.50, 75=3.00, 70=2.50, 65=2.00, 60=1.50");
+
+    private final long[] minBasisPoints; // ascending
+    private final long[] gradeCents;
+
+    private Transmutation(long[] minBasisPoints, long[] gradeCents) {
+        this.minBasisPoints = minBasisPoints;
+        this.gradeCents = gradeCents;
+    }
+
+    /** The grade in hundredths for a percentage in basis points. */
+    long gradeCents(long basisPoints) {
+        int i = Arrays.binarySearch(minBasisPoints, basisPoints);
+        if (i < 0) i = -i - 2; // the row below the insertion point
+        return i < 0 ? Subject.MIN_GRADE_CENTS : gradeCents[i];
+    }
+
+    /**
+     * Reads rows like "95=5.00, 90=4.50"; throws IllegalArgumentException with a message for
+     * the user. A higher percentage must never earn a lower grade.
+     */
+    static Transmutation parse(String text) {
+        TreeMap<Long, Long> rows = new TreeMap<>();
+        for (String row : text.split("[,;\\n]")) {
+            if (row.isBlank()) continue;
+            String[] kv = row.split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Write each row as percent=grade, e.g. 90=4.50");
+            double percent, grade;
+            try {
+                percent = Double.parseDouble(kv[0].trim().replace("%", ""));
+                grade = Double.parseDouble(kv[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number in \"" + row.trim() + "\"");
+            }
+            if (percent < 0 || percent > 100) throw new IllegalArgumentException("Percentages must be 0 to 100");
+            if (grade < 1.0 || grade > 5.0) throw new IllegalArgumentException("Grades must be between 1.0 and 5.0");
+            if (rows.put(Subject.cents(percent), Subject.cents(grade)) != null) {
+                throw new IllegalArgumentException("Percentage " + kv[0].trim() + " is listed twice");
+            }
+        }
+        if (rows.isEmpty()) throw new IllegalArgumentException("The table needs at least one row");
+
+        long[] mins = new long[rows.size()], grades = new long[rows.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> e : rows.entrySet()) {
+            mins[i] = e.getKey();
+            grades[i] = e.getValue();
+            if (i > 0 && grades[i] < grades[i - 1]) {
+                throw new IllegalArgumentException("A higher percentage cannot give a lower grade");
+            }
+            i++;
+        }
+        return new Transmutation(mins, grades);
+    }
+
+    /** Highest row first, in the form parse() reads. */
+    String format() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = minBasisPoints.length - 1; i >= 0; i--) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(Subject.centsText(minBasisPoints[i])).append('=').append(Subject.centsText(gradeCents[i]));
+        }
+        return sb.toString();
+    }
+}
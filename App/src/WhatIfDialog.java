@@ -0,0 +1,205 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+// GWA tab > What-if: samples the pending subjects' grade ranges on the fork-join pool and
+// shows the spread of final GWAs. The EDT only polls snapshots, so the tab stays responsive.
+class WhatIfDialog extends JDialog {
+    private static final Log LOG = Log.get(WhatIfDialog.class);
+    private static final double[] PERCENTILES = {0.05, 0.10, 0.25, 0.50, 0.75, 0.90, 0.95};
+
+    private final ListModel<Subject> subjects;
+    private final JTextField samplesField = new JTextField("2000000", 9);
+    private final JTextField thresholdsField = new JTextField("4.50, 4.00, 3.50", 14);
+    private final JButton runButton = new JButton("Run");
+    private final JProgressBar progress = new JProgressBar(0, 1000);
+    private final Histogram histogram = new Histogram();
+    private final DefaultTableModel statsModel = new DefaultTableModel(new Object[]{"Statistic", "GWA"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) { return false; }
+    };
+    private final javax.swing.Timer pollTimer = new javax.swing.Timer(100, e -> refresh());
+
+    private GwaSimulation simulation;
+    private long[] thresholds = new long[0];
+    private long startedAt;
+
+    WhatIfDialog(Frame owner, ListModel<Subject> subjects) {
+        super(owner, "What-if GWA", false);
+        this.subjects = subjects;
+        setSize(820, 480);
+        setLocationRelativeTo(owner);
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Samples:"));
+        controls.add(samplesField);
+        controls.add(new JLabel("Chance of at least:"));
+        controls.add(thresholdsField);
+        controls.add(runButton);
+        add(controls, BorderLayout.NORTH);
+
+        JTable stats = new JTable(statsModel);
+        JScrollPane statsPane = new JScrollPane(stats);
+        statsPane.setPreferredSize(new Dimension(240, 0));
+        JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, histogram, statsPane);
+        split.setResizeWeight(1.0);
+        add(split, BorderLayout.CENTER);
+
+        progress.setStringPainted(true);
+        progress.setString("Not started");
+        progress.setBorder(new EmptyBorder(5, 5, 5, 5));
+        add(progress, BorderLayout.SOUTH);
+
+        runButton.addActionListener(e -> {
+            if (simulation != null) stop();
+            else start();
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) { stop(); }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    private void start() {
+        long samples;
+        List<Long> targets = new ArrayList<>();
+        try {
+            samples = Long.parseLong(samplesField.getText().trim().replace(",", "").replace("_", ""));
+            for (String part : thresholdsField.getText().split(",")) {
+                if (part.isBlank()) continue;
+                double t = Double.parseDouble(part.trim());
+                if (t < 1.0 || t > 5.0) throw new NumberFormatException();
+                targets.add(Subject.cents(t));
+            }
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Enter a whole number of samples and GWAs between 1.0 and 5.0");
+            return;
+        }
+        if (samples <= 0) {
+            JOptionPane.showMessageDialog(this, "The number of samples must be positive");
+            return;
+        }
+
+        GwaSimulation sim = GwaSimulation.of(subjects, samples, System.nanoTime());
+        if (sim.pendingCount() == 0) {
+            JOptionPane.showMessageDialog(this, "Mark at least one subject as not graded yet to explore what-ifs");
+            return;
+        }
+        thresholds = targets.stream().mapToLong(Long::longValue).toArray();
+        simulation = sim;
+        startedAt = System.nanoTime();
+        runButton.setText("Stop");
+        sim.start().whenComplete((v, ex) -> {
+            if (ex != null) LOG.error("What-if simulation failed", ex);
+            SwingUtilities.invokeLater(() -> finished(sim));
+        });
+        pollTimer.start();
+    }
+
+    private void stop() {
+        if (simulation != null) simulation.cancel();
+    }
+
+    private void finished(GwaSimulation sim) {
+        if (simulation != sim) return;
+        refresh();
+        pollTimer.stop();
+        simulation = null;
+        runButton.setText("Run");
+    }
+
+    // Timer tick: take whatever samples are done and redraw
+    private void refresh() {
+        GwaSimulation sim = simulation;
+        if (sim == null) return;
+        GwaSimulation.Result r = sim.snapshot();
+        histogram.setResult(r);
+
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        progress.setValue((int) (1000 * r.samples() / r.requested()));
+        progress.setString(String.format("%,d of %,d samples%s (%.1f s)", r.samples(), r.requested(),
+                sim.isCancelled() ? ", stopped" : "", seconds));
+
+        statsModel.setRowCount(0);
+        if (r.isEmpty()) return;
+        statsModel.addRow(new Object[]{"Mean", String.format("%.2f", r.mean())});
+        for (double p : PERCENTILES) {
+            statsModel.addRow(new Object[]{"P" + Math.round(p * 100), Subject.centsText(r.percentileCents(p))});
+        }
+        for (long t : thresholds) {
+            statsModel.addRow(new Object[]{"GWA ≥ " + Subject.centsText(t),
+                    String.format("%.1f%%", 100 * r.probabilityAtLeast(t))});
+        }
+    }
+
+    /** Bars per hundredth of GWA over the range the samples actually cover. */
+    private static final class Histogram extends JPanel {
+        private static final Color BAR = new Color(70, 130, 180);
+        private static final int PAD = 40;
+        private GwaSimulation.Result result;
+
+        Histogram() {
+            setBackground(Color.WHITE);
+        }
+
+        void setResult(GwaSimulation.Result result) {
+            this.result = result;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setFont(new Font("SansSerif", Font.PLAIN, 12));
+            g2.setColor(Color.DARK_GRAY);
+            if (result == null || result.isEmpty()) {
+                g2.drawString("Press Run to sample the pending subjects", PAD, PAD);
+                return;
+            }
+            int plotW = getWidth() - 2 * PAD, plotH = getHeight() - 2 * PAD;
+            if (plotW <= 0 || plotH <= 0) return;
+
+            long[] counts = result.counts();
+            int first = 0, last = counts.length - 1;
+            while (counts[first] == 0) first++;
+            while (counts[last] == 0) last--;
+            // A little room either side so a single bar is not the whole chart
+            first = Math.max(0, first - 2);
+            last = Math.min(counts.length - 1, last + 2);
+            long max = 1;
+            for (int b = first; b <= last; b++) max = Math.max(max, counts[b]);
+
+            int bins = last - first + 1;
+            double barW = plotW / (double) bins;
+            g2.setColor(BAR);
+            for (int b = first; b <= last; b++) {
+                if (counts[b] == 0) continue;
+                int barH = (int) Math.max(1, Math.round(plotH * counts[b] / (double) max));
+                int x = PAD + (int) Math.round((b - first) * barW);
+                int x2 = PAD + (int) Math.round((b - first + 1) * barW);
+                g2.fillRect(x, PAD + plotH - barH, Math.max(1, x2 - x - 1), barH);
+            }
+
+            // Axis with a handful of GWA labels
+            g2.setColor(Color.DARK_GRAY);
+            g2.drawLine(PAD, PAD + plotH, PAD + plotW, PAD + plotH);
+            FontMetrics fm = g2.getFontMetrics();
+            int step = Math.max(1, (int) Math.ceil(bins / (plotW / 60.0)));
+            for (int b = first; b <= last; b += step) {
+                String label = Subject.centsText(b + Subject.MIN_GRADE_CENTS);
+                int x = PAD + (int) Math.round((b - first + 0.5) * barW);
+                g2.drawLine(x, PAD + plotH, x, PAD + plotH + 4);
+                g2.drawString(label, x - fm.stringWidth(label) / 2, PAD + plotH + 4 + fm.getAscent());
+            }
+            g2.drawString(String.format("%,d samples", result.samples()), PAD, PAD - 8);
+        }
+    }
+}